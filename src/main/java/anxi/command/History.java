@@ -0,0 +1,93 @@
+package anxi.command;
+
+import java.util.ArrayDeque;
+
+/**
+ * Changes made by recent commands, to be undone and redone.
+ *
+ * <p>Each entry holds the versions of the task list before and after a command. Versions are trees that
+ * share every node the command did not copy, so an entry costs O(log n) memory for each task changed
+ * rather than a copy of the list. Only the latest entries up to the depth are kept.
+ */
+public class History {
+    public static final int DEFAULT_DEPTH = 100;
+
+    private final int depth;
+    private final ArrayDeque<TaskChanges> undoable = new ArrayDeque<>();
+    private final ArrayDeque<TaskChanges> redoable = new ArrayDeque<>();
+
+    /**
+     * History constructor.
+     */
+    public History() {
+        this(DEFAULT_DEPTH);
+    }
+
+    /**
+     * History constructor.
+     *
+     * @param depth     Number of commands that can be undone.
+     */
+    public History(int depth) {
+        if (depth < 0) {
+            throw new IllegalArgumentException("History depth cannot be negative: " + depth);
+        }
+        this.depth = depth;
+    }
+
+    /**
+     * Records the changes made by a command, after which nothing undone can be redone.
+     *
+     * @param changes   Changes made by the command.
+     */
+    public void record(TaskChanges changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        redoable.clear();
+        undoable.push(changes);
+        if (undoable.size() > depth) {
+            undoable.removeLast();
+        }
+    }
+
+    /**
+     * Retrieves the changes of the latest command not undone.
+     *
+     * @return changes  Changes to reverse to undo the command, null if there is nothing to undo.
+     */
+    public TaskChanges getUndo() {
+        return undoable.peek();
+    }
+
+    /**
+     * Moves the latest command not undone to the commands that can be redone.
+     */
+    public void markUndone() {
+        redoable.push(undoable.pop());
+    }
+
+    /**
+     * Retrieves the changes of the latest command undone.
+     *
+     * @return changes  Changes to apply to redo the command, null if there is nothing to redo.
+     */
+    public TaskChanges getRedo() {
+        return redoable.peek();
+    }
+
+    /**
+     * Moves the latest command undone back to the commands that can be undone.
+     */
+    public void markRedone() {
+        undoable.push(redoable.pop());
+    }
+
+    /**
+     * Forgets every command, for when the task list has been changed in a way the history cannot follow.
+     */
+    public void clear() {
+        undoable.clear();
+        redoable.clear();
+    }
+}
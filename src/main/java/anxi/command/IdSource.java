@@ -0,0 +1,15 @@
+package anxi.command;
+
+/**
+ * Loaded list of tasks that can find the largest id among its tasks without creating them.
+ * The task list uses this to find the next id without reading every task from the loaded list.
+ */
+public interface IdSource {
+
+    /**
+     * Retrieves the largest id of any task in the list.
+     *
+     * @return id       Largest id, 0 if no task has one.
+     */
+    int getLargestId();
+}
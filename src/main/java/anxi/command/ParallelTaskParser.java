@@ -0,0 +1,181 @@
+package anxi.command;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+
+import anxi.tasks.Task;
+
+/**
+ * Parses the contents of a save file, splitting large files into chunks parsed in parallel.
+ */
+class ParallelTaskParser {
+    /** Files smaller than this are parsed on the calling thread. */
+    static final int PARALLEL_THRESHOLD = 1024 * 1024;
+
+    private static final int CHUNK_SIZE = 256 * 1024;
+
+    private final byte[] content;
+    private final Charset charset;
+    private final Function<String, Task> decoder;
+    private final ArrayList<String> errors = new ArrayList<>();
+    private final ArrayList<String> unreadableLines = new ArrayList<>();
+    private int numOfBlankLines;
+
+    /**
+     * ParallelTaskParser constructor.
+     *
+     * @param content       Contents of the save file.
+     * @param charset       Charset the save file is written in.
+     * @param decoder       Converts a save file line into a task, null if the line cannot be read.
+     */
+    ParallelTaskParser(byte[] content, Charset charset, Function<String, Task> decoder) {
+        this.content = content;
+        this.charset = charset;
+        this.decoder = decoder;
+    }
+
+    /**
+     * Parses all lines into tasks, in file order.
+     *
+     * @return tasks    Tasks that could be read.
+     */
+    List<Task> parse() {
+        ArrayList<Chunk> chunks = split();
+        if (chunks.size() == 1) {
+            chunks.get(0).compute();
+        } else {
+            for (Chunk chunk : chunks) {
+                ForkJoinPool.commonPool().execute(chunk);
+            }
+            for (Chunk chunk : chunks) {
+                chunk.join();
+            }
+        }
+
+        int total = 0;
+        for (Chunk chunk : chunks) {
+            total += chunk.tasks.size();
+        }
+
+        ArrayList<Task> tasks = new ArrayList<>(total);
+        int firstLine = 1;
+        for (Chunk chunk : chunks) {
+            tasks.addAll(chunk.tasks);
+            for (int i = 0; i < chunk.badLines.size(); ++i) {
+                errors.add("File error, cannot read line " + (firstLine + chunk.badLines.get(i)));
+                unreadableLines.add(chunk.badText.get(i));
+            }
+            numOfBlankLines += chunk.numOfBlankLines;
+            firstLine += chunk.numOfLines;
+        }
+
+        return tasks;
+    }
+
+    /**
+     * Retrieves the lines that could not be read, in file order.
+     *
+     * @return errors   One message per unreadable line.
+     */
+    List<String> getErrors() {
+        return errors;
+    }
+
+    /**
+     * Retrieves the lines that could not be read.
+     *
+     * @return lines    Contents of each unreadable line, in file order.
+     */
+    List<String> getUnreadableLines() {
+        return unreadableLines;
+    }
+
+    /**
+     * Checks if any line of the file was skipped, so that lines of the file and tasks read no longer
+     * match one to one.
+     *
+     * @return isSkipped    True if a line was blank or could not be read.
+     */
+    boolean hasSkippedLines() {
+        return numOfBlankLines > 0 || !unreadableLines.isEmpty();
+    }
+
+    private ArrayList<Chunk> split() {
+        ArrayList<Chunk> chunks = new ArrayList<>();
+        if (content.length < PARALLEL_THRESHOLD) {
+            chunks.add(new Chunk(0, content.length));
+            return chunks;
+        }
+
+        int start = 0;
+        while (start < content.length) {
+            int end = Math.min(start + CHUNK_SIZE, content.length);
+            while (end < content.length && content[end - 1] != '\n') {
+                end++;
+            }
+            chunks.add(new Chunk(start, end));
+            start = end;
+        }
+        return chunks;
+    }
+
+    /**
+     * Newline-aligned range of the file parsed by a single worker.
+     */
+    private class Chunk extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int start;
+        private final int end;
+        private final ArrayList<Task> tasks = new ArrayList<>();
+        private final ArrayList<Integer> badLines = new ArrayList<>();
+        private final ArrayList<String> badText = new ArrayList<>();
+        private int numOfLines;
+        private int numOfBlankLines;
+
+        Chunk(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            String text = new String(content, start, end - start, charset);
+            if (text.isEmpty()) {
+                return;
+            }
+            String[] lines = text.split("\r?\n", -1);
+            // A chunk that ends with a newline has one empty piece after it that is not a line of the file.
+            int numOfPieces = text.endsWith("\n") ? lines.length - 1 : lines.length;
+            for (int i = 0; i < numOfPieces; ++i) {
+                if (lines[i].isBlank()) {
+                    numOfBlankLines++;
+                } else {
+                    parseLine(lines[i]);
+                }
+                numOfLines++;
+            }
+        }
+
+        private void parseLine(String line) {
+            Task task;
+            try {
+                task = decoder.apply(line);
+            } catch (NoSuchElementException e) {
+                task = null;
+            }
+
+            if (task == null) {
+                badLines.add(numOfLines);
+                badText.add(line);
+            } else {
+                tasks.add(task);
+            }
+        }
+    }
+}
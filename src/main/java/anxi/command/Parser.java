@@ -1,9 +1,18 @@
 package anxi.command;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.stream.Stream;
+
+import anxi.handlers.BatchHandler;
 import anxi.handlers.DeadlineHandler;
 import anxi.handlers.DeleteHandler;
 import anxi.handlers.EventHandler;
 import anxi.handlers.FindHandler;
+import anxi.handlers.HistoryHandler;
+import anxi.handlers.ImportHandler;
+import anxi.handlers.ListHandler;
 import anxi.handlers.MarkHandler;
 import anxi.handlers.ToDoHandler;
 import anxi.handlers.UnmarkHandler;
@@ -11,34 +20,159 @@ import anxi.handlers.ViewHandler;
 
 /**
  * Handles reading user input and calling the relevant commands.
+ * Between "begin" and "commit", commands are queued to be run together as one batch.
+ * The changes each command makes are recorded, so that they can be undone and redone.
  */
 public class Parser {
+    private final History history;
+    private ArrayList<String> batch;
+    private boolean isRecording;
+    private boolean isExit;
 
     /**
      * Parser constructor.
      */
     public Parser() {
+        this(new History());
+    }
+
+    /**
+     * Parser constructor.
+     *
+     * @param history   History to record the changes made by each command in.
+     */
+    public Parser(History history) {
+        this.history = history;
+    }
+
+    /**
+     * Parses user input and calls the relevant commands, giving the result in chunks to print one after another.
+     * Listing all tasks is streamed, so only the chunk being printed is built; other commands give one chunk.
+     *
+     * @param input             User command input.
+     * @param storage           TaskStore instance.
+     * @param taskList          TaskList instance.
+     * @param ui                Ui instance.
+     * @return uiStrings        Result of parsing user input, in chunks.
+     */
+    public Stream<String> streamInput(String input, TaskStore storage, TaskList taskList, Ui ui) {
+        String[] command = input.strip().split("\\s+");
+        boolean isListAll = command.length == 2 && command[0].equalsIgnoreCase("list")
+                && command[1].equalsIgnoreCase("all");
+        if (batch == null && isListAll) {
+            return new ListHandler().streamTasks(taskList, ui);
+        }
+        return Stream.of(parseInput(input, storage, taskList, ui));
     }
 
     /**
      * Parses user input and calls the relevant commands.
      *
      * @param input             User command input.
-     * @param storage           Storage instance.
+     * @param storage           TaskStore instance.
      * @param taskList          TaskList instance.
      * @param ui                Ui instance.
      * @return uiString         Result of parsing user input.
      */
-    public String parseInput(String input, Storage storage, TaskList taskList, Ui ui) {
+    public String parseInput(String input, TaskStore storage, TaskList taskList, Ui ui) {
+        // Commands run by a batch are recorded with the batch, as one change.
+        if (isRecording) {
+            return runInput(input, storage, taskList, ui);
+        }
+
+        String name = input.strip().toLowerCase();
+        if (batch == null && name.equals("undo")) {
+            HistoryHandler hh = new HistoryHandler();
+            String result = hh.undo(history, storage, taskList, ui);
+            saveNextId(storage, taskList);
+            return result;
+        } else if (batch == null && name.equals("redo")) {
+            HistoryHandler hh = new HistoryHandler();
+            String result = hh.redo(history, storage, taskList, ui);
+            saveNextId(storage, taskList);
+            return result;
+        }
+
+        TaskList.Version before = taskList.getVersion();
+        isRecording = true;
+        try {
+            String result = runInput(input, storage, taskList, ui);
+            history.record(taskList.changesSince(before));
+            saveNextId(storage, taskList);
+            return result;
+        } finally {
+            isRecording = false;
+            taskList.releaseVersion(before);
+        }
+    }
+
+    /**
+     * Checks whether the user has said bye and the tasks have been saved, so the taskbot can close.
+     *
+     * @return isExit           True if the bye command has been run.
+     */
+    public boolean isExit() {
+        return isExit;
+    }
+
+    /**
+     * Saves the id for the next new task once the task with the largest id is deleted, so that its id
+     * is not given to another task after the save file is loaded again.
+     *
+     * @param storage           TaskStore instance.
+     * @param taskList          TaskList instance.
+     */
+    private void saveNextId(TaskStore storage, TaskList taskList) {
+        if (!taskList.hasDeletedLargestId()) {
+            return;
+        }
+        try {
+            storage.saveNextId(taskList.getNextId());
+        } catch (IOException e) {
+            // The store keeps the largest id it has saved, so this is tried again after the next command.
+        }
+    }
+
+    /**
+     * Queues input in a batch, runs it as a batch, or calls the relevant command.
+     *
+     * @param input             User command input.
+     * @param storage           TaskStore instance.
+     * @param taskList          TaskList instance.
+     * @param ui                Ui instance.
+     * @return uiString         Result of parsing user input.
+     */
+    private String runInput(String input, TaskStore storage, TaskList taskList, Ui ui) {
+        if (batch != null) {
+            return queueInput(input, storage, taskList, ui);
+        } else if (input.contains(";")) {
+            BatchHandler bh = new BatchHandler();
+            return bh.runCommands(input, this, storage, taskList, ui);
+        }
+
         input = input + " ";
         String[] command = input.split(" ", 2);
 
         switch (command[0].toLowerCase()) {
         case "bye":
+            try {
+                storage.flush();
+            } catch (IOException e) {
+                return ui.printErrorMessage("Error, unable to save tasks to storage.");
+            }
+            isExit = true;
             return ui.printExitMessage();
 
+        case "begin":
+            batch = new ArrayList<>();
+            return ui.printBatchStarted();
+
         case "list":
-            return ui.printTaskList(taskList.printTaskList());
+            ListHandler lh = new ListHandler();
+            return lh.listTasks(command[1], taskList, ui);
+
+        case "stats":
+            return ui.printStats(taskList.printStats(LocalDateTime.now()));
 
         case "mark":
             MarkHandler mh = new MarkHandler();
@@ -68,12 +202,55 @@ public class Parser {
             FindHandler fh = new FindHandler();
             return fh.findTask(command[1], taskList, ui);
 
+        case "find~":
+            FindHandler fuzzyHandler = new FindHandler();
+            return fuzzyHandler.findSimilarTask(command[1], taskList, ui);
+
         case "view":
             ViewHandler vh = new ViewHandler();
             return vh.viewSchedule(command[1], taskList, ui);
 
+        case "agenda":
+            ViewHandler agendaHandler = new ViewHandler();
+            return agendaHandler.viewAgenda(command[1], taskList, ui);
+
+        case "upcoming":
+            ViewHandler upcomingHandler = new ViewHandler();
+            return upcomingHandler.viewUpcoming(command[1], taskList, ui);
+
+        case "import":
+            ImportHandler ih = new ImportHandler();
+            return ih.importTasks(command[1], storage, taskList, ui);
+
         default:
             return ui.printUnknownCommandError();
         }
     }
+
+    /**
+     * Queues input in the batch being built, or runs or drops the batch.
+     *
+     * @param input             User command input.
+     * @param storage           TaskStore instance.
+     * @param taskList          TaskList instance.
+     * @param ui                Ui instance.
+     * @return uiString         Result of queueing, running or dropping.
+     */
+    private String queueInput(String input, TaskStore storage, TaskList taskList, Ui ui) {
+        BatchHandler bh = new BatchHandler();
+        switch (input.strip().toLowerCase()) {
+        case "commit":
+            ArrayList<String> commands = batch;
+            batch = null;
+            return bh.runBatch(commands, this, storage, taskList, ui);
+
+        case "abort":
+            int numOfCommands = batch.size();
+            batch = null;
+            return ui.printBatchAborted(numOfCommands);
+
+        default:
+            return bh.queueCommands(input, batch, ui);
+        }
+    }
 }
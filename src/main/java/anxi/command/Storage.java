@@ -1,14 +1,25 @@
 package anxi.command;
 
+import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
-import java.util.Scanner;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.StringTokenizer;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
 
 import anxi.tasks.Deadline;
 import anxi.tasks.Event;
@@ -17,10 +28,14 @@ import anxi.tasks.ToDo;
 
 /**
  * Loads tasks from the file and saves tasks in file.
+ *
+ * <p>Each line starts with the id of its task, so a task is found in the file by its id rather than
+ * by its line. Ids ascend down the file, since new tasks are given the next id and added at the end.
  */
-public class Storage {
-    private File file;
-    private String filePath;
+public class Storage implements TaskStore {
+    protected File file;
+    protected String filePath;
+    private int savedNextId;
 
     /**
      * Storage constructor.
@@ -34,43 +49,205 @@ public class Storage {
 
     /**
      * Loads tasks from save file.
+     * Large files are split into chunks that are parsed in parallel. If any line is blank or cannot be
+     * read, the file is written again with one line per task loaded, and unreadable lines are kept in
+     * a file beside it.
      *
      * @return taskList     List of tasks retrieved from save file.
-     * @throws IOException  If scanner cannot read next line.
+     * @throws IOException  If unable to read the save file.
      */
-    public ArrayList<Task> loadTasks() throws IOException {
+    @Override
+    public List<Task> loadTasks() throws IOException {
         if (!file.exists()) {
             handleFileAccessErrors();
         }
 
-        Scanner scanner = new Scanner(file);
-        ArrayList<Task> tasks = new ArrayList<>();
+        ParallelTaskParser parser = new ParallelTaskParser(Files.readAllBytes(file.toPath()),
+                Charset.defaultCharset(), this::parseTask);
+        List<Task> tasks = parser.parse();
+        for (String error : parser.getErrors()) {
+            System.out.println(error);
+        }
+        setAside(parser.getUnreadableLines());
 
-        while (scanner.hasNextLine()) {
-            String s = scanner.nextLine();
-            StringTokenizer st = new StringTokenizer(s, "|");
+        if (assignIds(tasks) || parser.hasSkippedLines()) {
+            rewrite(tasks);
+        }
+        return tasks;
+    }
 
-            String t = st.nextToken().strip();
-            boolean isDone = st.nextToken().strip().equalsIgnoreCase("1");
-            String description = st.nextToken().strip();
+    /**
+     * Appends lines that cannot be read to a file beside the save file, before they are removed from it.
+     * Stores that refer to tasks by position need every line of the file to be a task, but the
+     * unreadable lines are kept there in case they can be fixed by hand.
+     *
+     * @param lines         Unreadable lines.
+     * @throws IOException  If unable to write to the file.
+     */
+    protected void setAside(List<String> lines) throws IOException {
+        if (lines.isEmpty()) {
+            return;
+        }
 
-            if (t.equalsIgnoreCase("t")) {
-                tasks.add(new ToDo(description, isDone));
+        File unreadable = new File(filePath + ".unreadable");
+        BufferedWriter bw = new BufferedWriter(new FileWriter(unreadable, true));
+        for (String line : lines) {
+            bw.write(line + System.lineSeparator());
+        }
+        bw.close();
+        System.out.println("Unreadable lines moved to " + unreadable.getPath());
+    }
 
-            } else if (t.equalsIgnoreCase("e")) {
-                String from = st.nextToken().strip();
-                tasks.add(new Event(description, isDone, from, st.nextToken().strip()));
+    /**
+     * Gives every task an id in list order, unless each task already has one and they ascend.
+     * Files saved before tasks had ids are numbered this way the first time they are loaded.
+     *
+     * @param tasks         Tasks loaded, in list order.
+     * @return isAssigned   True if the ids were reassigned and have to be saved.
+     */
+    public static boolean assignIds(List<Task> tasks) {
+        int previous = 0;
+        for (Task task : tasks) {
+            if (task.getId() <= previous) {
+                for (int i = 0; i < tasks.size(); ++i) {
+                    tasks.get(i).setId(i + 1);
+                }
+                return true;
+            }
+            previous = task.getId();
+        }
+        return false;
+    }
 
-            } else if (t.equalsIgnoreCase("d")) {
-                tasks.add(new Deadline(description, isDone, st.nextToken().strip()));
+    /**
+     * Replaces the save file with the given tasks.
+     *
+     * @param tasks         Tasks to save, in list order.
+     * @throws IOException  If unable to write to file.
+     */
+    private void rewrite(List<Task> tasks) throws IOException {
+        File temp = new File(filePath + ".tmp");
+        BufferedWriter bw = new BufferedWriter(new FileWriter(temp));
+        for (int i = 0; i < tasks.size(); ++i) {
+            if (i > 0) {
+                bw.write(System.lineSeparator());
+            }
+            bw.write(toRecord(tasks.get(i)));
+        }
+        bw.close();
 
-            } else {
-                System.out.println("File error, cannot read list");
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Loads the id saved for the next new task from the file beside the save file.
+     *
+     * @return nextId       Next id, 1 if none was saved.
+     * @throws IOException  If unable to read the file.
+     */
+    @Override
+    public int loadNextId() throws IOException {
+        File idFile = new File(filePath + ".id");
+        if (idFile.exists()) {
+            savedNextId = parseId(Files.readString(idFile.toPath()).strip());
+        }
+        return Math.max(savedNextId, 1);
+    }
+
+    /**
+     * Saves the id for the next new task in a file beside the save file, unless a larger one is saved.
+     *
+     * @param nextId        Next id, larger than every id given out before.
+     * @throws IOException  If unable to write to the file.
+     */
+    @Override
+    public void saveNextId(int nextId) throws IOException {
+        if (nextId <= savedNextId) {
+            return;
+        }
+
+        File temp = new File(filePath + ".id.tmp");
+        Files.writeString(temp.toPath(), Integer.toString(nextId));
+        Files.move(temp.toPath(), new File(filePath + ".id").toPath(), StandardCopyOption.REPLACE_EXISTING);
+        savedNextId = nextId;
+    }
+
+    /**
+     * Parses a single line of the save file into a task.
+     *
+     * @param line      Line in the save file format.
+     * @return task     Task represented by the line, null if the task type is unknown or a date cannot be read.
+     * @throws NoSuchElementException  If the line is missing fields.
+     */
+    protected Task parseTask(String line) {
+        StringTokenizer st = new StringTokenizer(line, "|");
+
+        String t = st.nextToken().strip();
+        int id = parseId(t);
+        if (id > 0) {
+            t = st.nextToken().strip();
+        }
+        boolean isDone = st.nextToken().strip().equalsIgnoreCase("1");
+        String description = st.nextToken().strip();
+
+        Task task;
+        if (t.equalsIgnoreCase("t")) {
+            task = new ToDo(description, isDone);
+
+        } else if (t.equalsIgnoreCase("e")) {
+            String from = st.nextToken().strip();
+            Event event = new Event(description, isDone, from, st.nextToken().strip());
+            if (event.getFrom() == null || event.getTo() == null) {
+                return null;
             }
+            task = event;
+
+        } else if (t.equalsIgnoreCase("d")) {
+            Deadline deadline = new Deadline(description, isDone, st.nextToken().strip());
+            if (deadline.getBy() == null) {
+                return null;
+            }
+            task = deadline;
+
+        } else {
+            return null;
         }
-        scanner.close();
 
-        return tasks;
+        if (id > 0) {
+            task.setId(id);
+        }
+        return task;
+    }
+
+    /**
+     * Parses the id field at the start of a line.
+     *
+     * @param field     First field of the line.
+     * @return id       Id of the task, 0 if the field is not an id.
+     */
+    private static int parseId(String field) {
+        if (field.isEmpty() || field.length() > 9) {
+            return 0;
+        }
+        int id = 0;
+        for (int i = 0; i < field.length(); ++i) {
+            char c = field.charAt(i);
+            if (c < '0' || c > '9') {
+                return 0;
+            }
+            id = id * 10 + (c - '0');
+        }
+        return id;
+    }
+
+    /**
+     * Formats a task as a line of the save file.
+     *
+     * @param task      Task to format.
+     * @return line     Save file string of the task, after its id if it has one.
+     */
+    public static String toRecord(Task task) {
+        return task.getId() > 0 ? task.getId() + " | " + task.saveFileString() : task.saveFileString();
     }
 
     /**
@@ -79,6 +256,7 @@ public class Storage {
      * @param task          New task to save to file.
      * @throws IOException  If FileWriter cannot access/write to file.
      */
+    @Override
     public void addNewTask(Task task) throws IOException {
         if (!file.exists()) {
             handleFileAccessErrors();
@@ -87,97 +265,411 @@ public class Storage {
         FileWriter fw = new FileWriter(file, true);
 
         if (file.length() == 0) {
-            fw.write(task.saveFileString());
+            fw.write(toRecord(task));
         } else {
-            fw.write(System.lineSeparator() + task.saveFileString());
+            fw.write(System.lineSeparator() + toRecord(task));
         }
 
         fw.close();
     }
 
     /**
-     * Deletes task from file.
+     * Adds new tasks to file with a single append.
+     *
+     * @param tasks         New tasks to save to file.
+     * @throws IOException  If FileWriter cannot access/write to file.
+     */
+    @Override
+    public void addNewTasks(List<Task> tasks) throws IOException {
+        if (!file.exists()) {
+            handleFileAccessErrors();
+        }
+
+        boolean isEmpty = file.length() == 0;
+        BufferedWriter bw = new BufferedWriter(new FileWriter(file, true));
+        for (Task task : tasks) {
+            if (!isEmpty) {
+                bw.write(System.lineSeparator());
+            }
+            bw.write(toRecord(task));
+            isEmpty = false;
+        }
+        bw.close();
+    }
+
+    /**
+     * Updates task saved in file.
      *
-     * @param index         Index of task to be deleted.
+     * @param task          Updated task.
+     * @param index         Index of task to be updated.
      * @param numOfTasks    Total number of tasks in task list.
      * @throws IOException  If unable to access/read/write to file.
      */
-    public void deleteTask(int index, int numOfTasks) throws IOException {
-        File oldFile = file;
-        File temp = new File("./data/temp.txt");
+    @Override
+    public void updateTask(Task task, int index, int numOfTasks) throws IOException {
+        if (!file.exists()) {
+            handleFileAccessErrors();
+        }
+
+        if (task.getId() > 0 && updateRecord(task)) {
+            return;
+        }
+
+        String updated = toRecord(task);
+        File temp = new File(filePath + ".tmp");
 
         BufferedReader br = new BufferedReader(new FileReader(file));
-        BufferedWriter bw = new BufferedWriter(new FileWriter(temp, true));
+        BufferedWriter bw = new BufferedWriter(new FileWriter(temp));
 
         for (int i = 0; i < numOfTasks; ++i) {
             String currentLine = br.readLine();
 
             if (i == index) {
-                continue;
-            }
-
-            if (index == numOfTasks - 1 && i == numOfTasks - 2) {
-                bw.write(currentLine);
-            } else if (i < numOfTasks - 1) {
-                bw.write(currentLine + System.lineSeparator());
+                bw.write(updated);
             } else {
                 bw.write(currentLine);
             }
+
+            if (i == numOfTasks - 1) {
+                continue;
+            }
+            bw.write(System.lineSeparator());
         }
 
         bw.close();
         br.close();
 
-        oldFile.delete();
-        temp.renameTo(new File(filePath));
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
 
-        assert !oldFile.exists();
         assert file.exists();
     }
 
     /**
-     * Updates task saved in file.
+     * Updates several tasks saved in file with a single rewrite, finding their lines by id.
      *
-     * @param task          Updated task.
-     * @param index         Index of task to be deleted.
+     * @param tasks         Updated tasks.
+     * @param indices       Index of each updated task, used if the task has no id.
      * @param numOfTasks    Total number of tasks in task list.
      * @throws IOException  If unable to access/read/write to file.
      */
-    public void updateTask(Task task, int index, int numOfTasks) throws IOException {
+    @Override
+    public void updateTasks(List<Task> tasks, int[] indices, int numOfTasks) throws IOException {
         if (!file.exists()) {
             handleFileAccessErrors();
         }
 
-        String updated = task.saveFileString();
-        File oldFile = file;
-        File temp = new File("./data/temp.txt");
+        rewriteLines(replacing(tasks, indices));
+    }
 
-        BufferedReader br = new BufferedReader(new FileReader(file));
-        BufferedWriter bw = new BufferedWriter(new FileWriter(temp, true));
+    /**
+     * Deletes tasks from file with a single rewrite, finding their lines by id.
+     * A single task found by id is cut out of the file without reading it line by line.
+     *
+     * @param tasks         Tasks to be deleted.
+     * @param indices       Index of each deleted task, used if the task has no id.
+     * @param numOfTasks    Total number of tasks in task list before any are removed.
+     * @throws IOException  If unable to access/read/write to file.
+     */
+    @Override
+    public void deleteTasks(List<Task> tasks, int[] indices, int numOfTasks) throws IOException {
+        if (!file.exists()) {
+            handleFileAccessErrors();
+        }
 
-        for (int i = 0; i < numOfTasks; ++i) {
-            String currentLine = br.readLine();
+        if (tasks.size() == 1 && tasks.get(0).getId() > 0 && deleteRecord(tasks.get(0))) {
+            return;
+        }
+        rewriteLines(deleting(tasks, indices));
+    }
 
-            if (i == (index - 1)) {
-                bw.write(updated);
+    /**
+     * Saves the changes between two versions of the task list with a single rewrite, dropping deleted
+     * lines, replacing updated ones and adding new ones in their places.
+     * Lines are found by id, so each added task goes before the line of the kept task after it, or at the
+     * end if there is none. Lines of tasks without ids are found by index.
+     *
+     * @param changes       Changes to save.
+     * @throws IOException  If unable to access/read/write to file.
+     */
+    @Override
+    public void saveChanges(TaskChanges changes) throws IOException {
+        if (changes.isEmpty()) {
+            return;
+        } else if (!file.exists()) {
+            handleFileAccessErrors();
+        }
+
+        BiFunction<Integer, String, String> delete = deleting(changes.getDeletedTasks(), changes.getDeletedIndices());
+        BiFunction<Integer, String, String> update = replacing(changes.getUpdatedTasks(), changes.getUpdatedIndices());
+        int[] added = changes.getAddedIndices();
+        List<Task> addedTasks = changes.getAddedTasks();
+
+        // Each run of added tasks is written before the kept task that follows it, by id or else by its
+        // index among the kept tasks, and runs with no kept task after them or whose line is not found go last.
+        ArrayList<List<String>> runs = new ArrayList<>();
+        HashMap<Integer, Integer> runBeforeId = new HashMap<>();
+        HashMap<Integer, Integer> runBeforeIndex = new HashMap<>();
+        int first = 0;
+        for (int i = 1; i <= added.length; ++i) {
+            if (i < added.length && added[i] == added[i - 1] + 1) {
+                continue;
+            }
+            ArrayList<String> records = new ArrayList<>();
+            for (Task task : addedTasks.subList(first, i)) {
+                records.add(toRecord(task));
+            }
+            runs.add(records);
+
+            int following = added[i - 1] + 1;
+            if (following < changes.getNumOfTasks()) {
+                Task next = changes.getTasks(following, following + 1).get(0);
+                if (next.getId() > 0) {
+                    runBeforeId.put(next.getId(), runs.size() - 1);
+                } else {
+                    runBeforeIndex.put(following - i, runs.size() - 1);
+                }
+            }
+            first = i;
+        }
+
+        // Index among the kept lines of the next kept line, and index in the changed list of the next line written.
+        int[] next = {0, 0};
+        rewriteLines((i, line) -> {
+            if (delete.apply(i, line) == null) {
+                return null;
+            }
+            int id = idOf(line);
+            Integer run = id > 0 ? runBeforeId.get(id) : runBeforeIndex.get(next[0]);
+            next[0]++;
+            StringBuilder lines = new StringBuilder();
+            if (run != null && runs.get(run) != null) {
+                for (String record : runs.get(run)) {
+                    lines.append(record).append(System.lineSeparator());
+                    next[1]++;
+                }
+                runs.set(run, null);
+            }
+            return lines.append(update.apply(next[1]++, line)).toString();
+        }, () -> {
+            ArrayList<String> remaining = new ArrayList<>();
+            for (List<String> records : runs) {
+                if (records != null) {
+                    remaining.addAll(records);
+                }
+            }
+            return remaining;
+        });
+    }
+
+    /**
+     * Gives the edit that replaces the lines of updated tasks, found by id, or by index if a task has no id.
+     */
+    private static BiFunction<Integer, String, String> replacing(List<Task> tasks, int[] indices) {
+        HashMap<Integer, String> updatedById = new HashMap<>();
+        HashMap<Integer, String> updatedByIndex = new HashMap<>();
+        for (int i = 0; i < indices.length; ++i) {
+            Task task = tasks.get(i);
+            if (task.getId() > 0) {
+                updatedById.put(task.getId(), toRecord(task));
             } else {
-                bw.write(currentLine);
+                updatedByIndex.put(indices[i], toRecord(task));
             }
+        }
 
-            if (i == numOfTasks - 1) {
+        return (i, line) -> {
+            int id = idOf(line);
+            String updated = id > 0 ? updatedById.get(id) : updatedByIndex.get(i);
+            return updated == null ? line : updated;
+        };
+    }
+
+    /**
+     * Gives the edit that drops the lines of deleted tasks, found by id, or by index if a task has no id.
+     */
+    private static BiFunction<Integer, String, String> deleting(List<Task> tasks, int[] indices) {
+        HashSet<Integer> deletedIds = new HashSet<>();
+        HashSet<Integer> deletedIndices = new HashSet<>();
+        for (int i = 0; i < indices.length; ++i) {
+            Task task = tasks.get(i);
+            if (task.getId() > 0) {
+                deletedIds.add(task.getId());
+            } else {
+                deletedIndices.add(indices[i]);
+            }
+        }
+
+        return (i, line) -> {
+            int id = idOf(line);
+            boolean isDeleted = id > 0 ? deletedIds.contains(id) : deletedIndices.contains(i);
+            return isDeleted ? null : line;
+        };
+    }
+
+    /**
+     * Rewrites the save file in one pass, replacing or dropping lines.
+     *
+     * @param edit          Takes the index and content of a line, and gives the line to write in its place,
+     *                      or null to drop it.
+     * @throws IOException  If unable to access/read/write to file.
+     */
+    private void rewriteLines(BiFunction<Integer, String, String> edit) throws IOException {
+        rewriteLines(edit, List::of);
+    }
+
+    /**
+     * Rewrites the save file in one pass, replacing or dropping lines and then adding lines at the end.
+     * Blank lines are dropped and not counted, so the index of a line is the index of its task.
+     *
+     * @param edit          Takes the index and content of a line, and gives the line to write in its place,
+     *                      or null to drop it.
+     * @param added         Gives the lines to add after the last line, once every line has been edited.
+     * @throws IOException  If unable to access/read/write to file.
+     */
+    private void rewriteLines(BiFunction<Integer, String, String> edit, Supplier<List<String>> added)
+            throws IOException {
+        File temp = new File(filePath + ".tmp");
+        BufferedReader br = new BufferedReader(new FileReader(file));
+        BufferedWriter bw = new BufferedWriter(new FileWriter(temp));
+
+        boolean isFirst = true;
+        int i = 0;
+        for (String line = br.readLine(); line != null; line = br.readLine()) {
+            if (line.isBlank()) {
                 continue;
             }
-            bw.write(System.lineSeparator());
+            String edited = edit.apply(i++, line);
+            if (edited == null) {
+                continue;
+            }
+            if (!isFirst) {
+                bw.write(System.lineSeparator());
+            }
+            bw.write(edited);
+            isFirst = false;
+        }
+        for (String line : added.get()) {
+            if (!isFirst) {
+                bw.write(System.lineSeparator());
+            }
+            bw.write(line);
+            isFirst = false;
         }
 
         bw.close();
         br.close();
 
-        oldFile.delete();
-        temp.renameTo(new File(filePath));
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
 
-        assert !oldFile.exists();
-        assert file.exists();
+    private static int idOf(String line) {
+        int end = line.indexOf('|');
+        return end < 0 ? 0 : parseId(line.substring(0, end).strip());
+    }
+
+    /**
+     * Replaces the line of a task found by its id.
+     * Marking and unmarking keep the line the same length, so the line is overwritten in place.
+     *
+     * @param task          Updated task with an id.
+     * @return isUpdated    False if no line has the id of the task.
+     * @throws IOException  If unable to access/read/write to file.
+     */
+    private boolean updateRecord(Task task) throws IOException {
+        byte[] content = Files.readAllBytes(file.toPath());
+        int[] record = findRecord(content, task.getId());
+        if (record == null) {
+            return false;
+        }
+
+        byte[] updated = toRecord(task).getBytes(Charset.defaultCharset());
+        if (updated.length != record[1] - record[0]) {
+            splice(content, record[0], record[1], updated);
+            return true;
+        }
+
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        raf.seek(record[0]);
+        raf.write(updated);
+        raf.close();
+        return true;
+    }
+
+    /**
+     * Removes the line of a task found by its id, along with one line separator next to it.
+     *
+     * @param task          Deleted task with an id.
+     * @return isDeleted    False if no line has the id of the task.
+     * @throws IOException  If unable to access/read/write to file.
+     */
+    private boolean deleteRecord(Task task) throws IOException {
+        byte[] content = Files.readAllBytes(file.toPath());
+        int[] record = findRecord(content, task.getId());
+        if (record == null) {
+            return false;
+        }
+
+        int start = record[0];
+        int end = record[1];
+        if (end < content.length) {
+            end++;
+        } else if (start > 0) {
+            start--;
+            if (start > 0 && content[start - 1] == '\r') {
+                start--;
+            }
+        }
+        splice(content, start, end, new byte[0]);
+        return true;
+    }
+
+    /**
+     * Finds the line of a task by its id.
+     *
+     * @param content       Contents of the save file.
+     * @param id            Id of the task.
+     * @return record       Start and end of the line without its line separator, null if no line has the id.
+     */
+    private static int[] findRecord(byte[] content, int id) {
+        int lineStart = 0;
+        while (lineStart < content.length) {
+            int i = lineStart;
+            int lineId = 0;
+            while (i < content.length && content[i] >= '0' && content[i] <= '9' && lineId <= id) {
+                lineId = lineId * 10 + (content[i++] - '0');
+            }
+            boolean isMatch = lineId == id && i > lineStart && i < content.length
+                    && (content[i] == ' ' || content[i] == '|');
+
+            while (i < content.length && content[i] != '\n') {
+                i++;
+            }
+            if (isMatch) {
+                int lineEnd = i > lineStart && content[i - 1] == '\r' ? i - 1 : i;
+                return new int[] {lineStart, lineEnd};
+            }
+            lineStart = i + 1;
+        }
+        return null;
+    }
+
+    /**
+     * Replaces a range of the save file.
+     *
+     * @param content       Contents of the save file.
+     * @param start         Start of the range to replace.
+     * @param end           End of the range to replace, exclusive.
+     * @param replacement   Bytes to write in place of the range.
+     * @throws IOException  If unable to write to file.
+     */
+    private void splice(byte[] content, int start, int end, byte[] replacement) throws IOException {
+        File temp = new File(filePath + ".tmp");
+        BufferedOutputStream out = new BufferedOutputStream(new FileOutputStream(temp));
+        out.write(content, 0, start);
+        out.write(replacement);
+        out.write(content, end, content.length - end);
+        out.close();
+
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
     }
 
     /**
@@ -185,7 +677,7 @@ public class Storage {
      *
      * @throws IOException  If unable to create file.
      */
-    private void handleFileAccessErrors() throws IOException {
+    protected void handleFileAccessErrors() throws IOException {
         try {
             file.createNewFile();
         } catch (IOException e) {
@@ -0,0 +1,195 @@
+package anxi.command;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import anxi.index.OrderStatisticTree;
+import anxi.tasks.Task;
+
+/**
+ * Changes between two versions of the task list, found from the sequences of the tasks changed
+ * in between, so that saving or reversing them takes time proportional to their number.
+ *
+ * <p>A task is deleted if only the earlier version has it, added if only the later version has it,
+ * and updated if both have it but not the same task. Tasks kept keep their order, so the changes are
+ * saved by deleting tasks at their indices before, then adding tasks at their indices after in ascending
+ * order, then updating tasks at their indices after.
+ */
+public class TaskChanges {
+    private final TaskList.Version from;
+    private final TaskList.Version to;
+    private final int[] sequences;
+    private final int[] deletedIndices;
+    private final List<Task> deletedTasks = new ArrayList<>();
+    private final int[] updatedIndices;
+    private final List<Task> updatedTasks = new ArrayList<>();
+    private final int[] addedIndices;
+    private final List<Task> addedTasks = new ArrayList<>();
+
+    /**
+     * TaskChanges constructor.
+     *
+     * @param from          Earlier version.
+     * @param to            Later version.
+     * @param sequences     Sequences of the tasks changed in between, in ascending order without repeats.
+     */
+    TaskChanges(TaskList.Version from, TaskList.Version to, int[] sequences) {
+        this.from = from;
+        this.to = to;
+        this.sequences = sequences;
+
+        OrderStatisticTree<Task> before = from.getTasks();
+        OrderStatisticTree<Task> after = to.getTasks();
+        int[] deleted = new int[sequences.length];
+        int[] updated = new int[sequences.length];
+        int[] added = new int[sequences.length];
+        int numOfDeleted = 0;
+        int numOfUpdated = 0;
+        int numOfAdded = 0;
+        // Sequences ascend in list order, so the indices found ascend too.
+        for (int sequence : sequences) {
+            int indexBefore = before.indexOfKey(sequence);
+            int indexAfter = after.indexOfKey(sequence);
+            if (indexAfter < 0) {
+                if (indexBefore >= 0) {
+                    deleted[numOfDeleted++] = indexBefore;
+                    deletedTasks.add(before.get(indexBefore));
+                }
+            } else if (indexBefore < 0) {
+                added[numOfAdded++] = indexAfter;
+                addedTasks.add(after.get(indexAfter));
+            } else if (!isSameTask(before, indexBefore, after, indexAfter)) {
+                updated[numOfUpdated++] = indexAfter;
+                updatedTasks.add(after.get(indexAfter));
+            }
+        }
+        this.deletedIndices = Arrays.copyOf(deleted, numOfDeleted);
+        this.updatedIndices = Arrays.copyOf(updated, numOfUpdated);
+        this.addedIndices = Arrays.copyOf(added, numOfAdded);
+    }
+
+    private static boolean isSameTask(OrderStatisticTree<Task> before, int indexBefore,
+            OrderStatisticTree<Task> after, int indexAfter) {
+        int loadedBefore = before.sourceIndexAt(indexBefore);
+        int loadedAfter = after.sourceIndexAt(indexAfter);
+        if (loadedBefore >= 0 || loadedAfter >= 0) {
+            return loadedBefore == loadedAfter;
+        }
+        return before.get(indexBefore) == after.get(indexAfter);
+    }
+
+    /**
+     * Retrieves the changes that undo these, from the later version back to the earlier one.
+     *
+     * @return changes  Reversed changes.
+     */
+    public TaskChanges reversed() {
+        return new TaskChanges(to, from, sequences);
+    }
+
+    /**
+     * Checks if no task was deleted, updated or added.
+     *
+     * @return isEmpty  True if both versions have the same tasks.
+     */
+    public boolean isEmpty() {
+        return deletedIndices.length == 0 && updatedIndices.length == 0 && addedIndices.length == 0;
+    }
+
+    /**
+     * Retrieves the number of tasks in the earlier version.
+     *
+     * @return numOfTasks   Number of tasks before the changes.
+     */
+    public int getNumOfTasksBefore() {
+        return from.getTasks().size();
+    }
+
+    /**
+     * Retrieves the number of tasks in the later version.
+     *
+     * @return numOfTasks   Number of tasks after the changes.
+     */
+    public int getNumOfTasks() {
+        return to.getTasks().size();
+    }
+
+    /**
+     * Retrieves the indices of the deleted tasks.
+     *
+     * @return indices  Indices in the earlier version, starting from 0, in ascending order.
+     */
+    public int[] getDeletedIndices() {
+        return deletedIndices.clone();
+    }
+
+    /**
+     * Retrieves the deleted tasks.
+     *
+     * @return tasks    Tasks as they were in the earlier version, in list order.
+     */
+    public List<Task> getDeletedTasks() {
+        return Collections.unmodifiableList(deletedTasks);
+    }
+
+    /**
+     * Retrieves the indices of the updated tasks.
+     *
+     * @return indices  Indices in the later version, starting from 0, in ascending order.
+     */
+    public int[] getUpdatedIndices() {
+        return updatedIndices.clone();
+    }
+
+    /**
+     * Retrieves the updated tasks.
+     *
+     * @return tasks    Tasks as they are in the later version, in list order.
+     */
+    public List<Task> getUpdatedTasks() {
+        return Collections.unmodifiableList(updatedTasks);
+    }
+
+    /**
+     * Retrieves the indices of the added tasks.
+     *
+     * @return indices  Indices in the later version, starting from 0, in ascending order.
+     */
+    public int[] getAddedIndices() {
+        return addedIndices.clone();
+    }
+
+    /**
+     * Retrieves the added tasks.
+     *
+     * @return tasks    Tasks added, in list order.
+     */
+    public List<Task> getAddedTasks() {
+        return Collections.unmodifiableList(addedTasks);
+    }
+
+    /**
+     * Retrieves a range of tasks in the later version.
+     *
+     * @param fromIndex Index of the first task, inclusive.
+     * @param toIndex   Index after the last task, exclusive.
+     * @return tasks    Tasks in the range, in list order.
+     */
+    public List<Task> getTasks(int fromIndex, int toIndex) {
+        return to.getTasks().asList().subList(fromIndex, toIndex);
+    }
+
+    TaskList.Version getFrom() {
+        return from;
+    }
+
+    TaskList.Version getTo() {
+        return to;
+    }
+
+    int[] getSequences() {
+        return sequences;
+    }
+}
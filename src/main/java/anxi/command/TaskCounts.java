@@ -0,0 +1,144 @@
+package anxi.command;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import anxi.tasks.Deadline;
+import anxi.tasks.Event;
+import anxi.tasks.Task;
+
+/**
+ * Counts of tasks by type, by done status and by day, kept up to date as tasks are added, marked and
+ * deleted, so that none of them needs a walk over the list to read.
+ *
+ * <p>Pending deadlines that are not yet overdue are kept in order of due time. Reading the overdue
+ * count first moves the deadlines that have come due since the last read into the count, so each
+ * deadline is moved once. Counts are read as of the latest time asked for, as time does not go back.
+ */
+class TaskCounts {
+    private static final int DEADLINES = 0;
+    private static final int EVENTS = 1;
+    private static final int[] NONE = new int[2];
+
+    private final TreeMap<LocalDateTime, Integer> upcomingDeadlines = new TreeMap<>();
+    private final HashMap<LocalDate, int[]> pendingByDay = new HashMap<>();
+    private LocalDateTime checkedUntil = LocalDateTime.MIN;
+    private int numOfTodos;
+    private int numOfDeadlines;
+    private int numOfEvents;
+    private int numOfDone;
+    private int numOfOverdue;
+
+    /**
+     * Counts a task.
+     *
+     * @param task      Task added to the list.
+     */
+    synchronized void add(Task task) {
+        count(task, 1);
+    }
+
+    /**
+     * Stops counting a task.
+     *
+     * @param task      Task deleted from the list, or replaced by one with a different done status.
+     */
+    synchronized void remove(Task task) {
+        count(task, -1);
+    }
+
+    synchronized int getNumOfTodos() {
+        return numOfTodos;
+    }
+
+    synchronized int getNumOfDeadlines() {
+        return numOfDeadlines;
+    }
+
+    synchronized int getNumOfEvents() {
+        return numOfEvents;
+    }
+
+    synchronized int getNumOfDone() {
+        return numOfDone;
+    }
+
+    /**
+     * Retrieves the number of pending deadlines due before a time.
+     *
+     * @param now           Current time.
+     * @return numOfTasks   Number of pending deadlines due before now.
+     */
+    synchronized int getNumOfOverdue(LocalDateTime now) {
+        if (now.isAfter(checkedUntil)) {
+            NavigableMap<LocalDateTime, Integer> due = upcomingDeadlines.headMap(now, false);
+            for (int count : due.values()) {
+                numOfOverdue += count;
+            }
+            due.clear();
+            checkedUntil = now;
+        }
+        return numOfOverdue;
+    }
+
+    /**
+     * Retrieves the number of pending deadlines due on a day.
+     *
+     * @param day           Day to count.
+     * @return numOfTasks   Number of pending deadlines due on the day.
+     */
+    synchronized int getNumOfPendingDeadlines(LocalDate day) {
+        return pendingByDay.getOrDefault(day, NONE)[DEADLINES];
+    }
+
+    /**
+     * Retrieves the number of pending events starting on a day.
+     *
+     * @param day           Day to count.
+     * @return numOfTasks   Number of pending events on the day.
+     */
+    synchronized int getNumOfPendingEvents(LocalDate day) {
+        return pendingByDay.getOrDefault(day, NONE)[EVENTS];
+    }
+
+    private void count(Task task, int change) {
+        if (task.isDone()) {
+            numOfDone += change;
+        }
+
+        if (task instanceof Event) {
+            numOfEvents += change;
+            if (!task.isDone()) {
+                countOnDay(((Event) task).getFromDate(), EVENTS, change);
+            }
+        } else if (task instanceof Deadline) {
+            numOfDeadlines += change;
+            if (!task.isDone()) {
+                LocalDateTime by = ((Deadline) task).getBy();
+                countOnDay(by.toLocalDate(), DEADLINES, change);
+                countDue(by, change);
+            }
+        } else {
+            numOfTodos += change;
+        }
+    }
+
+    private void countOnDay(LocalDate day, int type, int change) {
+        int[] counts = pendingByDay.computeIfAbsent(day, d -> new int[2]);
+        counts[type] += change;
+        if (counts[DEADLINES] == 0 && counts[EVENTS] == 0) {
+            pendingByDay.remove(day);
+        }
+    }
+
+    private void countDue(LocalDateTime by, int change) {
+        if (by.isBefore(checkedUntil)) {
+            numOfOverdue += change;
+        } else {
+            upcomingDeadlines.merge(by, change, (count, added) -> count + added == 0 ? null : count + added);
+        }
+    }
+}
@@ -4,7 +4,20 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
+import anxi.index.DateIndex;
+import anxi.index.IntList;
+import anxi.index.IntervalIndex;
+import anxi.index.OrderStatisticTree;
+import anxi.index.TrigramIndex;
 import anxi.tasks.Deadline;
 import anxi.tasks.Event;
 import anxi.tasks.Task;
@@ -12,24 +25,86 @@ import anxi.tasks.ToDo;
 
 /**
  * Contains task list.
+ *
+ * <p>Tasks are held in an order-statistic tree keyed by a sequence number given to each task when it
+ * is added. Sequences ascend in list order, so the indices refer to tasks by sequence and the tree
+ * converts between sequence and position in O(log n), with no positions to shift on delete.
+ *
+ * <p>Tasks also have an id that is saved with them. Unlike positions and sequences, ids are kept
+ * across sessions, so front-ends can refer to a task by its id while other tasks come and go.
+ *
+ * <p>The task list is safe to share between threads. The tree is immutable and tasks in it are never
+ * changed, marking replaces a task with a copy, so readers take the current tree and work on it
+ * without locking while writers build the next one. Writers hold the write lock, which also guards
+ * the indices. Queries that read an index hold the read lock while they do, which only waits for the
+ * O(log n) index update of a write in progress.
+ *
+ * <p>Because the tree is persistent, a version of the list is just the tree at that time. While a
+ * version is held, the sequence of each task changed is logged, so the changes since the version can
+ * be found, saved or rolled back in time proportional to their number rather than to the whole list.
  */
 public class TaskList {
-    private ArrayList<Task> tasks;
+    private static final int DENSE_MATCH_RATIO = 8;
+    private static final int DAYS_IN_WEEK = 7;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<Task> loaded;
+    private volatile OrderStatisticTree<Task> tasks;
+    private int nextSequence;
+    private int nextId;
+    private volatile HashMap<Integer, Integer> idIndex;
+    private volatile DateIndex eventIndex;
+    private volatile DateIndex deadlineIndex;
+    private volatile TrigramIndex descriptionIndex;
+    private volatile IntervalIndex scheduleIndex;
+    private volatile IntervalIndex pendingIndex;
+    private volatile TaskCounts counts;
+    private final TreeMap<Long, Integer> heldVersions = new TreeMap<>();
+    private IntList changeLog = new IntList();
+    private long changeLogStart;
 
     /**
      * TaskList constructor.
      */
     public TaskList() {
-        this.tasks = new ArrayList<>();
+        this(new ArrayList<>());
     }
 
     /**
      * TaskList constructor.
      *
-     * @param tasks     ArrayList of tasks loaded from file.
+     * @param tasks     List of tasks loaded from file, read on first access.
      */
-    public TaskList(ArrayList<Task> tasks) {
-        this.tasks = tasks;
+    public TaskList(List<Task> tasks) {
+        this(tasks, 1);
+    }
+
+    /**
+     * TaskList constructor.
+     *
+     * @param tasks     List of tasks loaded from file, read on first access.
+     * @param nextId    Id saved for the next new task, used if larger than the id after the largest id loaded.
+     */
+    public TaskList(List<Task> tasks, int nextId) {
+        this.loaded = tasks;
+        this.tasks = OrderStatisticTree.of(tasks);
+        this.nextSequence = tasks.size();
+        this.nextId = Math.max(nextId, largestId(tasks) + 1);
+    }
+
+    /**
+     * Finds the largest id among the loaded tasks, asking the loaded list if it can find it without
+     * creating the tasks.
+     */
+    private static int largestId(List<Task> tasks) {
+        if (tasks instanceof IdSource) {
+            return ((IdSource) tasks).getLargestId();
+        }
+        int largest = 0;
+        for (Task task : tasks) {
+            largest = Math.max(largest, task.getId());
+        }
+        return largest;
     }
 
     /**
@@ -37,13 +112,47 @@ public class TaskList {
      * @return allTasks     String of all tasks in the task list.
      */
     public String printTaskList() {
+        OrderStatisticTree<Task> snapshot = tasks;
+        return printRange(snapshot, 0, snapshot.size());
+    }
+
+    /**
+     * Prints the tasks in a range of the task list, numbered by their place in the whole list.
+     * Only the tasks in the range are read from the list.
+     *
+     * @param from      Index of the first task, inclusive.
+     * @param to        Index after the last task, exclusive.
+     * @return tasks    String of the tasks in the range.
+     */
+    public String printTasks(int from, int to) {
+        OrderStatisticTree<Task> snapshot = tasks;
+        return printRange(snapshot, from, Math.min(to, snapshot.size()));
+    }
+
+    /**
+     * Streams all tasks in task list as chunks of printed tasks, each chunk printed only when it is read.
+     * The stream shows the list as it was when this was called.
+     *
+     * @param chunkSize     Number of tasks in each chunk.
+     * @return chunks       String of each chunk of tasks, in list order.
+     */
+    public Stream<String> streamTaskList(int chunkSize) {
+        assert chunkSize > 0 : "Chunks must hold at least one task";
+        OrderStatisticTree<Task> snapshot = tasks;
+        int size = snapshot.size();
+        return IntStream.iterate(0, from -> from < size, from -> from + chunkSize)
+                .mapToObj(from -> printRange(snapshot, from, Math.min(from + chunkSize, size)));
+    }
+
+    private String printRange(OrderStatisticTree<Task> snapshot, int from, int to) {
         StringBuilder stringBuilder = new StringBuilder();
-        for (int i = 0; i < tasks.size(); ++i) {
-            stringBuilder.append(i + 1);
+        int[] i = {from};
+        snapshot.forEachEntry(from, to, (task, loadedIndex) -> {
+            stringBuilder.append(++i[0]);
             stringBuilder.append(". ");
-            stringBuilder.append(tasks.get(i).toString());
+            appendTask(stringBuilder, task, loadedIndex);
             stringBuilder.append("\n");
-        }
+        });
         return stringBuilder.toString();
     }
 
@@ -54,8 +163,7 @@ public class TaskList {
      * @return  task    Updated task.
      */
     public Task markTask(int index) {
-        tasks.get(index).updateIsDone(true);
-        return tasks.get(index);
+        return updateIsDone(index, true);
     }
 
     /**
@@ -65,8 +173,27 @@ public class TaskList {
      * @return  task    Updated task.
      */
     public Task unmarkTask(int index) {
-        tasks.get(index).updateIsDone(false);
-        return tasks.get(index);
+        return updateIsDone(index, false);
+    }
+
+    /**
+     * Marks several tasks as complete in one pass.
+     *
+     * @param indices   Indices of tasks.
+     * @return tasks    Updated tasks, in the same order.
+     */
+    public List<Task> markTasks(int[] indices) {
+        return updateIsDone(indices, true);
+    }
+
+    /**
+     * Marks several tasks as uncompleted in one pass.
+     *
+     * @param indices   Indices of tasks.
+     * @return tasks    Updated tasks, in the same order.
+     */
+    public List<Task> unmarkTasks(int[] indices) {
+        return updateIsDone(indices, false);
     }
 
     /**
@@ -77,7 +204,7 @@ public class TaskList {
      */
     public Task addTodo(String name) {
         Task task = new ToDo(name);
-        tasks.add(task);
+        add(task);
 
         return task;
     }
@@ -91,7 +218,7 @@ public class TaskList {
      */
     public Task addDeadline(String name, LocalDateTime by) {
         Task task = new Deadline(name, by);
-        tasks.add(task);
+        add(task);
 
         return task;
     }
@@ -106,11 +233,55 @@ public class TaskList {
      */
     public Task addEvent(String name, LocalDateTime from, LocalTime to) {
         Task task = new Event(name, from, to);
-        tasks.add(task);
+        add(task);
 
         return task;
     }
 
+    /**
+     * Adds tasks to the end of the task list.
+     *
+     * @param newTasks  Tasks to add, in list order.
+     */
+    public void addTasks(List<Task> newTasks) {
+        lock.writeLock().lock();
+        try {
+            for (Task task : newTasks) {
+                add(task);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Retrieves a read-only view of a range of tasks, which later changes to the list do not affect.
+     *
+     * @param from      Index of first task, inclusive.
+     * @param to        Index of last task, exclusive.
+     * @return tasks    Tasks in the range.
+     */
+    public List<Task> getTasks(int from, int to) {
+        return tasks.asList().subList(from, to);
+    }
+
+    /**
+     * Finds the position of a task by its id.
+     *
+     * @param id        Id of the task.
+     * @return index    Index of the task, -1 if no task has the id.
+     */
+    public int indexOfId(int id) {
+        buildIdIndex();
+        lock.readLock().lock();
+        try {
+            Integer sequence = idIndex.get(id);
+            return sequence == null ? -1 : tasks.indexOfKey(sequence);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
     /**
      * Deletes task from task list.
      *
@@ -118,10 +289,132 @@ public class TaskList {
      * @return task     Deleted task.
      */
     public Task deleteTask(int index) {
-        Task task = tasks.get(index);
-        tasks.remove(index);
+        lock.writeLock().lock();
+        try {
+            Task task = tasks.get(index);
+            int sequence = tasks.keyAt(index);
+            tasks = tasks.removeAt(index);
+            unindexTask(task, sequence);
+            logChange(sequence);
 
-        return task;
+            return task;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Deletes several tasks from task list in one pass, the last first so the other indices stay in place.
+     *
+     * @param indices   Indices of tasks before any are deleted, in ascending order.
+     * @return tasks    Deleted tasks, in the same order.
+     */
+    public List<Task> deleteTasks(int[] indices) {
+        lock.writeLock().lock();
+        try {
+            Task[] deleted = new Task[indices.length];
+            for (int i = indices.length - 1; i >= 0; --i) {
+                deleted[i] = deleteTask(indices[i]);
+            }
+            return Arrays.asList(deleted);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Takes the current version of the task list. Changes made after it are logged until it is released.
+     *
+     * @return version  Current version.
+     */
+    public Version getVersion() {
+        lock.writeLock().lock();
+        try {
+            Version version = new Version(tasks, nextSequence, nextId, changeLogStart + changeLog.size());
+            heldVersions.merge(version.position, 1, Integer::sum);
+            return version;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Releases a version, dropping the logged changes no held version needs any more.
+     *
+     * @param version   Version taken with getVersion.
+     */
+    public void releaseVersion(Version version) {
+        lock.writeLock().lock();
+        try {
+            heldVersions.computeIfPresent(version.position, (position, count) -> count == 1 ? null : count - 1);
+            long keepFrom = heldVersions.isEmpty() ? changeLogStart + changeLog.size() : heldVersions.firstKey();
+            int numOfDropped = (int) (keepFrom - changeLogStart);
+            if (numOfDropped > 0) {
+                IntList kept = new IntList(changeLog.size() - numOfDropped);
+                for (int i = numOfDropped; i < changeLog.size(); ++i) {
+                    kept.add(changeLog.get(i));
+                }
+                changeLog = kept;
+                changeLogStart = keepFrom;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the changes made to the task list since a version, which must still be held.
+     *
+     * @param version   Earlier version.
+     * @return changes  Tasks deleted, updated and added between the version and now.
+     */
+    public TaskChanges changesSince(Version version) {
+        lock.readLock().lock();
+        try {
+            int from = (int) (version.position - changeLogStart);
+            assert from >= 0 && heldVersions.containsKey(version.position) : "Changes since a released version";
+            int[] sequences = new int[changeLog.size() - from];
+            for (int i = 0; i < sequences.length; ++i) {
+                sequences[i] = changeLog.get(from + i);
+            }
+            Version current = new Version(tasks, nextSequence, nextId, changeLogStart + changeLog.size());
+            return new TaskChanges(version, current, Arrays.stream(sequences).sorted().distinct().toArray());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Changes the task list from one version to another, updating the indices for the changed tasks only.
+     * Applying the reverse of the changes since a version rolls the list back to that version.
+     *
+     * @param changes   Changes from the current version of the list.
+     * @throws IllegalStateException    If the list has changed since the version the changes start from.
+     */
+    public void applyChanges(TaskChanges changes) {
+        lock.writeLock().lock();
+        try {
+            if (tasks != changes.getFrom().tasks) {
+                throw new IllegalStateException("Task list has changed since the changes were found");
+            }
+            OrderStatisticTree<Task> target = changes.getTo().tasks;
+            for (int sequence : changes.getSequences()) {
+                int index = tasks.indexOfKey(sequence);
+                if (index >= 0) {
+                    unindexTask(tasks.get(index), sequence);
+                }
+                int targetIndex = target.indexOfKey(sequence);
+                if (targetIndex >= 0) {
+                    indexTask(target.get(targetIndex), sequence);
+                }
+                logChange(sequence);
+            }
+            tasks = target;
+            nextSequence = changes.getTo().nextSequence;
+            nextId = changes.getTo().nextId;
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     /**
@@ -132,40 +425,138 @@ public class TaskList {
      */
     public String findMatchingTasks(String match) {
         StringBuilder stringBuilder = new StringBuilder();
-        for (int i = 0; i < tasks.size(); ++i) {
-            Task t = tasks.get(i);
-            if (t.isMatchingDescription(match)) {
-                stringBuilder.append(i + 1);
-                stringBuilder.append(". ");
-                stringBuilder.append(t);
-                stringBuilder.append("\n");
+        OrderStatisticTree<Task> snapshot = tasks;
+        IntList candidates = null;
+        if (TrigramIndex.isSearchable(match)) {
+            buildDescriptionIndex();
+            lock.readLock().lock();
+            try {
+                snapshot = tasks;
+                candidates = descriptionIndex.candidates(match);
+            } finally {
+                lock.readLock().unlock();
             }
         }
+
+        IntPredicate loadedMatcher = loaded instanceof TaskSource
+                ? ((TaskSource) loaded).descriptionMatcher(match)
+                : loadedIndex -> loaded.get(loadedIndex).isMatchingDescription(match);
+
+        // Short queries have no trigrams, and very common ones are cheaper to verify in list order.
+        if (candidates == null || candidates.size() > snapshot.size() / DENSE_MATCH_RATIO) {
+            int[] i = {0};
+            snapshot.forEachEntry((task, loadedIndex) -> appendIfMatching(stringBuilder, i[0]++, task, loadedIndex,
+                    match, loadedMatcher));
+            return stringBuilder.toString();
+        }
+
+        for (int i = 0; i < candidates.size(); ++i) {
+            int index = snapshot.indexOfKey(candidates.get(i));
+            int loadedIndex = snapshot.sourceIndexAt(index);
+            Task task = loadedIndex < 0 ? snapshot.get(index) : null;
+            appendIfMatching(stringBuilder, index, task, loadedIndex, match, loadedMatcher);
+        }
+        return stringBuilder.toString();
+    }
+
+    /**
+     * Prints the tasks with descriptions most similar to a query, allowing for typos and case.
+     *
+     * @param query             Approximate description, at least three characters long.
+     * @param limit             Maximum number of tasks to print.
+     * @return similarTasks     String of the most similar tasks, most similar first.
+     */
+    public String findSimilarTasks(String query, int limit) {
+        buildDescriptionIndex();
+        OrderStatisticTree<Task> snapshot;
+        IntList matches;
+        lock.readLock().lock();
+        try {
+            snapshot = tasks;
+            matches = descriptionIndex.rank(query, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return printSequences(snapshot, matches);
+    }
+
+    /**
+     * Streams the events and deadlines overlapping a time range, in chronological order.
+     * Tasks added or deleted while the stream is read may or may not be included.
+     *
+     * @param from      Start of the range, inclusive.
+     * @param to        End of the range, inclusive.
+     * @return tasks    String representation of each task with its number, earliest first.
+     */
+    public Stream<String> findAllBetween(LocalDateTime from, LocalDateTime to) {
+        buildScheduleIndex();
+        OrderStatisticTree<Task> snapshot = tasks;
+        return scheduleIndex.overlapping(from, to)
+                .mapToInt(interval -> snapshot.indexOfKey(interval.getId()))
+                .filter(index -> index >= 0)
+                .mapToObj(index -> (index + 1) + ". " + snapshot.get(index));
+    }
+
+    /**
+     * Prints the pending events and deadlines that start or are due next, without going through
+     * tasks that are done or already past.
+     *
+     * @param now       Current time.
+     * @param limit     Largest number of tasks to print.
+     * @return tasks    String representation of each task with its number, soonest first.
+     */
+    public String findUpcoming(LocalDateTime now, int limit) {
+        buildPendingIndex();
+        OrderStatisticTree<Task> snapshot = tasks;
+        StringBuilder stringBuilder = new StringBuilder();
+        pendingIndex.startingFrom(now)
+                .mapToInt(interval -> snapshot.indexOfKey(interval.getId()))
+                .filter(index -> index >= 0)
+                .limit(limit)
+                .forEachOrdered(index -> stringBuilder.append(index + 1).append(". ")
+                        .append(snapshot.get(index)).append("\n"));
         return stringBuilder.toString();
     }
 
+    /**
+     * Appends a task with its number if its description matches, checking tasks not read from the
+     * loaded list with the loaded list's matcher.
+     */
+    private void appendIfMatching(StringBuilder stringBuilder, int index, Task t, int loadedIndex, String match,
+            IntPredicate loadedMatcher) {
+        if (t == null ? loadedMatcher.test(loadedIndex) : t.isMatchingDescription(match)) {
+            stringBuilder.append(index + 1);
+            stringBuilder.append(". ");
+            appendTask(stringBuilder, t, loadedIndex);
+            stringBuilder.append("\n");
+        }
+    }
+
+    /**
+     * Appends a task, or the task at an index of the loaded list, printing it from there if possible.
+     */
+    private void appendTask(StringBuilder stringBuilder, Task task, int loadedIndex) {
+        if (task != null) {
+            stringBuilder.append(task);
+        } else if (loaded instanceof TaskSource) {
+            ((TaskSource) loaded).appendTask(stringBuilder, loadedIndex);
+        } else {
+            stringBuilder.append(loaded.get(loadedIndex));
+        }
+    }
+
     /**
      * Retrieves all event tasks in list on specific date.
      * @return events    String representation of events on specific date.
      */
     public String findAllEventOnDate(LocalDate date) {
-        StringBuilder results = new StringBuilder();
-        for (int i = 0; i < tasks.size(); i++) {
-            Task x = tasks.get(i);
-            if (!(x instanceof Event)) {
-                continue;
-            }
-
-            LocalDate from = ((Event) x).getFromDate();
-            if (from.isEqual(date)) {
-                results.append(i + 1);
-                results.append(". ");
-                results.append(x);
-                results.append("\n");
-            }
+        buildDateIndex();
+        lock.readLock().lock();
+        try {
+            return printSequences(tasks, eventIndex.get(date));
+        } finally {
+            lock.readLock().unlock();
         }
-
-        return results.toString();
     }
 
     /**
@@ -173,23 +564,43 @@ public class TaskList {
      * @return deadlines    String representation of deadlines on specific date.
      */
     public String findAllDeadlineOnDate(LocalDate date) {
-        StringBuilder results = new StringBuilder();
-        for (int i = 0; i < tasks.size(); i++) {
-            Task x = tasks.get(i);
-            if (!(x instanceof Deadline)) {
-                continue;
-            }
+        buildDateIndex();
+        lock.readLock().lock();
+        try {
+            return printSequences(tasks, deadlineIndex.get(date));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
 
-            LocalDate from = ((Deadline) x).getByDate();
-            if (from.isEqual(date)) {
-                results.append(i + 1);
-                results.append(". ");
-                results.append(x);
-                results.append("\n");
-            }
+    /**
+     * Retrieves the id to give the next new task, larger than every id given out before.
+     *
+     * @return nextId   Next id.
+     */
+    public int getNextId() {
+        lock.readLock().lock();
+        try {
+            return nextId;
+        } finally {
+            lock.readLock().unlock();
         }
+    }
 
-        return results.toString();
+    /**
+     * Checks if the task with the largest id given out is no longer in the list, so the next id cannot
+     * be found from the tasks saved and has to be saved on its own.
+     *
+     * @return isDeleted    True if the next id is more than one after the id of the last task.
+     */
+    public boolean hasDeletedLargestId() {
+        lock.readLock().lock();
+        try {
+            int lastId = tasks.isEmpty() ? 0 : tasks.get(tasks.size() - 1).getId();
+            return nextId > lastId + 1;
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     /**
@@ -200,4 +611,340 @@ public class TaskList {
     public int getNumOfTasks() {
         return tasks.size();
     }
+
+    /**
+     * Prints the number of tasks of each type, done, overdue and coming up in the next week.
+     * After the counts are first built, this reads them without going through the tasks.
+     *
+     * @param now       Current time.
+     * @return stats    String of the counts, one per line.
+     */
+    public String printStats(LocalDateTime now) {
+        buildCounts();
+        LocalDate today = now.toLocalDate();
+        lock.readLock().lock();
+        try {
+            int numOfTasks = tasks.size();
+            int numOfDone = counts.getNumOfDone();
+            int deadlinesThisWeek = 0;
+            int eventsThisWeek = 0;
+            for (int i = 0; i < DAYS_IN_WEEK; ++i) {
+                deadlinesThisWeek += counts.getNumOfPendingDeadlines(today.plusDays(i));
+                eventsThisWeek += counts.getNumOfPendingEvents(today.plusDays(i));
+            }
+
+            return "Total: " + numOfTasks + "\n"
+                    + "To-dos: " + counts.getNumOfTodos() + "\n"
+                    + "Deadlines: " + counts.getNumOfDeadlines() + "\n"
+                    + "Events: " + counts.getNumOfEvents() + "\n"
+                    + "Done: " + numOfDone + ", pending: " + (numOfTasks - numOfDone) + "\n"
+                    + "Overdue: " + counts.getNumOfOverdue(now) + "\n"
+                    + "Today: " + counts.getNumOfPendingDeadlines(today) + " deadline(s), "
+                    + counts.getNumOfPendingEvents(today) + " event(s)\n"
+                    + "Next " + DAYS_IN_WEEK + " days: " + deadlinesThisWeek + " deadline(s), "
+                    + eventsThisWeek + " event(s)\n";
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static String printSequences(OrderStatisticTree<Task> snapshot, IntList sequences) {
+        StringBuilder results = new StringBuilder();
+        for (int i = 0; i < sequences.size(); ++i) {
+            int index = snapshot.indexOfKey(sequences.get(i));
+            results.append(index + 1);
+            results.append(". ");
+            results.append(snapshot.get(index));
+            results.append("\n");
+        }
+        return results.toString();
+    }
+
+    /**
+     * Replaces several tasks with copies that have a different done status, holding the lock throughout.
+     */
+    private List<Task> updateIsDone(int[] indices, boolean isDone) {
+        lock.writeLock().lock();
+        try {
+            ArrayList<Task> updated = new ArrayList<>(indices.length);
+            for (int index : indices) {
+                updated.add(updateIsDone(index, isDone));
+            }
+            return updated;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces a task with a copy that has a different done status.
+     */
+    private Task updateIsDone(int index, boolean isDone) {
+        lock.writeLock().lock();
+        try {
+            Task old = tasks.get(index);
+            Task task = old.withIsDone(isDone);
+            tasks = tasks.set(index, task);
+            if (counts != null) {
+                counts.remove(old);
+                counts.add(task);
+            }
+            int sequence = tasks.keyAt(index);
+            if (pendingIndex != null && startOf(task) != null) {
+                pendingIndex.remove(startOf(task), sequence);
+                indexPending(pendingIndex, task, sequence);
+            }
+            logChange(sequence);
+            return task;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Builds the date indices the first time they are needed, so loading does not decode every task.
+     */
+    private void buildDateIndex() {
+        if (eventIndex != null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (eventIndex == null) {
+                deadlineIndex = new DateIndex();
+                DateIndex events = new DateIndex();
+                tasks.forEachWithKey((task, sequence) -> indexDate(events, task, sequence));
+                eventIndex = events;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Builds the description index the first time it is needed.
+     */
+    private void buildDescriptionIndex() {
+        if (descriptionIndex != null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (descriptionIndex == null) {
+                TrigramIndex index = new TrigramIndex();
+                tasks.forEachWithKey((task, sequence) -> index.add(sequence, task.getDescription()));
+                descriptionIndex = index;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Builds the id index the first time it is needed.
+     */
+    private void buildIdIndex() {
+        if (idIndex != null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (idIndex == null) {
+                HashMap<Integer, Integer> index = new HashMap<>();
+                tasks.forEachWithKey((task, sequence) -> {
+                    if (task.getId() > 0) {
+                        index.put(task.getId(), sequence);
+                    }
+                });
+                idIndex = index;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Builds the schedule index the first time it is needed.
+     */
+    private void buildScheduleIndex() {
+        if (scheduleIndex != null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (scheduleIndex == null) {
+                IntervalIndex index = new IntervalIndex();
+                tasks.forEachWithKey((task, sequence) -> indexSchedule(index, task, sequence));
+                scheduleIndex = index;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Counts the tasks the first time the counts are needed, after which they are kept up to date.
+     */
+    private void buildCounts() {
+        if (counts != null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (counts == null) {
+                TaskCounts taskCounts = new TaskCounts();
+                tasks.forEach(taskCounts::add);
+                counts = taskCounts;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Builds the index of pending events and deadlines the first time it is needed.
+     */
+    private void buildPendingIndex() {
+        if (pendingIndex != null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (pendingIndex == null) {
+                IntervalIndex index = new IntervalIndex();
+                tasks.forEachWithKey((task, sequence) -> indexPending(index, task, sequence));
+                pendingIndex = index;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void indexPending(IntervalIndex index, Task task, int sequence) {
+        if (!task.isDone()) {
+            indexSchedule(index, task, sequence);
+        }
+    }
+
+    private static void indexSchedule(IntervalIndex index, Task task, int sequence) {
+        if (task instanceof Event) {
+            Event event = (Event) task;
+            index.add(event.getFrom(), event.getFromDate().atTime(event.getTo()), sequence);
+        } else if (task instanceof Deadline) {
+            index.add(((Deadline) task).getBy(), ((Deadline) task).getBy(), sequence);
+        }
+    }
+
+    private static LocalDateTime startOf(Task task) {
+        if (task instanceof Event) {
+            return ((Event) task).getFrom();
+        } else if (task instanceof Deadline) {
+            return ((Deadline) task).getBy();
+        }
+        return null;
+    }
+
+    /**
+     * Adds a task at the end of the list with the next sequence and id, and to any indices that have been built.
+     */
+    private void add(Task task) {
+        lock.writeLock().lock();
+        try {
+            int sequence = nextSequence++;
+            task.setId(nextId++);
+            tasks = tasks.put(sequence, task);
+            indexTask(task, sequence);
+            logChange(sequence);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds a task to any indices that have been built.
+     */
+    private void indexTask(Task task, int sequence) {
+        if (idIndex != null) {
+            idIndex.put(task.getId(), sequence);
+        }
+        if (descriptionIndex != null) {
+            descriptionIndex.add(sequence, task.getDescription());
+        }
+        if (scheduleIndex != null) {
+            indexSchedule(scheduleIndex, task, sequence);
+        }
+        if (pendingIndex != null) {
+            indexPending(pendingIndex, task, sequence);
+        }
+        if (eventIndex != null) {
+            indexDate(eventIndex, task, sequence);
+        }
+        if (counts != null) {
+            counts.add(task);
+        }
+    }
+
+    /**
+     * Removes a task from any indices that have been built.
+     */
+    private void unindexTask(Task task, int sequence) {
+        if (idIndex != null) {
+            idIndex.remove(task.getId());
+        }
+        if (descriptionIndex != null) {
+            descriptionIndex.remove(sequence, task.getDescription());
+        }
+        if (scheduleIndex != null && startOf(task) != null) {
+            scheduleIndex.remove(startOf(task), sequence);
+        }
+        if (pendingIndex != null && startOf(task) != null) {
+            pendingIndex.remove(startOf(task), sequence);
+        }
+        if (eventIndex != null && task instanceof Event) {
+            eventIndex.remove(((Event) task).getFromDate(), sequence);
+        } else if (eventIndex != null && task instanceof Deadline) {
+            deadlineIndex.remove(((Deadline) task).getByDate(), sequence);
+        }
+        if (counts != null) {
+            counts.remove(task);
+        }
+    }
+
+    /**
+     * Logs the sequence of a changed task while a version is held.
+     */
+    private void logChange(int sequence) {
+        if (!heldVersions.isEmpty()) {
+            changeLog.add(sequence);
+        }
+    }
+
+    private void indexDate(DateIndex events, Task task, int sequence) {
+        if (task instanceof Event) {
+            events.add(((Event) task).getFromDate(), sequence);
+        } else if (task instanceof Deadline) {
+            deadlineIndex.add(((Deadline) task).getByDate(), sequence);
+        }
+    }
+
+    /**
+     * Version of the task list, which later changes to the list do not affect.
+     */
+    public static final class Version {
+        private final OrderStatisticTree<Task> tasks;
+        private final int nextSequence;
+        private final int nextId;
+        private final long position;
+
+        private Version(OrderStatisticTree<Task> tasks, int nextSequence, int nextId, long position) {
+            this.tasks = tasks;
+            this.nextSequence = nextSequence;
+            this.nextId = nextId;
+            this.position = position;
+        }
+
+        OrderStatisticTree<Task> getTasks() {
+            return tasks;
+        }
+    }
 }
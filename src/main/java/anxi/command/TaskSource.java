@@ -0,0 +1,26 @@
+package anxi.command;
+
+import java.util.function.IntPredicate;
+
+/**
+ * Loaded list of tasks that can search and print its tasks without creating them.
+ * The task list uses these for tasks it has not read from the loaded list yet.
+ */
+public interface TaskSource {
+
+    /**
+     * Creates a check for whether the description of a task contains a string.
+     *
+     * @param match         String to search for within descriptions.
+     * @return matcher      Takes the index of a task in the loaded list, true if its description contains the string.
+     */
+    IntPredicate descriptionMatcher(String match);
+
+    /**
+     * Appends the string representation of a task, the same as its toString.
+     *
+     * @param stringBuilder     StringBuilder to append to.
+     * @param index             Index of task in the loaded list.
+     */
+    void appendTask(StringBuilder stringBuilder, int index);
+}
@@ -0,0 +1,162 @@
+package anxi.command;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import anxi.tasks.Task;
+
+/**
+ * Persists the task list.
+ * Tasks are given by their index in the task list, starting from 0, to every method.
+ */
+public interface TaskStore {
+
+    /**
+     * Loads all saved tasks.
+     *
+     * @return taskList     List of saved tasks, in list order.
+     * @throws IOException  If unable to read saved tasks.
+     */
+    List<Task> loadTasks() throws IOException;
+
+    /**
+     * Saves a new task at the end of the list.
+     *
+     * @param task          New task to save.
+     * @throws IOException  If unable to save the task.
+     */
+    void addNewTask(Task task) throws IOException;
+
+    /**
+     * Replaces a saved task.
+     * Stores that save task ids find the record by the id of the task, and by index otherwise.
+     *
+     * @param task          Updated task.
+     * @param index         Index of task to be updated, starting from 0.
+     * @param numOfTasks    Total number of tasks in task list.
+     * @throws IOException  If unable to save the task.
+     */
+    void updateTask(Task task, int index, int numOfTasks) throws IOException;
+
+    /**
+     * Saves new tasks at the end of the list.
+     *
+     * @param tasks         New tasks to save, in list order.
+     * @throws IOException  If unable to save the tasks.
+     */
+    default void addNewTasks(List<Task> tasks) throws IOException {
+        for (Task task : tasks) {
+            addNewTask(task);
+        }
+    }
+
+    /**
+     * Replaces several saved tasks.
+     *
+     * @param tasks         Updated tasks.
+     * @param indices       Index of each updated task, starting from 0, in ascending order.
+     * @param numOfTasks    Total number of tasks in task list.
+     * @throws IOException  If unable to save the tasks.
+     */
+    default void updateTasks(List<Task> tasks, int[] indices, int numOfTasks) throws IOException {
+        for (int i = 0; i < indices.length; ++i) {
+            updateTask(tasks.get(i), indices[i], numOfTasks);
+        }
+    }
+
+    /**
+     * Removes saved tasks, one or more at a time.
+     * Stores that save task ids find the records by the ids of the tasks, and by index otherwise.
+     *
+     * @param tasks         Tasks to be deleted, in list order.
+     * @param indices       Indices of tasks to be deleted before any are removed, starting from 0, in ascending order.
+     * @param numOfTasks    Total number of tasks in task list before any are removed.
+     * @throws IOException  If unable to remove the tasks.
+     */
+    void deleteTasks(List<Task> tasks, int[] indices, int numOfTasks) throws IOException;
+
+    /**
+     * Saves the changes between two versions of the task list.
+     *
+     * @param changes       Changes to save.
+     * @throws IOException  If unable to save the changes.
+     */
+    default void saveChanges(TaskChanges changes) throws IOException {
+        saveInBulk(this, changes);
+    }
+
+    /**
+     * Saves the changes between two versions of the task list with the bulk methods of a store,
+     * removing deleted tasks first, then replacing updated tasks, then saving added tasks.
+     * Tasks added before the end of the list are saved by moving the tasks after the first of them
+     * to the end, so only that part of the list is written again.
+     *
+     * @param store         Store to save to.
+     * @param changes       Changes to save.
+     * @throws IOException  If unable to save the changes.
+     */
+    static void saveInBulk(TaskStore store, TaskChanges changes) throws IOException {
+        int[] deleted = changes.getDeletedIndices();
+        int numOfKept = changes.getNumOfTasksBefore() - deleted.length;
+        if (deleted.length > 0) {
+            store.deleteTasks(changes.getDeletedTasks(), deleted, changes.getNumOfTasksBefore());
+        }
+
+        int[] added = changes.getAddedIndices();
+        int firstAdded = added.length == 0 ? numOfKept : Math.min(added[0], numOfKept);
+        if (firstAdded < numOfKept) {
+            // The kept tasks moved are the tasks from the first added one on that were not added.
+            List<Task> moved = new ArrayList<>(changes.getTasks(firstAdded, changes.getNumOfTasks()));
+            for (int i = added.length - 1; i >= 0; --i) {
+                moved.remove(added[i] - firstAdded);
+            }
+            store.deleteTasks(moved, IntStream.range(firstAdded, numOfKept).toArray(), numOfKept);
+        }
+
+        int[] updated = changes.getUpdatedIndices();
+        int numOfUpdated = 0;
+        while (numOfUpdated < updated.length && updated[numOfUpdated] < firstAdded) {
+            numOfUpdated++;
+        }
+        if (numOfUpdated > 0) {
+            store.updateTasks(changes.getUpdatedTasks().subList(0, numOfUpdated),
+                    Arrays.copyOf(updated, numOfUpdated), firstAdded);
+        }
+        if (firstAdded < changes.getNumOfTasks()) {
+            store.addNewTasks(changes.getTasks(firstAdded, changes.getNumOfTasks()));
+        }
+    }
+
+    /**
+     * Loads the id saved for the next new task.
+     *
+     * @return nextId       Next id, 1 if none was saved.
+     * @throws IOException  If unable to read the next id.
+     */
+    default int loadNextId() throws IOException {
+        return 1;
+    }
+
+    /**
+     * Saves the id for the next new task, for when the task with the largest id has been deleted and
+     * the next id can no longer be found from the tasks saved.
+     *
+     * @param nextId        Next id, larger than every id given out before.
+     * @throws IOException  If unable to save the next id.
+     */
+    default void saveNextId(int nextId) throws IOException {
+        // Ids are not kept apart from the tasks by default, nothing to save.
+    }
+
+    /**
+     * Writes any changes that have not been saved yet.
+     *
+     * @throws IOException  If unable to save the changes.
+     */
+    default void flush() throws IOException {
+        // Changes are saved immediately by default, nothing to flush.
+    }
+}
@@ -1,5 +1,8 @@
 package anxi.command;
 
+import java.util.List;
+import java.util.stream.Stream;
+
 /**
  * Handles interaction with user.
  */
@@ -57,6 +60,26 @@ public class Ui {
         return stringBuilder.toString();
     }
 
+    /**
+     * Returns one page of the task list to be printed to GUI.
+     * @param tasks         Tasks on the page.
+     * @param page          Page number, starting from 1.
+     * @param numOfPages    Total number of pages.
+     * @return taskList     Tasks on the page, followed by the page number.
+     */
+    public String printTaskPage(String tasks, int page, int numOfPages) {
+        return "\nTasks in your list:\n\n" + tasks + "\nPage " + page + " of " + numOfPages;
+    }
+
+    /**
+     * Returns task list chunks to be printed to GUI one after another.
+     * @param tasks         Chunks of the task list, in list order.
+     * @return taskList     Heading followed by the chunks, each read only when it is printed.
+     */
+    public Stream<String> streamTaskList(Stream<String> tasks) {
+        return Stream.concat(Stream.of("\nTasks in your list:\n\n"), tasks);
+    }
+
     /**
      * Returns task marked message to be printed to GUI.
      *
@@ -125,6 +148,47 @@ public class Ui {
         return stringBuilder.toString();
     }
 
+    /**
+     * Returns ranked find task message to be printed to GUI.
+     * @return similarTasks     Closest matching tasks, best match first.
+     */
+    public String printSimilarTask(String tasks) {
+        StringBuilder stringBuilder = new StringBuilder("\nClosest tasks in list:\n");
+        stringBuilder.append(tasks);
+        return stringBuilder.toString();
+    }
+
+    /**
+     * Returns import summary to be printed to GUI.
+     *
+     * @param numOfImported     Number of tasks imported.
+     * @param numOfErrors       Number of lines that could not be imported.
+     * @param errors            Messages for the first few lines that could not be imported.
+     * @param numOfTasks        Total number of tasks in list.
+     * @return importSummary    Number of tasks imported and the lines that were skipped.
+     */
+    public String printImportSummary(int numOfImported, int numOfErrors, List<String> errors, int numOfTasks) {
+        StringBuilder stringBuilder = new StringBuilder("\nMore work for you, imported ");
+        stringBuilder.append(numOfImported);
+        stringBuilder.append(" task(s).\n");
+        if (numOfErrors > 0) {
+            stringBuilder.append("Skipped ");
+            stringBuilder.append(numOfErrors);
+            stringBuilder.append(" line(s):\n");
+        }
+        for (String error : errors) {
+            stringBuilder.append(" ");
+            stringBuilder.append(error);
+            stringBuilder.append("\n");
+        }
+        if (numOfErrors > errors.size()) {
+            stringBuilder.append(" ...\n");
+        }
+        stringBuilder.append(numOfTasks);
+        stringBuilder.append(" task(s) in the list.\n");
+        return stringBuilder.toString();
+    }
+
     /**
      * Returns unknown command message to be printed to GUI.
      *
@@ -155,4 +219,114 @@ public class Ui {
         return "\nEvents on " + date + ":\n" + events
                 + "\nDeadlines on " + date + ":\n" + deadlines;
     }
+
+    /**
+     * Returns schedule between two dates to be printed to GUI.
+     * @param from          First date of the schedule.
+     * @param to            Last date of the schedule.
+     * @param tasks         Events and deadlines between the dates, in chronological order.
+     * @return schedule     String of all tasks between the dates.
+     */
+    public String printTasksBetween(String from, String to, Stream<String> tasks) {
+        StringBuilder stringBuilder = new StringBuilder();
+        tasks.forEachOrdered(task -> stringBuilder.append(task).append("\n"));
+        if (stringBuilder.length() == 0) {
+            return "Nothing from " + from + " to " + to;
+        }
+        return "\nSchedule from " + from + " to " + to + ":\n" + stringBuilder;
+    }
+
+    /**
+     * Returns the next pending events and deadlines to be printed to GUI.
+     * @param tasks         Next tasks, soonest first, empty if nothing is coming up.
+     * @return upcoming     String of the next tasks.
+     */
+    public String printUpcoming(String tasks) {
+        if (tasks.isEmpty()) {
+            return "Nothing coming up, enjoy the quiet.";
+        }
+        return "\nComing up next:\n" + tasks;
+    }
+
+    /**
+     * Returns counts of tasks to be printed to GUI.
+     * @param stats         Counts of tasks, one per line.
+     * @return stats        String of the counts.
+     */
+    public String printStats(String stats) {
+        return "\nYour tasks at a glance:\n\n" + stats;
+    }
+
+    /**
+     * Returns message to be printed to GUI when a batch is started.
+     * @return message      Instructions for queueing commands.
+     */
+    public String printBatchStarted() {
+        return "Batch started. Give me the commands one at a time, then \"commit\" to run them all together,"
+                + " or \"abort\" to drop them.";
+    }
+
+    /**
+     * Returns message to be printed to GUI when a command is queued in a batch.
+     * @param numOfCommands Number of commands queued so far.
+     * @return message      Number of commands queued.
+     */
+    public String printCommandQueued(int numOfCommands) {
+        return "Queued, " + numOfCommands + " command(s) in the batch.";
+    }
+
+    /**
+     * Returns message to be printed to GUI when a batch is dropped.
+     * @param numOfCommands Number of commands dropped.
+     * @return message      Confirmation that nothing was run.
+     */
+    public String printBatchAborted(int numOfCommands) {
+        return "Dropped " + numOfCommands + " command(s), nothing was changed.";
+    }
+
+    /**
+     * Returns the results of a batch that was run and saved to be printed to GUI.
+     * @param results       Result of each command, in order.
+     * @return results      String of the results.
+     */
+    public String printBatchCommitted(List<String> results) {
+        StringBuilder stringBuilder = new StringBuilder();
+        for (String result : results) {
+            stringBuilder.append("\n").append(result.strip()).append("\n");
+        }
+        stringBuilder.append("\nAll ").append(results.size()).append(" command(s) done and saved together.");
+        return stringBuilder.toString();
+    }
+
+    /**
+     * Returns the error of a batch that was rolled back to be printed to GUI.
+     * @param commandNumber Number of the command that failed, starting from 1.
+     * @param command       Command that failed.
+     * @param errorMessage  Error from the command.
+     * @return error        String of the error.
+     */
+    public String printBatchFailed(int commandNumber, String command, String errorMessage) {
+        return "Command " + commandNumber + " (" + command + ") failed:\n" + errorMessage
+                + "\n\nThe batch was rolled back, nothing was changed.";
+    }
+
+    /**
+     * Returns the tasks changed back by undoing a command to be printed to GUI.
+     * @param changes       Tasks removed, put back and changed.
+     * @param numOfTasks    Number of tasks in the list afterwards.
+     * @return message      String of the changes.
+     */
+    public String printUndo(String changes, int numOfTasks) {
+        return "\nUndone!\n" + changes + numOfTasks + " task(s) in the list.\n";
+    }
+
+    /**
+     * Returns the tasks changed again by redoing a command to be printed to GUI.
+     * @param changes       Tasks removed, put back and changed.
+     * @param numOfTasks    Number of tasks in the list afterwards.
+     * @return message      String of the changes.
+     */
+    public String printRedo(String changes, int numOfTasks) {
+        return "\nRedone!\n" + changes + numOfTasks + " task(s) in the list.\n";
+    }
 }
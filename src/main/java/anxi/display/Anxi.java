@@ -3,12 +3,23 @@ package anxi.display;
 import java.io.IOException;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.stream.Stream;
 
 import anxi.command.AnxiException;
+import anxi.command.History;
 import anxi.command.Parser;
 import anxi.command.Storage;
 import anxi.command.TaskList;
+import anxi.command.TaskStore;
 import anxi.command.Ui;
+import anxi.storage.BinaryStorage;
+import anxi.storage.ColumnarStorage;
+import anxi.storage.DatabaseStore;
+import anxi.storage.JournaledStorage;
+import anxi.storage.LazyStorage;
+import anxi.storage.ShardedStorage;
+import anxi.storage.SnapshotStorage;
+import anxi.storage.WriteBehindStorage;
 import javafx.application.Application;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
@@ -32,25 +43,66 @@ public class Anxi extends Application {
     private Image user = new Image(this.getClass().getResourceAsStream("/images/DaUser.png"));
     private Image duke = new Image(this.getClass().getResourceAsStream("/images/DaDuke.png"));
 
-    private Storage storage;
+    private TaskStore storage;
     private TaskList taskList;
     private Ui ui;
+    private final Parser parser = new Parser(new History(Integer.getInteger("anxi.historyDepth",
+            History.DEFAULT_DEPTH)));
 
     /**
      * Duke constructor.
      */
     public Anxi() {
         ui = new Ui();
-        storage = new Storage("data/anxi.txt");
+        storage = createStorage("data/anxi.txt");
 
         try {
-            taskList = new TaskList(storage.loadTasks());
+            taskList = new TaskList(storage.loadTasks(), storage.loadNextId());
         } catch (IOException e) {
             ui.showLoadingError();
             taskList = new TaskList();
         }
     }
 
+    /**
+     * Creates the storage selected by the anxi.storage system property.
+     * @param filePath      Location of save file.
+     * @return storage      TaskStore instance.
+     */
+    private static TaskStore createStorage(String filePath) {
+        switch (System.getProperty("anxi.storage", "text")) {
+        case "journal":
+            return new JournaledStorage(filePath);
+
+        case "binary":
+            return new BinaryStorage("data/anxi.bin", filePath);
+
+        case "database":
+            return new DatabaseStore("data/anxi.db", filePath);
+
+        case "lazy":
+            return new LazyStorage(filePath);
+
+        case "columnar":
+            return new ColumnarStorage(filePath);
+
+        case "sharded":
+            return new ShardedStorage("data/shards", filePath);
+
+        case "snapshot":
+            return new SnapshotStorage(filePath, SnapshotStorage.DEFAULT_CHECKPOINT_INTERVAL);
+
+        case "writebehind":
+            WriteBehindStorage.Durability durability = WriteBehindStorage.Durability.valueOf(
+                    System.getProperty("anxi.durability", "interval").toUpperCase().replace('-', '_'));
+            return new WriteBehindStorage(filePath, durability, Long.getLong("anxi.flushInterval", 200),
+                    Boolean.getBoolean("anxi.fsync"));
+
+        default:
+            return new Storage(filePath);
+        }
+    }
+
     public static void main(String[] args) {
     }
 
@@ -87,7 +139,7 @@ public class Anxi extends Application {
         );
         userInput.clear();
 
-        if (response.contains("Bye")) {
+        if (isExit()) {
             new Timer().schedule(new TimerTask() {
                 public void run() {
                     System.exit(0);
@@ -102,10 +154,26 @@ public class Anxi extends Application {
      * @return response         Result of parsing the user input.
      */
     public String getResponse(String input) {
-        Parser parser = new Parser();
         return parser.parseInput(input, storage, taskList, ui);
     }
 
+    /**
+     * Checks whether the bye command has been run, so the taskbot can close.
+     * @return isExit           True if the user has said bye.
+     */
+    public boolean isExit() {
+        return parser.isExit();
+    }
+
+    /**
+     * Gets taskbot response to user input in chunks, each built only when it is read.
+     * @param input             User input string.
+     * @return response         Result of parsing the user input, in chunks.
+     */
+    public Stream<String> getResponseStream(String input) {
+        return parser.streamInput(input, storage, taskList, ui);
+    }
+
     /**
      * Sets up required components for taskbot GUI.
      * @param stage         Instance of stage object.
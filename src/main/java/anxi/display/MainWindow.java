@@ -2,8 +2,11 @@ package anxi.display;
 
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import anxi.command.Ui;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
 import javafx.scene.control.ScrollPane;
@@ -26,6 +29,12 @@ public class MainWindow extends AnchorPane {
     private Button sendButton;
 
     private Anxi duke;
+    // Inputs are run one at a time in the order sent, so a reply is never printed among the chunks of another.
+    private final ExecutorService responder = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable);
+        thread.setDaemon(true);
+        return thread;
+    });
 
     private Image userImage = new Image(this.getClass().getResourceAsStream("/images/DaUser.png"));
     private Image dukeImage = new Image(this.getClass().getResourceAsStream("/images/DaDuke.png"));
@@ -50,13 +59,14 @@ public class MainWindow extends AnchorPane {
     }
 
     /**
-     * Creates two dialog boxes, one echoing user input, the other containing Duke's reply.
-     * Clears the user input after processing.
+     * Creates a dialog box echoing user input, followed by dialog boxes containing Duke's reply.
+     * Inputs are run on a single thread in the order sent, and long replies are printed a chunk at a time,
+     * so the window stays responsive. Clears the user input after processing.
      */
     @FXML
     private void handleUserInput() {
-        String input = userInput.getText();
-        String response = this.duke.getResponse(input);
+        String command = userInput.getText();
+        String input = command;
 
         if (input.length() > 70) {
             String updatedInput = "";
@@ -67,18 +77,22 @@ public class MainWindow extends AnchorPane {
             input = updatedInput;
         }
 
-        dialogContainer.getChildren().addAll(
-                DialogBox.getUserDialog(input, userImage),
-                DialogBox.getDukeDialog(response, dukeImage)
-        );
+        dialogContainer.getChildren().add(DialogBox.getUserDialog(input, userImage));
         userInput.clear();
 
-        if (response.contains("Bye")) {
-            new Timer().schedule(new TimerTask() {
-                public void run() {
-                    System.exit(0);
-                }
-            }, 1000);
-        }
+        responder.execute(() -> {
+            duke.getResponseStream(command).forEachOrdered(this::printChunk);
+            if (duke.isExit()) {
+                new Timer().schedule(new TimerTask() {
+                    public void run() {
+                        System.exit(0);
+                    }
+                }, 1000);
+            }
+        });
+    }
+
+    private void printChunk(String chunk) {
+        Platform.runLater(() -> dialogContainer.getChildren().add(DialogBox.getDukeDialog(chunk, dukeImage)));
     }
 }
@@ -0,0 +1,223 @@
+package anxi.handlers;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import anxi.command.AnxiException;
+import anxi.command.Parser;
+import anxi.command.TaskChanges;
+import anxi.command.TaskList;
+import anxi.command.TaskStore;
+import anxi.command.Ui;
+import anxi.tasks.Task;
+
+/**
+ * Handles batches of commands that are run and saved together, or not at all.
+ *
+ * <p>Every command in a batch is checked before any is run. The commands are then run one after another
+ * with their saves held back. If one fails, the task list is rolled back to the version before the batch,
+ * so nothing reaches storage. Otherwise the changes since that version are saved at once.
+ */
+public class BatchHandler extends Handler {
+    public static final List<String> BATCH_COMMANDS = List.of("todo", "deadline", "event", "mark", "unmark",
+            "delete", "list", "find", "find~", "view", "agenda", "upcoming", "stats");
+
+    private static final TaskStore HELD_BACK = new HeldBackStore();
+
+    /**
+     * BatchHandler constructor.
+     */
+    public BatchHandler() {
+    }
+
+    /**
+     * Runs commands separated by ';' as one batch.
+     *
+     * @param input         Commands separated by ';', optionally starting with "begin" and ending with "commit".
+     * @param parser        Instance of Parser, to run each command.
+     * @param storage       Instance of TaskStore.
+     * @param taskList      Instance of TaskList class.
+     * @param ui            Instance of Ui class.
+     * @return String       Results of the commands, or the error of the first that failed.
+     */
+    public String runCommands(String input, Parser parser, TaskStore storage, TaskList taskList, Ui ui) {
+        try {
+            return run(splitCommands(input), parser, storage, taskList, ui);
+        } catch (AnxiException de) {
+            return ui.printErrorMessage(de.getErrorMessage());
+        }
+    }
+
+    /**
+     * Runs queued commands as one batch.
+     *
+     * @param commands      Commands, in order.
+     * @param parser        Instance of Parser, to run each command.
+     * @param storage       Instance of TaskStore.
+     * @param taskList      Instance of TaskList class.
+     * @param ui            Instance of Ui class.
+     * @return String       Results of the commands, or the error of the first that failed.
+     */
+    public String runBatch(List<String> commands, Parser parser, TaskStore storage, TaskList taskList, Ui ui) {
+        try {
+            return run(commands, parser, storage, taskList, ui);
+        } catch (AnxiException de) {
+            return ui.printErrorMessage(de.getErrorMessage());
+        }
+    }
+
+    /**
+     * Checks commands separated by ';' and adds them to a batch being queued.
+     *
+     * @param input         Commands separated by ';'.
+     * @param batch         Commands queued so far.
+     * @param ui            Instance of Ui class.
+     * @return String       Number of commands queued, or why none were.
+     */
+    public String queueCommands(String input, List<String> batch, Ui ui) {
+        try {
+            List<String> commands = splitCommands(input);
+            for (String command : commands) {
+                checkCommand(command);
+            }
+            batch.addAll(commands);
+            return ui.printCommandQueued(batch.size());
+        } catch (AnxiException de) {
+            return ui.printErrorMessage(de.getErrorMessage());
+        }
+    }
+
+    /**
+     * Splits commands separated by ';', dropping blank ones and a "begin" before them and "commit" after.
+     *
+     * @param input             Commands separated by ';'.
+     * @return commands         Commands, in order.
+     * @throws AnxiException    Thrown if there are no commands.
+     */
+    public List<String> splitCommands(String input) throws AnxiException {
+        ArrayList<String> commands = new ArrayList<>();
+        for (String part : input.split(";")) {
+            if (!part.isBlank()) {
+                commands.add(part.strip());
+            }
+        }
+        if (!commands.isEmpty() && commands.get(0).equalsIgnoreCase("begin")) {
+            commands.remove(0);
+        }
+        if (!commands.isEmpty() && commands.get(commands.size() - 1).equalsIgnoreCase("commit")) {
+            commands.remove(commands.size() - 1);
+        }
+
+        if (commands.isEmpty()) {
+            throw new AnxiException("Nothing to run, the batch is empty.");
+        }
+        return commands;
+    }
+
+    /**
+     * Checks that a command can go in a batch.
+     *
+     * @param command           Command with its arguments.
+     * @throws AnxiException    Thrown if the command is unknown or cannot be rolled back.
+     */
+    public void checkCommand(String command) throws AnxiException {
+        String name = command.split(" ", 2)[0].toLowerCase();
+        if (!BATCH_COMMANDS.contains(name)) {
+            throw new AnxiException("\"" + name + "\" can't go in a batch.\n\nBatches take: "
+                    + String.join(", ", BATCH_COMMANDS) + "\nEnd a batch with commit or abort.");
+        }
+    }
+
+    /**
+     * Checks and runs the commands, then saves their changes together or rolls them all back.
+     *
+     * @param commands          Commands, in order.
+     * @param parser            Instance of Parser, to run each command.
+     * @param storage           Instance of TaskStore.
+     * @param taskList          Instance of TaskList class.
+     * @param ui                Instance of Ui class.
+     * @return String           Results of the commands, or the error of the first that failed.
+     * @throws AnxiException    Thrown if a command cannot go in a batch, or the changes cannot be saved.
+     */
+    private String run(List<String> commands, Parser parser, TaskStore storage, TaskList taskList, Ui ui)
+            throws AnxiException {
+        if (commands.isEmpty()) {
+            throw new AnxiException("Nothing to run, the batch is empty.");
+        }
+        for (String command : commands) {
+            checkCommand(command);
+        }
+
+        TaskList.Version before = taskList.getVersion();
+        try {
+            ArrayList<String> results = new ArrayList<>();
+            for (int i = 0; i < commands.size(); ++i) {
+                ErrorRecordingUi commandUi = new ErrorRecordingUi();
+                String result = parser.parseInput(commands.get(i), HELD_BACK, taskList, commandUi);
+                if (commandUi.errorMessage != null) {
+                    taskList.applyChanges(taskList.changesSince(before).reversed());
+                    return ui.printBatchFailed(i + 1, commands.get(i), commandUi.errorMessage);
+                }
+                results.add(result);
+            }
+
+            TaskChanges changes = taskList.changesSince(before);
+            try {
+                storage.saveChanges(changes);
+            } catch (IOException e) {
+                taskList.applyChanges(changes.reversed());
+                throw new AnxiException("Error, unable to save the batch to storage, nothing was changed.");
+            }
+            return ui.printBatchCommitted(results);
+        } finally {
+            taskList.releaseVersion(before);
+        }
+    }
+
+    /**
+     * Ui that remembers the first error printed, so a batch knows which command failed.
+     */
+    private static class ErrorRecordingUi extends Ui {
+        private String errorMessage;
+
+        @Override
+        public String printUnknownCommandError() {
+            return record(super.printUnknownCommandError());
+        }
+
+        @Override
+        public String printErrorMessage(String errorMessage) {
+            return record(super.printErrorMessage(errorMessage));
+        }
+
+        private String record(String error) {
+            if (errorMessage == null) {
+                errorMessage = error;
+            }
+            return error;
+        }
+    }
+
+    /**
+     * Task store that drops every change, for running the commands of a batch before saving them together.
+     */
+    private static class HeldBackStore implements TaskStore {
+        @Override
+        public List<Task> loadTasks() {
+            return List.of();
+        }
+
+        @Override
+        public void addNewTask(Task task) {
+        }
+
+        @Override
+        public void updateTask(Task task, int index, int numOfTasks) {
+        }
+
+        @Override
+        public void deleteTasks(List<Task> tasks, int[] indices, int numOfTasks) {
+        }
+    }
+}
@@ -3,8 +3,8 @@ package anxi.handlers;
 import java.time.LocalDateTime;
 
 import anxi.command.AnxiException;
-import anxi.command.Storage;
 import anxi.command.TaskList;
+import anxi.command.TaskStore;
 import anxi.command.Ui;
 import anxi.tasks.Task;
 
@@ -23,12 +23,12 @@ public class DeadlineHandler extends Handler {
      * Adds new Deadline task.
      *
      * @param input         Input command string.
-     * @param storage       Instance of Storage class.
+     * @param storage       Instance of TaskStore.
      * @param taskList      Instance of TaskList class.
      * @param ui            Instance of Ui class.
      * @return String       Indicates if task was successfully completed.
      */
-    public String addDeadline(String input, Storage storage, TaskList taskList, Ui ui) {
+    public String addDeadline(String input, TaskStore storage, TaskList taskList, Ui ui) {
         try {
             return deadline(input, storage, taskList, ui);
         } catch (AnxiException de) {
@@ -40,13 +40,13 @@ public class DeadlineHandler extends Handler {
      * Parses and calls relevant methods to add new deadline and update storage.
      *
      * @param input         Input command string.
-     * @param storage       Instance of Storage class.
+     * @param storage       Instance of TaskStore.
      * @param taskList      Instance of TaskList class.
      * @param ui            Instance of Ui class.
      * @return String           Indicates if task was successfully completed.
      * @throws AnxiException    Thrown if there are missing inputs or inputs are out of bounds.
      */
-    public String deadline(String input, Storage storage, TaskList taskList, Ui ui) throws AnxiException {
+    public String deadline(String input, TaskStore storage, TaskList taskList, Ui ui) throws AnxiException {
         if (input.isBlank()) {
             throw new AnxiException("Invalid input/syntax. What is due?"
                     + "\n\nFormat: deadline <name> /by <date and time>");
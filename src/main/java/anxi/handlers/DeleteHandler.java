@@ -1,10 +1,11 @@
 package anxi.handlers;
 
 import java.io.IOException;
+import java.util.List;
 
 import anxi.command.AnxiException;
-import anxi.command.Storage;
 import anxi.command.TaskList;
+import anxi.command.TaskStore;
 import anxi.command.Ui;
 import anxi.tasks.Task;
 
@@ -23,12 +24,12 @@ public class DeleteHandler extends Handler {
      * Deletes task from list.
      *
      * @param input         Input command string.
-     * @param storage       Instance of Storage class.
+     * @param storage       Instance of TaskStore.
      * @param taskList      Instance of TaskList class.
      * @param ui            Instance of Ui class.
      * @return String           Indicates if task was successfully completed.
      */
-    public String deleteTask(String input, Storage storage, TaskList taskList, Ui ui) {
+    public String deleteTask(String input, TaskStore storage, TaskList taskList, Ui ui) {
         try {
             return delete(input, storage, taskList, ui);
         } catch (AnxiException de) {
@@ -40,28 +41,28 @@ public class DeleteHandler extends Handler {
      * Parses and calls relevant methods to add new todo and update storage.
      *
      * @param input         Input command string.
-     * @param storage       Instance of Storage class.
+     * @param storage       Instance of TaskStore.
      * @param taskList      Instance of TaskList class.
      * @param ui            Instance of Ui class.
      * @return String           Indicates if task was successfully completed.
      * @throws AnxiException    Thrown if there are missing inputs or inputs are out of bounds.
      */
-    private String delete(String input, Storage storage, TaskList taskList, Ui ui) throws AnxiException {
+    private String delete(String input, TaskStore storage, TaskList taskList, Ui ui) throws AnxiException {
         if (input.isBlank()) {
             throw new AnxiException("Missing the target with your input, what to remove?");
         }
 
-        int index = stringToInt(input);
+        int[] indices = parseTaskIndices(input, taskList);
         int numOfTasks = taskList.getNumOfTasks();
-        checkOutOfBounds(index, numOfTasks);
 
-        Task task = taskList.deleteTask(index - 1);
+        List<Task> tasks = taskList.deleteTasks(indices);
         try {
-            storage.deleteTask(index - 1, numOfTasks);
+            storage.deleteTasks(tasks, indices, numOfTasks);
         } catch (IOException e) {
             return ui.printErrorMessage("Error, unable to update task in storage.");
         }
 
-        return ui.printDeleteTask(task.toString(), taskList.getNumOfTasks());
+        String deleted = tasks.size() == 1 ? tasks.get(0).toString() : describeTasks(tasks);
+        return ui.printDeleteTask(deleted, taskList.getNumOfTasks());
     }
 }
@@ -4,8 +4,8 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 
 import anxi.command.AnxiException;
-import anxi.command.Storage;
 import anxi.command.TaskList;
+import anxi.command.TaskStore;
 import anxi.command.Ui;
 import anxi.tasks.Task;
 
@@ -24,12 +24,12 @@ public class EventHandler extends Handler {
      * Adds new event task.
      *
      * @param input         Input command string.
-     * @param storage       Instance of Storage class.
+     * @param storage       Instance of TaskStore.
      * @param taskList      Instance of TaskList class.
      * @param ui            Instance of Ui class.
      * @return String       Indicates if task was successfully completed.
      */
-    public String addEvent(String input, Storage storage, TaskList taskList, Ui ui) {
+    public String addEvent(String input, TaskStore storage, TaskList taskList, Ui ui) {
         try {
             return event(input, storage, taskList, ui);
         } catch (AnxiException de) {
@@ -41,13 +41,13 @@ public class EventHandler extends Handler {
      * Parses and calls relevant methods to add new event and update storage.
      *
      * @param input             Input command string.
-     * @param storage           Instance of Storage class.
+     * @param storage           Instance of TaskStore.
      * @param taskList          Instance of TaskList class.
      * @param ui                Instance of Ui class.
      * @return String           Indicates if task was successfully completed.
      * @throws AnxiException    Thrown if there are missing inputs or inputs are out of bounds.
      */
-    private String event(String input, Storage storage, TaskList taskList, Ui ui) throws AnxiException {
+    private String event(String input, TaskStore storage, TaskList taskList, Ui ui) throws AnxiException {
         if (input.isBlank()) {
             throw new AnxiException("This event is the highlight of the social calendar"
                     + "\nGot all the details?"
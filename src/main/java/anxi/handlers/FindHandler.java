@@ -3,11 +3,13 @@ package anxi.handlers;
 import anxi.command.AnxiException;
 import anxi.command.TaskList;
 import anxi.command.Ui;
+import anxi.index.TrigramIndex;
 
 /**
  * Handles inputs related to find tasks.
  */
 public class FindHandler {
+    private static final int FUZZY_LIMIT = 10;
 
     /**
      * FindHandler constructor.
@@ -52,4 +54,42 @@ public class FindHandler {
         }
         return ui.printFindTask(result);
     }
+
+    /**
+     * Finds the tasks most similar to the input string, allowing for typos.
+     *
+     * @param find          Approximate description to find.
+     * @param taskList      Instance of TaskList class.
+     * @param ui            Instance of Ui class.
+     * @return String   Closest matching tasks, best match first.
+     */
+    public String findSimilarTask(String find, TaskList taskList, Ui ui) {
+        try {
+            return findSimilar(find, taskList, ui);
+        } catch (AnxiException de) {
+            return ui.printErrorMessage(de.getErrorMessage());
+        }
+    }
+
+    /**
+     * Parses and calls relevant methods to rank tasks by similarity to input.
+     *
+     * @param find          Approximate description to find.
+     * @param taskList      Instance of TaskList class.
+     * @param ui            Instance of Ui class.
+     * @return String           Closest matching tasks, best match first.
+     * @throws AnxiException    Thrown if the input is missing or too short to compare.
+     */
+    private String findSimilar(String find, TaskList taskList, Ui ui) throws AnxiException {
+        if (!TrigramIndex.isSearchable(find.strip())) {
+            throw new AnxiException("Give me a bit more to go on, at least 3 letters.");
+        }
+
+        String result = taskList.findSimilarTasks(find.strip(), FUZZY_LIMIT);
+
+        if (result.isBlank()) {
+            return "No tasks even close to your request";
+        }
+        return ui.printSimilarTask(result);
+    }
 }
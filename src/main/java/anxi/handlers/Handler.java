@@ -8,16 +8,20 @@ import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
 
 import anxi.command.AnxiException;
-import anxi.command.Storage;
+import anxi.command.TaskList;
+import anxi.command.TaskStore;
 import anxi.tasks.Task;
 
 /**
  * Handler deals with common operations across the different handler child classes.
  */
 public class Handler {
+    private static final int MAX_TASKS_SHOWN = 10;
+
     /**
      * Handler constructor.
      */
@@ -140,15 +144,82 @@ public class Handler {
         }
     }
 
+    /**
+     * Converts a task number, or a task id after a '#', to the number of the task in the list.
+     * @param input             Task number, or '#' followed by a task id.
+     * @param taskList          Instance of TaskList class.
+     * @return index            Number of the task in the list, starting from 1.
+     * @throws AnxiException    Throws if input is not an integer or no task is found.
+     */
+    public int parseTaskNumber(String input, TaskList taskList) throws AnxiException {
+        String number = input.strip();
+        if (number.startsWith("#")) {
+            int index = taskList.indexOfId(stringToInt(number.substring(1)));
+            if (index < 0) {
+                throw new AnxiException("No task has the id " + number + ".");
+            }
+            return index + 1;
+        }
+
+        int index = stringToInt(number);
+        checkOutOfBounds(index, taskList.getNumOfTasks());
+        return index;
+    }
+
+    /**
+     * Converts task numbers, ranges of them and task ids, separated by commas, to indices in the list.
+     * @param input             Such as "3", "1-500" or "3,7,9-20,#42".
+     * @param taskList          Instance of TaskList class.
+     * @return indices          Indices of the tasks, starting from 0, in ascending order without repeats.
+     * @throws AnxiException    Throws if a number is not an integer, no task is found or a range is backwards.
+     */
+    public int[] parseTaskIndices(String input, TaskList taskList) throws AnxiException {
+        BitSet indices = new BitSet(taskList.getNumOfTasks());
+        for (String item : input.split(",")) {
+            String[] range = item.split("-", 2);
+            if (range.length == 1) {
+                indices.set(parseTaskNumber(item, taskList) - 1);
+                continue;
+            }
+
+            int from = parseTaskNumber(range[0], taskList);
+            int to = parseTaskNumber(range[1], taskList);
+            if (from > to) {
+                throw new AnxiException("Ranges go from the smaller number up, like 3-7.");
+            }
+            indices.set(from - 1, to);
+        }
+        return indices.stream().toArray();
+    }
+
+    /**
+     * Lists tasks one per line, showing only the first few of a long list.
+     * @param tasks             Tasks to show.
+     * @return tasks            String representation of the tasks.
+     */
+    public String describeTasks(List<Task> tasks) {
+        StringBuilder stringBuilder = new StringBuilder();
+        for (int i = 0; i < Math.min(tasks.size(), MAX_TASKS_SHOWN); ++i) {
+            if (i > 0) {
+                stringBuilder.append("\n ");
+            }
+            stringBuilder.append(tasks.get(i));
+        }
+        if (tasks.size() > MAX_TASKS_SHOWN) {
+            stringBuilder.append("\n ...and ").append(tasks.size() - MAX_TASKS_SHOWN).append(" more");
+        }
+        return stringBuilder.toString();
+    }
+
     /**
      * Saves updated task to storage.
-     * @param storage           Instance of storage object.
+     * @param storage           Instance of TaskStore.
      * @param t                 Task object to be saved to file.
-     * @param index             Index of task.
+     * @param index             Index of task, starting from 0.
      * @param numOfTasks        Total number of tasks in task list.
      * @throws AnxiException    Throws if there is an error saving to file.
      */
-    public void updateTaskInStorage(Storage storage, Task t, int index, int numOfTasks) throws AnxiException {
+    public void updateTaskInStorage(TaskStore storage, Task t, int index, int numOfTasks) throws AnxiException {
         try {
             storage.updateTask(t, index, numOfTasks);
         } catch (IOException e) {
@@ -156,13 +227,30 @@ public class Handler {
         }
     }
 
+    /**
+     * Saves several updated tasks to storage at once.
+     * @param storage           Instance of TaskStore.
+     * @param tasks             Updated tasks.
+     * @param indices           Index of each task, starting from 0, in ascending order.
+     * @param numOfTasks        Total number of tasks in task list.
+     * @throws AnxiException    Throws if there is an error saving to file.
+     */
+    public void updateTasksInStorage(TaskStore storage, List<Task> tasks, int[] indices, int numOfTasks)
+            throws AnxiException {
+        try {
+            storage.updateTasks(tasks, indices, numOfTasks);
+        } catch (IOException e) {
+            throw new AnxiException("Error, unable to update task in storage.");
+        }
+    }
+
     /**
      * Adds new task to storage.
-     * @param storage           Instance of storage object.
+     * @param storage           Instance of TaskStore.
      * @param task              Task object to be saved to file.
      * @throws AnxiException    Throws if there is an error saving to file.
      */
-    public void addTaskInStorage(Storage storage, Task task) throws AnxiException {
+    public void addTaskInStorage(TaskStore storage, Task task) throws AnxiException {
         try {
             storage.addNewTask(task);
         } catch (IOException e) {
@@ -0,0 +1,119 @@
+package anxi.handlers;
+
+import java.io.IOException;
+
+import anxi.command.AnxiException;
+import anxi.command.History;
+import anxi.command.TaskChanges;
+import anxi.command.TaskList;
+import anxi.command.TaskStore;
+import anxi.command.Ui;
+
+/**
+ * Handles inputs related to undoing and redoing commands.
+ *
+ * <p>Undoing a command applies the reverse of its changes to the task list and saves them as the
+ * inverse mutations, so storage deletes what the command added, puts back what it deleted and
+ * restores what it updated, without saving the rest of the list again.
+ */
+public class HistoryHandler extends Handler {
+
+    /**
+     * HistoryHandler constructor.
+     */
+    public HistoryHandler() {
+    }
+
+    /**
+     * Undoes the latest command that changed the task list and has not been undone.
+     *
+     * @param history       Instance of History class.
+     * @param storage       Instance of TaskStore.
+     * @param taskList      Instance of TaskList class.
+     * @param ui            Instance of Ui class.
+     * @return String       Tasks changed back.
+     */
+    public String undo(History history, TaskStore storage, TaskList taskList, Ui ui) {
+        try {
+            TaskChanges changes = history.getUndo();
+            if (changes == null) {
+                throw new AnxiException("Nothing to undo.");
+            }
+            TaskChanges reversed = changes.reversed();
+            apply(reversed, history, storage, taskList);
+            history.markUndone();
+            return ui.printUndo(describeChanges(reversed), taskList.getNumOfTasks());
+        } catch (AnxiException de) {
+            return ui.printErrorMessage(de.getErrorMessage());
+        }
+    }
+
+    /**
+     * Redoes the latest command undone.
+     *
+     * @param history       Instance of History class.
+     * @param storage       Instance of TaskStore.
+     * @param taskList      Instance of TaskList class.
+     * @param ui            Instance of Ui class.
+     * @return String       Tasks changed again.
+     */
+    public String redo(History history, TaskStore storage, TaskList taskList, Ui ui) {
+        try {
+            TaskChanges changes = history.getRedo();
+            if (changes == null) {
+                throw new AnxiException("Nothing to redo.");
+            }
+            apply(changes, history, storage, taskList);
+            history.markRedone();
+            return ui.printRedo(describeChanges(changes), taskList.getNumOfTasks());
+        } catch (AnxiException de) {
+            return ui.printErrorMessage(de.getErrorMessage());
+        }
+    }
+
+    /**
+     * Applies changes to the task list and saves them, putting the list back if they cannot be saved.
+     *
+     * @param changes           Changes from the current version of the list.
+     * @param history           Instance of History class.
+     * @param storage           Instance of TaskStore.
+     * @param taskList          Instance of TaskList class.
+     * @throws AnxiException    Thrown if the list has changed since, or the changes cannot be saved.
+     */
+    private void apply(TaskChanges changes, History history, TaskStore storage, TaskList taskList)
+            throws AnxiException {
+        try {
+            taskList.applyChanges(changes);
+        } catch (IllegalStateException e) {
+            history.clear();
+            throw new AnxiException("The list has changed in a way I can't undo, history cleared.");
+        }
+
+        try {
+            storage.saveChanges(changes);
+        } catch (IOException e) {
+            taskList.applyChanges(changes.reversed());
+            throw new AnxiException("Error, unable to save tasks to storage, nothing was changed.");
+        }
+    }
+
+    /**
+     * Lists the tasks removed, put back and changed.
+     *
+     * @param changes       Changes applied.
+     * @return String       Tasks under a heading for each kind of change.
+     */
+    private String describeChanges(TaskChanges changes) {
+        StringBuilder stringBuilder = new StringBuilder();
+        if (!changes.getDeletedTasks().isEmpty()) {
+            stringBuilder.append("Removed:\n ").append(describeTasks(changes.getDeletedTasks())).append("\n");
+        }
+        if (!changes.getAddedTasks().isEmpty()) {
+            stringBuilder.append("Back in the list:\n ").append(describeTasks(changes.getAddedTasks())).append("\n");
+        }
+        if (!changes.getUpdatedTasks().isEmpty()) {
+            stringBuilder.append("Changed:\n ").append(describeTasks(changes.getUpdatedTasks())).append("\n");
+        }
+        return stringBuilder.toString();
+    }
+}
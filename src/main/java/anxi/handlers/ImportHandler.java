@@ -0,0 +1,282 @@
+package anxi.handlers;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import anxi.command.AnxiException;
+import anxi.command.TaskList;
+import anxi.command.TaskStore;
+import anxi.command.Ui;
+import anxi.tasks.Deadline;
+import anxi.tasks.Event;
+import anxi.tasks.Task;
+import anxi.tasks.ToDo;
+
+/**
+ * Handles importing tasks in bulk from a file.
+ *
+ * <p>Files ending in .csv are read as "TYPE,DONE,DESCRIPTION[,DATE_TIME[,END_TIME]]" rows, and any
+ * other file is read in the anxi.txt save file format. The file is streamed line by line and tasks
+ * are added to the task list in batches, then saved to storage with a single write. If they cannot
+ * be saved, they are removed from the task list again.
+ */
+public class ImportHandler extends Handler {
+    private static final int BATCH_SIZE = 10_000;
+    private static final int MAX_REPORTED_ERRORS = 10;
+
+    private final ArrayList<String> errors = new ArrayList<>();
+    private int numOfErrors;
+
+    /**
+     * ImportHandler constructor.
+     */
+    public ImportHandler() {
+    }
+
+    /**
+     * Imports tasks from a file.
+     *
+     * @param input         Input command string.
+     * @param storage       Instance of TaskStore.
+     * @param taskList      Instance of TaskList class.
+     * @param ui            Instance of Ui class.
+     * @return String   Indicates if tasks were successfully imported.
+     */
+    public String importTasks(String input, TaskStore storage, TaskList taskList, Ui ui) {
+        try {
+            return importFile(input, storage, taskList, ui);
+        } catch (AnxiException ae) {
+            return ui.printErrorMessage(ae.getErrorMessage());
+        }
+    }
+
+    /**
+     * Finds the file to import and imports it, holding the version of the task list from before the import.
+     *
+     * @param input         Input command string.
+     * @param storage       Instance of TaskStore.
+     * @param taskList      Instance of TaskList class.
+     * @param ui            Instance of Ui class.
+     * @return String           Summary of the import.
+     * @throws AnxiException    Thrown if the file cannot be found or the tasks cannot be saved.
+     */
+    private String importFile(String input, TaskStore storage, TaskList taskList, Ui ui) throws AnxiException {
+        if (input.isBlank()) {
+            throw new AnxiException("Import from where?\n\nFormat: import <path>");
+        }
+
+        File file = new File(input.strip());
+        if (!file.isFile()) {
+            throw new AnxiException("Can't find " + file.getPath() + ", nothing imported.");
+        }
+
+        TaskList.Version before = taskList.getVersion();
+        try {
+            return addFromFile(file, storage, taskList, ui, before);
+        } finally {
+            taskList.releaseVersion(before);
+        }
+    }
+
+    /**
+     * Streams the file into the task list in batches and saves the imported tasks with a single write.
+     * If they cannot be saved, the task list is rolled back to the version before the import, so the
+     * changes recorded for undo still start from the current list.
+     *
+     * @param file          File to import.
+     * @param storage       Instance of TaskStore.
+     * @param taskList      Instance of TaskList class.
+     * @param ui            Instance of Ui class.
+     * @param before        Version of the task list before the import.
+     * @return String           Summary of the import.
+     * @throws AnxiException    Thrown if the tasks cannot be saved.
+     */
+    private String addFromFile(File file, TaskStore storage, TaskList taskList, Ui ui, TaskList.Version before)
+            throws AnxiException {
+        boolean isCsv = file.getName().toLowerCase().endsWith(".csv");
+        int start = taskList.getNumOfTasks();
+        String readError = null;
+        ArrayList<Task> batch = new ArrayList<>();
+
+        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = br.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || (isCsv && lineNumber == 1 && isCsvHeader(line))) {
+                    continue;
+                }
+
+                try {
+                    batch.add(isCsv ? parseCsvLine(line) : parseSaveFileLine(line));
+                } catch (AnxiException ae) {
+                    addError(lineNumber, ae.getErrorMessage());
+                }
+
+                if (batch.size() == BATCH_SIZE) {
+                    taskList.addTasks(batch);
+                    batch.clear();
+                }
+            }
+        } catch (IOException e) {
+            readError = "Stopped reading " + file.getPath() + " early, keeping tasks read so far.";
+        }
+        taskList.addTasks(batch);
+
+        int end = taskList.getNumOfTasks();
+        try {
+            storage.addNewTasks(taskList.getTasks(start, end));
+        } catch (IOException e) {
+            taskList.applyChanges(taskList.changesSince(before).reversed());
+            throw new AnxiException("Error, unable to save imported tasks to storage, nothing was imported.");
+        }
+
+        if (readError != null) {
+            errors.add(0, readError);
+        }
+        return ui.printImportSummary(end - start, numOfErrors, errors, end);
+    }
+
+    /**
+     * Converts a line in the anxi.txt save file format into a task.
+     * A leading id field is skipped, as the imported task is given a new id when it is added.
+     *
+     * @param line              Line in the save file format, with or without the id field.
+     * @return task             Task represented by the line.
+     * @throws AnxiException    Thrown if the line is missing fields or has invalid dates.
+     */
+    private Task parseSaveFileLine(String line) throws AnxiException {
+        String[] fields = line.split("\\|");
+        for (int i = 0; i < fields.length; ++i) {
+            fields[i] = fields[i].strip();
+        }
+        if (fields[0].matches("\\d+")) {
+            fields = Arrays.copyOfRange(fields, 1, fields.length);
+        }
+        return toTask(fields);
+    }
+
+    /**
+     * Converts a CSV row into a task.
+     *
+     * @param line              Row of "TYPE,DONE,DESCRIPTION[,DATE_TIME[,END_TIME]]".
+     * @return task             Task represented by the row.
+     * @throws AnxiException    Thrown if the row is missing fields or has invalid dates.
+     */
+    private Task parseCsvLine(String line) throws AnxiException {
+        return toTask(splitCsv(line).toArray(new String[0]));
+    }
+
+    /**
+     * Creates a task from its fields, validating dates and times.
+     *
+     * @param fields            Type, done flag, description and any dates, already stripped.
+     * @return task             New task.
+     * @throws AnxiException    Thrown if fields are missing or invalid.
+     */
+    private Task toTask(String[] fields) throws AnxiException {
+        if (fields.length < 3 || fields[2].isEmpty()) {
+            throw new AnxiException("Missing type, done flag or description.");
+        }
+
+        boolean isDone = parseDone(fields[1]);
+        String type = fields[0].toLowerCase();
+        Task task;
+        if (type.equals("t") || type.equals("todo")) {
+            task = new ToDo(fields[2]);
+
+        } else if (type.equals("d") || type.equals("deadline")) {
+            if (fields.length < 4) {
+                throw new AnxiException("Deadline is missing its due date.");
+            }
+            task = new Deadline(fields[2], parseDateTime(fields[3]));
+
+        } else if (type.equals("e") || type.equals("event")) {
+            if (fields.length < 5) {
+                throw new AnxiException("Event is missing its start or end time.");
+            }
+            LocalDateTime from = parseDateTime(fields[3]);
+            LocalTime to = parseTime(fields[4]);
+            if (from.toLocalTime().isAfter(to)) {
+                throw new AnxiException("Invalid start and end time.");
+            }
+            task = new Event(fields[2], from, to);
+
+        } else {
+            throw new AnxiException("Unknown task type " + fields[0] + ".");
+        }
+
+        task.updateIsDone(isDone);
+        return task;
+    }
+
+    private static boolean parseDone(String done) throws AnxiException {
+        switch (done.toLowerCase()) {
+        case "1":
+        case "true":
+        case "x":
+            return true;
+
+        case "0":
+        case "false":
+        case "":
+            return false;
+
+        default:
+            throw new AnxiException("Done flag should be 0 or 1.");
+        }
+    }
+
+    private static boolean isCsvHeader(String line) {
+        return line.strip().toLowerCase().startsWith("type");
+    }
+
+    /**
+     * Splits a CSV row into stripped fields, allowing quoted fields with "" as an escaped quote.
+     */
+    private static List<String> splitCsv(String line) throws AnxiException {
+        ArrayList<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean isQuoted = false;
+        for (int i = 0; i < line.length(); ++i) {
+            char c = line.charAt(i);
+            if (isQuoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    isQuoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                isQuoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString().strip());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+
+        if (isQuoted) {
+            throw new AnxiException("Unclosed quote.");
+        }
+        fields.add(field.toString().strip());
+        return fields;
+    }
+
+    private void addError(int lineNumber, String message) {
+        numOfErrors++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add("Line " + lineNumber + ": " + message.split("\n")[0]);
+        }
+    }
+}
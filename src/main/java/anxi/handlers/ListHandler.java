@@ -0,0 +1,93 @@
+package anxi.handlers;
+
+import java.util.stream.Stream;
+
+import anxi.command.AnxiException;
+import anxi.command.TaskList;
+import anxi.command.Ui;
+
+/**
+ * Handles inputs related to listing tasks.
+ */
+public class ListHandler extends Handler {
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 1000;
+    public static final int STREAM_CHUNK_SIZE = 500;
+
+    /**
+     * ListHandler constructor.
+     */
+    public ListHandler() {
+    }
+
+    /**
+     * Lists one page of tasks, or all of them if they fit on one page or "all" is given.
+     *
+     * @param input         Page number and page size, both optional, or "all".
+     * @param taskList      Instance of TaskList class.
+     * @param ui            Instance of Ui class.
+     * @return String       Tasks on the page.
+     */
+    public String listTasks(String input, TaskList taskList, Ui ui) {
+        try {
+            return list(input, taskList, ui);
+        } catch (AnxiException de) {
+            return ui.printErrorMessage(de.getErrorMessage());
+        }
+    }
+
+    /**
+     * Lists all tasks in chunks, each printed only when the display reaches it.
+     *
+     * @param taskList      Instance of TaskList class.
+     * @param ui            Instance of Ui class.
+     * @return chunks       Heading and chunks of tasks, in list order.
+     */
+    public Stream<String> streamTasks(TaskList taskList, Ui ui) {
+        if (taskList.getNumOfTasks() == 0) {
+            return Stream.of(ui.printTaskList(""));
+        }
+        return ui.streamTaskList(taskList.streamTaskList(STREAM_CHUNK_SIZE));
+    }
+
+    /**
+     * Parses page number and size and prints that page of the task list.
+     *
+     * @param input             Page number and page size, both optional, or "all".
+     * @param taskList          Instance of TaskList class.
+     * @param ui                Instance of Ui class.
+     * @return String           Tasks on the page.
+     * @throws AnxiException    Thrown if the page number or size is not valid.
+     */
+    private String list(String input, TaskList taskList, Ui ui) throws AnxiException {
+        String[] args = input.strip().split("\\s+");
+        int numOfTasks = taskList.getNumOfTasks();
+        if (args[0].equalsIgnoreCase("all")) {
+            return ui.printTaskList(taskList.printTaskList());
+        } else if (args.length > 2) {
+            throw new AnxiException("One page at a time please.\n\nFormat: list [page] [size]");
+        }
+
+        boolean hasPage = !args[0].isEmpty();
+        int page = hasPage ? stringToInt(args[0]) : 1;
+        int size = args.length == 2 ? stringToInt(args[1]) : DEFAULT_PAGE_SIZE;
+        if (page < 1) {
+            throw new AnxiException("Pages start from 1.");
+        } else if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new AnxiException("Pages hold from 1 to " + MAX_PAGE_SIZE + " tasks.");
+        }
+
+        if (!hasPage && numOfTasks <= size) {
+            return ui.printTaskList(taskList.printTaskList());
+        } else if (numOfTasks == 0) {
+            return ui.printTaskList("");
+        }
+
+        int numOfPages = (numOfTasks - 1) / size + 1;
+        if (page > numOfPages) {
+            throw new AnxiException("Only " + numOfPages + " page(s) of tasks.");
+        }
+        int from = (page - 1) * size;
+        return ui.printTaskPage(taskList.printTasks(from, from + size), page, numOfPages);
+    }
+}
@@ -1,8 +1,8 @@
 package anxi.handlers;
 
 import anxi.command.AnxiException;
-import anxi.command.Storage;
 import anxi.command.TaskList;
+import anxi.command.TaskStore;
 import anxi.command.Ui;
 import anxi.tasks.Task;
 
@@ -21,12 +21,12 @@ public class ToDoHandler extends Handler {
      * Adds new todo task.
      *
      * @param input         Input command string.
-     * @param storage       Instance of Storage class.
+     * @param storage       Instance of TaskStore.
      * @param taskList      Instance of TaskList class.
      * @param ui            Instance of Ui class.
      * @return String   Indicates if task was successfully completed.
      */
-    public String addToDo(String input, Storage storage, TaskList taskList, Ui ui) {
+    public String addToDo(String input, TaskStore storage, TaskList taskList, Ui ui) {
         try {
             return toDo(input, storage, taskList, ui);
         } catch (AnxiException de) {
@@ -38,13 +38,13 @@ public class ToDoHandler extends Handler {
      * Parses and calls relevant methods to add new todo and update storage.
      *
      * @param input         Input command string.
-     * @param storage       Instance of Storage class.
+     * @param storage       Instance of TaskStore.
      * @param taskList      Instance of TaskList class.
      * @param ui            Instance of Ui class.
      * @return String           Indicates if task was successfully completed.
      * @throws AnxiException    Thrown if there are missing inputs or inputs are out of bounds.
      */
-    private String toDo(String input, Storage storage, TaskList taskList, Ui ui) throws AnxiException {
+    private String toDo(String input, TaskStore storage, TaskList taskList, Ui ui) throws AnxiException {
         if (input.isBlank()) {
             throw new AnxiException("Need to check my eyesight, nothing to do.");
         }
@@ -1,8 +1,10 @@
 package anxi.handlers;
 
+import java.util.List;
+
 import anxi.command.AnxiException;
-import anxi.command.Storage;
 import anxi.command.TaskList;
+import anxi.command.TaskStore;
 import anxi.command.Ui;
 import anxi.tasks.Task;
 
@@ -21,12 +23,12 @@ public class UnmarkHandler extends Handler {
      * Un-marks specific task index.
      *
      * @param input         Input command string.
-     * @param storage       Instance of Storage class.
+     * @param storage       Instance of TaskStore.
      * @param taskList      Instance of TaskList class.
      * @param ui            Instance of Ui class.
      * @return String   Indicates if task was successfully completed.
      */
-    public String unmarkTask(String input, Storage storage, TaskList taskList, Ui ui) {
+    public String unmarkTask(String input, TaskStore storage, TaskList taskList, Ui ui) {
         try {
             return unmark(input, storage, taskList, ui);
         } catch (AnxiException de) {
@@ -38,23 +40,28 @@ public class UnmarkHandler extends Handler {
      * Parses and calls relevant methods to unmark task and update storage.
      *
      * @param input             Input command string.
-     * @param storage           Instance of Storage class.
+     * @param storage           Instance of TaskStore.
      * @param taskList          Instance of TaskList class.
      * @param ui                Instance of Ui class.
      * @return String           Indicates if task was successfully completed.
      * @throws AnxiException    Thrown if there are missing inputs or inputs are out of bounds.
      */
-    private String unmark(String input, Storage storage, TaskList taskList, Ui ui) throws AnxiException {
+    private String unmark(String input, TaskStore storage, TaskList taskList, Ui ui) throws AnxiException {
         if (input.isBlank()) {
             throw new AnxiException("Missing index, what to unmark?");
         }
 
-        int index = stringToInt(input);
+        int[] indices = parseTaskIndices(input, taskList);
         int numOfTasks = taskList.getNumOfTasks();
-        checkOutOfBounds(index, numOfTasks);
 
-        Task t = taskList.unmarkTask(index - 1);
-        updateTaskInStorage(storage, t, index, numOfTasks);
+        if (indices.length > 1) {
+            List<Task> tasks = taskList.unmarkTasks(indices);
+            updateTasksInStorage(storage, tasks, indices, numOfTasks);
+            return ui.printUnmarkTask(describeTasks(tasks));
+        }
+
+        Task t = taskList.unmarkTask(indices[0]);
+        updateTaskInStorage(storage, t, indices[0], numOfTasks);
 
         return ui.printUnmarkTask(t.toString());
     }
@@ -1,16 +1,21 @@
 package anxi.handlers;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
+import java.util.stream.Stream;
 
 import anxi.command.AnxiException;
 import anxi.command.TaskList;
 import anxi.command.Ui;
 
 /**
- * Handles commands related to viewing of tasks on specific date.
+ * Handles commands related to viewing of tasks on specific dates.
  */
 public class ViewHandler extends Handler {
+    private static final int DEFAULT_UPCOMING = 5;
+
     /**
      * ViewHandler constructor.
      */
@@ -26,6 +31,9 @@ public class ViewHandler extends Handler {
      */
     public String viewSchedule(String date, TaskList taskList, Ui ui) {
         try {
+            if (date.contains(" to ")) {
+                return viewBetween(date, taskList, ui);
+            }
             return viewOnDate(date, taskList, ui);
         } catch (AnxiException de) {
             return ui.printErrorMessage(de.getErrorMessage());
@@ -57,4 +65,101 @@ public class ViewHandler extends Handler {
         return ui.printTasksOnDay(find.format(DateTimeFormatter.ofPattern("MMM dd yyyy")),
                 events, deadlines);
     }
+
+    /**
+     * Finds and returns a string of tasks in the next few days, starting today.
+     * @param days          String input of number of days, followed by "days".
+     * @param taskList      Instance of TaskList
+     * @param ui            Instance of Ui
+     * @return tasks        String of all tasks in the coming days, in chronological order.
+     */
+    public String viewAgenda(String days, TaskList taskList, Ui ui) {
+        try {
+            return agenda(days, taskList, ui);
+        } catch (AnxiException de) {
+            return ui.printErrorMessage(de.getErrorMessage());
+        }
+    }
+
+    /**
+     * Finds and returns a string of the next pending events and deadlines.
+     * @param count         String input of number of tasks to show, optional.
+     * @param taskList      Instance of TaskList
+     * @param ui            Instance of Ui
+     * @return tasks        String of the next tasks, soonest first.
+     */
+    public String viewUpcoming(String count, TaskList taskList, Ui ui) {
+        try {
+            return upcoming(count, taskList, ui);
+        } catch (AnxiException de) {
+            return ui.printErrorMessage(de.getErrorMessage());
+        }
+    }
+
+    /**
+     * Parses and calls relevant methods to find tasks between two dates.
+     * @param range         String input of two dates separated by "to".
+     * @param taskList      Instance of TaskList
+     * @param ui            Instance of Ui
+     * @return tasks        String of all tasks between the dates, in chronological order.
+     * @throws AnxiException    Thrown if there is an invalid date or the dates are in the wrong order.
+     */
+    private String viewBetween(String range, TaskList taskList, Ui ui) throws AnxiException {
+        String[] dates = range.split(" to ", 2);
+        LocalDate from = parseDate(dates[0]);
+        LocalDate to = parseDate(dates[1]);
+        if (from.isAfter(to)) {
+            throw new AnxiException("Time travel is not supported, the first date has to come first.");
+        }
+
+        return printBetween(from, to, taskList, ui);
+    }
+
+    /**
+     * Parses and calls relevant methods to find tasks in the next few days.
+     * @param days          String input of number of days, followed by "days".
+     * @param taskList      Instance of TaskList
+     * @param ui            Instance of Ui
+     * @return tasks        String of all tasks in the coming days, in chronological order.
+     * @throws AnxiException    Thrown if the number of days is missing or not positive.
+     */
+    private String agenda(String days, TaskList taskList, Ui ui) throws AnxiException {
+        String[] input = days.strip().split("\\s+");
+        boolean isValid = !input[0].isEmpty()
+                && (input.length == 1 || (input.length == 2 && input[1].toLowerCase().matches("days?")));
+        if (!isValid) {
+            throw new AnxiException("How far ahead?\n\nFormat: agenda <n> days");
+        }
+
+        int numOfDays = stringToInt(input[0]);
+        if (numOfDays < 1) {
+            throw new AnxiException("Can't plan for less than a day.");
+        }
+
+        LocalDate today = LocalDate.now();
+        return printBetween(today, today.plusDays(numOfDays - 1), taskList, ui);
+    }
+
+    /**
+     * Parses and calls relevant methods to find the next pending events and deadlines.
+     * @param count         String input of number of tasks to show, optional.
+     * @param taskList      Instance of TaskList
+     * @param ui            Instance of Ui
+     * @return tasks        String of the next tasks, soonest first.
+     * @throws AnxiException    Thrown if the number of tasks is not a positive integer.
+     */
+    private String upcoming(String count, TaskList taskList, Ui ui) throws AnxiException {
+        int limit = count.isBlank() ? DEFAULT_UPCOMING : stringToInt(count);
+        if (limit < 1) {
+            throw new AnxiException("At least one task has to be coming up.");
+        }
+
+        return ui.printUpcoming(taskList.findUpcoming(LocalDateTime.now(), limit));
+    }
+
+    private String printBetween(LocalDate from, LocalDate to, TaskList taskList, Ui ui) {
+        Stream<String> tasks = taskList.findAllBetween(from.atStartOfDay(), to.atTime(LocalTime.MAX));
+        return ui.printTasksBetween(from.format(DateTimeFormatter.ofPattern("MMM dd yyyy")),
+                to.format(DateTimeFormatter.ofPattern("MMM dd yyyy")), tasks);
+    }
 }
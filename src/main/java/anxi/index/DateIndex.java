@@ -0,0 +1,55 @@
+package anxi.index;
+
+import java.time.LocalDate;
+import java.util.TreeMap;
+
+/**
+ * Sorted index from dates to the keys of tasks on that date.
+ *
+ * <p>Keys in each bucket are kept in ascending order, which is list order, so a lookup is a tree
+ * search for the bucket followed by a walk over the k tasks on that date.
+ */
+public class DateIndex {
+    private static final IntList EMPTY = new IntList();
+
+    private final TreeMap<LocalDate, IntList> buckets = new TreeMap<>();
+
+    /**
+     * Indexes a task.
+     *
+     * @param date      Date of the task.
+     * @param key       Key of the task in the task list.
+     */
+    public void add(LocalDate date, int key) {
+        IntList bucket = buckets.computeIfAbsent(date, d -> new IntList());
+        int insertAt = bucket.gallop(0, key);
+        if (insertAt == bucket.size()) {
+            bucket.add(key);
+        } else if (bucket.get(insertAt) != key) {
+            bucket.insert(insertAt, key);
+        }
+    }
+
+    /**
+     * Removes a task from the index.
+     *
+     * @param date      Date of the task.
+     * @param key       Key of the task in the task list.
+     */
+    public void remove(LocalDate date, int key) {
+        IntList bucket = buckets.get(date);
+        if (bucket != null && bucket.removeSorted(key) && bucket.isEmpty()) {
+            buckets.remove(date);
+        }
+    }
+
+    /**
+     * Retrieves the keys of all tasks on a date.
+     *
+     * @param date      Date to look up.
+     * @return keys     Keys of tasks on the date in ascending order, which must not be modified.
+     */
+    public IntList get(LocalDate date) {
+        return buckets.getOrDefault(date, EMPTY);
+    }
+}
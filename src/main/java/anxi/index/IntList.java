@@ -0,0 +1,146 @@
+package anxi.index;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of primitive ints, used for sorted id lists without boxing every element.
+ */
+public class IntList {
+    // Read directly by the indices in this package in their innermost loops.
+    int[] values;
+    private int size;
+
+    /**
+     * IntList constructor.
+     */
+    public IntList() {
+        this(4);
+    }
+
+    /**
+     * IntList constructor.
+     *
+     * @param capacity  Number of values to allocate space for.
+     */
+    public IntList(int capacity) {
+        values = new int[Math.max(capacity, 1)];
+    }
+
+    /**
+     * Adds a value to the end of the list.
+     *
+     * @param value     Value to add.
+     */
+    public void add(int value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = value;
+    }
+
+    /**
+     * Inserts a value at an index, moving later values up by one.
+     *
+     * @param index     Index to insert at.
+     * @param value     Value to insert.
+     */
+    public void insert(int index, int value) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        System.arraycopy(values, index, values, index + 1, size - index);
+        values[index] = value;
+        size++;
+    }
+
+    /**
+     * Retrieves the value at an index.
+     *
+     * @param index     Index of value.
+     * @return value    Value at the index.
+     */
+    public int get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return values[index];
+    }
+
+    /**
+     * Removes the value at an index.
+     *
+     * @param index     Index of value.
+     * @return value    Removed value.
+     */
+    public int removeAt(int index) {
+        int value = get(index);
+        System.arraycopy(values, index + 1, values, index, size - index - 1);
+        size--;
+        return value;
+    }
+
+    /**
+     * Removes a value from a list sorted in ascending order.
+     *
+     * @param value     Value to remove.
+     * @return isFound  True if the value was in the list.
+     */
+    public boolean removeSorted(int value) {
+        int index = binarySearch(value);
+        if (index < 0) {
+            return false;
+        }
+        removeAt(index);
+        return true;
+    }
+
+    /**
+     * Searches a list sorted in ascending order.
+     *
+     * @param value     Value to search for.
+     * @return index    Index of the value, or (-(insertion point) - 1) if it is not in the list.
+     */
+    public int binarySearch(int value) {
+        return Arrays.binarySearch(values, 0, size, value);
+    }
+
+    /**
+     * Searches a list sorted in ascending order, starting from an index known to be at or before the value.
+     * Takes O(log d) steps where d is the distance to the value, so ascending lookups can reuse the result.
+     *
+     * @param fromIndex Index to start searching from.
+     * @param value     Value to search for.
+     * @return index    Index of the first value not less than the value searched for, or size if none.
+     */
+    public int gallop(int fromIndex, int value) {
+        int low = fromIndex;
+        int high = fromIndex;
+        int step = 1;
+        while (high < size && values[high] < value) {
+            low = high + 1;
+            high += step;
+            step *= 2;
+        }
+        high = Math.min(high, size);
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+}
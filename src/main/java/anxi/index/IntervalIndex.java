@@ -0,0 +1,102 @@
+package anxi.index;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Stream;
+
+/**
+ * Index of time intervals ordered by start, answering which intervals overlap a time range.
+ *
+ * <p>Alongside the sorted starts, the index tracks the longest interval it has held. An interval
+ * overlapping a range must start no earlier than the longest span before the range, so a query
+ * walks only the starts from there to the end of the range. Event spans are within a day, which
+ * keeps the extra starts walked to those of the day before the range.
+ *
+ * <p>Intervals are kept in a concurrent skip list, so a query can be read while one thread adds or
+ * removes intervals. Changes made during a query may or may not be seen by it.
+ */
+public class IntervalIndex {
+    private final ConcurrentSkipListSet<Interval> intervals = new ConcurrentSkipListSet<>(
+            Comparator.comparing(Interval::getStart).thenComparingInt(Interval::getId));
+    private volatile Duration maxSpan = Duration.ZERO;
+
+    /**
+     * Indexes an interval.
+     *
+     * @param start     Start of the interval.
+     * @param end       End of the interval, not before the start.
+     * @param id        Id of the interval.
+     */
+    public void add(LocalDateTime start, LocalDateTime end, int id) {
+        assert !end.isBefore(start);
+        intervals.add(new Interval(start, end, id));
+        Duration span = Duration.between(start, end);
+        if (span.compareTo(maxSpan) > 0) {
+            maxSpan = span;
+        }
+    }
+
+    /**
+     * Removes an interval.
+     *
+     * @param start     Start of the interval.
+     * @param id        Id of the interval.
+     */
+    public void remove(LocalDateTime start, int id) {
+        intervals.remove(new Interval(start, start, id));
+    }
+
+    /**
+     * Streams the intervals overlapping a range, in order of their start.
+     *
+     * @param from          Start of the range, inclusive.
+     * @param to            End of the range, inclusive.
+     * @return intervals    Overlapping intervals, earliest start first.
+     */
+    public Stream<Interval> overlapping(LocalDateTime from, LocalDateTime to) {
+        Interval low = new Interval(from.minus(maxSpan), from, Integer.MIN_VALUE);
+        Interval high = new Interval(to, to, Integer.MAX_VALUE);
+        return intervals.subSet(low, true, high, true).stream()
+                .filter(interval -> !interval.getEnd().isBefore(from));
+    }
+
+    /**
+     * Streams the intervals starting at or after a time, in order of their start.
+     * Finding the first takes O(log n), and each one after it O(1).
+     *
+     * @param from          Earliest start, inclusive.
+     * @return intervals    Intervals starting from then, earliest start first.
+     */
+    public Stream<Interval> startingFrom(LocalDateTime from) {
+        return intervals.tailSet(new Interval(from, from, Integer.MIN_VALUE), true).stream();
+    }
+
+    /**
+     * Span of time with the id of what it belongs to.
+     */
+    public static class Interval {
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private final int id;
+
+        Interval(LocalDateTime start, LocalDateTime end, int id) {
+            this.start = start;
+            this.end = end;
+            this.id = id;
+        }
+
+        public LocalDateTime getStart() {
+            return start;
+        }
+
+        public LocalDateTime getEnd() {
+            return end;
+        }
+
+        public int getId() {
+            return id;
+        }
+    }
+}
@@ -0,0 +1,464 @@
+package anxi.index;
+
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.function.Consumer;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Persistent balanced tree of elements in list order, each with an int key ascending in that order.
+ *
+ * <p>Every node records the size of its subtree, so an element can be found by its position or by
+ * its key in O(log n). Trees are immutable: changes return a new tree that shares all but the
+ * O(log n) nodes on the changed path with the old one, so old versions stay valid and cheap to keep.
+ *
+ * <p>A tree built from a list reads each element from that list on first access, so a list that
+ * decodes elements lazily is not decoded up front. The list must not change afterwards.
+ *
+ * @param <E> Type of element.
+ */
+public final class OrderStatisticTree<E> implements Iterable<E> {
+    private static final OrderStatisticTree<?> EMPTY = new OrderStatisticTree<>(null, List.of());
+
+    private final Node<E> root;
+    private final List<? extends E> source;
+
+    private OrderStatisticTree(Node<E> root, List<? extends E> source) {
+        this.root = root;
+        this.source = source;
+    }
+
+    /**
+     * Retrieves the empty tree.
+     *
+     * @param <E>       Type of element.
+     * @return tree     Tree with no elements.
+     */
+    @SuppressWarnings("unchecked")
+    public static <E> OrderStatisticTree<E> empty() {
+        return (OrderStatisticTree<E>) EMPTY;
+    }
+
+    /**
+     * Builds a balanced tree of the elements of a list in O(n), keyed by their position in the list.
+     *
+     * @param source    List of elements, which must not change afterwards.
+     * @param <E>       Type of element.
+     * @return tree     Tree of the elements with keys 0 to n - 1.
+     */
+    public static <E> OrderStatisticTree<E> of(List<? extends E> source) {
+        int[] keys = new int[source.size()];
+        for (int i = 0; i < keys.length; ++i) {
+            keys[i] = i;
+        }
+        return of(source, keys);
+    }
+
+    /**
+     * Builds a balanced tree of the elements of a list in O(n).
+     *
+     * @param source    List of elements, which must not change afterwards.
+     * @param keys      Key of each element, in ascending order.
+     * @param <E>       Type of element.
+     * @return tree     Tree of the elements.
+     */
+    public static <E> OrderStatisticTree<E> of(List<? extends E> source, int[] keys) {
+        assert keys.length == source.size();
+        return new OrderStatisticTree<>(build(keys, 0, keys.length), source);
+    }
+
+    public int size() {
+        return size(root);
+    }
+
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    /**
+     * Retrieves the element at a position.
+     *
+     * @param index     Position of the element, starting from 0.
+     * @return element  Element at the position.
+     */
+    public E get(int index) {
+        return valueOf(nodeAt(index));
+    }
+
+    /**
+     * Retrieves the key of the element at a position.
+     *
+     * @param index     Position of the element, starting from 0.
+     * @return key      Key of the element.
+     */
+    public int keyAt(int index) {
+        return nodeAt(index).key;
+    }
+
+    /**
+     * Finds the position of the element with a key.
+     *
+     * @param key       Key of the element.
+     * @return index    Position of the element starting from 0, or -1 if no element has the key.
+     */
+    public int indexOfKey(int key) {
+        Node<E> node = root;
+        int index = 0;
+        while (node != null) {
+            if (key < node.key) {
+                node = node.left;
+            } else if (key > node.key) {
+                index += size(node.left) + 1;
+                node = node.right;
+            } else {
+                return index + size(node.left);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Retrieves the greatest key in the tree.
+     *
+     * @return key      Key of the last element, or -1 if the tree is empty.
+     */
+    public int lastKey() {
+        return root == null ? -1 : nodeAt(root.size - 1).key;
+    }
+
+    /**
+     * Adds an element, or replaces the element with the same key.
+     * Since keys ascend in list order, the element is placed after all elements with smaller keys.
+     *
+     * @param key       Key of the element.
+     * @param value     Element to add.
+     * @return tree     New tree with the element.
+     */
+    public OrderStatisticTree<E> put(int key, E value) {
+        return new OrderStatisticTree<>(put(root, key, value), source);
+    }
+
+    /**
+     * Replaces the element at a position, keeping its key.
+     *
+     * @param index     Position of the element, starting from 0.
+     * @param value     New element.
+     * @return tree     New tree with the element replaced.
+     */
+    public OrderStatisticTree<E> set(int index, E value) {
+        checkIndex(index);
+        return new OrderStatisticTree<>(set(root, index, value), source);
+    }
+
+    /**
+     * Removes the element at a position.
+     *
+     * @param index     Position of the element, starting from 0.
+     * @return tree     New tree without the element.
+     */
+    public OrderStatisticTree<E> removeAt(int index) {
+        checkIndex(index);
+        return new OrderStatisticTree<>(removeAt(root, index), source);
+    }
+
+    /**
+     * Iterates over the elements in list order.
+     *
+     * @return iterator     Iterator from the first element.
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return iterator(0);
+    }
+
+    /**
+     * Iterates over the elements in list order from a position, in O(log n) plus O(1) per element.
+     *
+     * @param fromIndex     Position of the first element to return.
+     * @return iterator     Iterator from the position.
+     */
+    public Iterator<E> iterator(int fromIndex) {
+        Iterator<Node<E>> nodes = nodeIterator(fromIndex);
+        return new Iterator<E>() {
+            @Override
+            public boolean hasNext() {
+                return nodes.hasNext();
+            }
+
+            @Override
+            public E next() {
+                return valueOf(nodes.next());
+            }
+        };
+    }
+
+    private Iterator<Node<E>> nodeIterator(int fromIndex) {
+        ArrayDeque<Node<E>> path = new ArrayDeque<>();
+        Node<E> node = root;
+        int index = fromIndex;
+        while (node != null) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                path.push(node);
+                node = node.left;
+            } else if (index > leftSize) {
+                index -= leftSize + 1;
+                node = node.right;
+            } else {
+                path.push(node);
+                break;
+            }
+        }
+
+        return new Iterator<Node<E>>() {
+            @Override
+            public boolean hasNext() {
+                return !path.isEmpty();
+            }
+
+            @Override
+            public Node<E> next() {
+                if (path.isEmpty()) {
+                    throw new NoSuchElementException();
+                }
+                Node<E> next = path.pop();
+                for (Node<E> n = next.right; n != null; n = n.left) {
+                    path.push(n);
+                }
+                return next;
+            }
+        };
+    }
+
+    /**
+     * Performs an action on every element with its key, in list order.
+     *
+     * @param action    Action taking an element and its key.
+     */
+    public void forEachWithKey(ObjIntConsumer<? super E> action) {
+        forEachNode(node -> action.accept(valueOf(node), node.key));
+    }
+
+    /**
+     * Performs an action on every element in list order, without reading elements from the source list.
+     *
+     * @param action    Action taking the element and -1, or null and the position of an element not yet
+     *                  read in the source list.
+     */
+    public void forEachEntry(ObjIntConsumer<? super E> action) {
+        forEachNode(node -> action.accept(node.value, node.value == null ? node.sourceIndex : -1));
+    }
+
+    /**
+     * Performs an action on the elements in a range of positions, in list order, without reading
+     * elements from the source list. Takes O(log n) plus O(1) per element in the range.
+     *
+     * @param fromIndex     Position of the first element, inclusive.
+     * @param toIndex       Position after the last element, exclusive.
+     * @param action        Action taking the element and -1, or null and the position of an element not yet
+     *                      read in the source list.
+     */
+    public void forEachEntry(int fromIndex, int toIndex, ObjIntConsumer<? super E> action) {
+        Iterator<Node<E>> nodes = nodeIterator(fromIndex);
+        for (int i = fromIndex; i < toIndex && nodes.hasNext(); ++i) {
+            Node<E> node = nodes.next();
+            action.accept(node.value, node.value == null ? node.sourceIndex : -1);
+        }
+    }
+
+    /**
+     * Retrieves the position in the source list of the element at a position, if it is read from there.
+     *
+     * @param index     Position of the element, starting from 0.
+     * @return index    Position of the element in the source list, -1 if the element is held by the tree.
+     */
+    public int sourceIndexAt(int index) {
+        Node<E> node = nodeAt(index);
+        return node.value == null ? node.sourceIndex : -1;
+    }
+
+    /**
+     * Retrieves a read-only list view of the tree, where each access takes O(log n).
+     *
+     * @return list     List of the elements.
+     */
+    public List<E> asList() {
+        return new ListView();
+    }
+
+    private void forEachNode(Consumer<Node<E>> action) {
+        ArrayDeque<Node<E>> path = new ArrayDeque<>();
+        Node<E> node = root;
+        while (node != null || !path.isEmpty()) {
+            for (; node != null; node = node.left) {
+                path.push(node);
+            }
+            node = path.pop();
+            action.accept(node);
+            node = node.right;
+        }
+    }
+
+    private E valueOf(Node<E> node) {
+        return node.value != null || node.sourceIndex < 0 ? node.value : source.get(node.sourceIndex);
+    }
+
+    private Node<E> nodeAt(int index) {
+        checkIndex(index);
+        Node<E> node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index > leftSize) {
+                index -= leftSize + 1;
+                node = node.right;
+            } else {
+                return node;
+            }
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+    }
+
+    private static <E> Node<E> build(int[] keys, int from, int to) {
+        if (from >= to) {
+            return null;
+        }
+        int mid = (from + to) >>> 1;
+        return new Node<>(keys[mid], mid, null, build(keys, from, mid), build(keys, mid + 1, to));
+    }
+
+    private static <E> Node<E> put(Node<E> node, int key, E value) {
+        if (node == null) {
+            return new Node<>(key, -1, value, null, null);
+        }
+        if (key < node.key) {
+            return balance(node.withChildren(put(node.left, key, value), node.right));
+        } else if (key > node.key) {
+            return balance(node.withChildren(node.left, put(node.right, key, value)));
+        }
+        return new Node<>(key, -1, value, node.left, node.right);
+    }
+
+    private static <E> Node<E> set(Node<E> node, int index, E value) {
+        int leftSize = size(node.left);
+        if (index < leftSize) {
+            return node.withChildren(set(node.left, index, value), node.right);
+        } else if (index > leftSize) {
+            return node.withChildren(node.left, set(node.right, index - leftSize - 1, value));
+        }
+        return new Node<>(node.key, -1, value, node.left, node.right);
+    }
+
+    private static <E> Node<E> removeAt(Node<E> node, int index) {
+        int leftSize = size(node.left);
+        if (index < leftSize) {
+            return balance(node.withChildren(removeAt(node.left, index), node.right));
+        } else if (index > leftSize) {
+            return balance(node.withChildren(node.left, removeAt(node.right, index - leftSize - 1)));
+        }
+
+        if (node.left == null) {
+            return node.right;
+        } else if (node.right == null) {
+            return node.left;
+        }
+        Node<E> successor = node.right;
+        while (successor.left != null) {
+            successor = successor.left;
+        }
+        return balance(successor.withChildren(node.left, removeAt(node.right, 0)));
+    }
+
+    private static <E> Node<E> balance(Node<E> node) {
+        int difference = height(node.left) - height(node.right);
+        if (difference > 1) {
+            Node<E> left = node.left;
+            if (height(left.left) < height(left.right)) {
+                left = rotateLeft(left);
+            }
+            return rotateRight(node.withChildren(left, node.right));
+        } else if (difference < -1) {
+            Node<E> right = node.right;
+            if (height(right.right) < height(right.left)) {
+                right = rotateRight(right);
+            }
+            return rotateLeft(node.withChildren(node.left, right));
+        }
+        return node;
+    }
+
+    private static <E> Node<E> rotateRight(Node<E> node) {
+        Node<E> left = node.left;
+        return left.withChildren(left.left, node.withChildren(left.right, node.right));
+    }
+
+    private static <E> Node<E> rotateLeft(Node<E> node) {
+        Node<E> right = node.right;
+        return right.withChildren(node.withChildren(node.left, right.left), right.right);
+    }
+
+    private static int size(Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static int height(Node<?> node) {
+        return node == null ? 0 : node.height;
+    }
+
+    /**
+     * Immutable tree node holding an element, or the position of the element in the source list.
+     */
+    private static final class Node<E> {
+        private final int key;
+        private final int sourceIndex;
+        private final E value;
+        private final Node<E> left;
+        private final Node<E> right;
+        private final int size;
+        private final byte height;
+
+        Node(int key, int sourceIndex, E value, Node<E> left, Node<E> right) {
+            this.key = key;
+            this.sourceIndex = sourceIndex;
+            this.value = value;
+            this.left = left;
+            this.right = right;
+            this.size = size(left) + size(right) + 1;
+            this.height = (byte) (Math.max(height(left), height(right)) + 1);
+        }
+
+        Node<E> withChildren(Node<E> left, Node<E> right) {
+            return new Node<>(key, sourceIndex, value, left, right);
+        }
+    }
+
+    /**
+     * Read-only list view of the tree.
+     */
+    private class ListView extends AbstractList<E> implements RandomAccess {
+        @Override
+        public E get(int index) {
+            return OrderStatisticTree.this.get(index);
+        }
+
+        @Override
+        public int size() {
+            return OrderStatisticTree.this.size();
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            return OrderStatisticTree.this.iterator();
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package anxi.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.PriorityQueue;
+
+/**
+ * Inverted index from every three character substring of a text to the ids of the texts containing it.
+ *
+ * <p>A text containing a query contains every trigram of the query, so intersecting the postings of
+ * the query's trigrams narrows the texts to verify down to a few candidates. Texts sharing many
+ * trigrams with a query are similar to it, which is used to rank texts for fuzzy search.
+ * Trigrams are case-folded, and ids must be added in ascending order, which keeps every posting
+ * list sorted.
+ */
+public class TrigramIndex {
+    private static final int GRAM_LENGTH = 3;
+    private static final IntList EMPTY = new IntList();
+
+    private final HashMap<Long, IntList> postings = new HashMap<>();
+    private int[] lengths = new int[16];
+
+    /**
+     * Checks if a query is long enough to be narrowed by the index.
+     *
+     * @param query         Substring being searched for.
+     * @return isSearchable True if the query has at least one trigram.
+     */
+    public static boolean isSearchable(String query) {
+        return query.length() >= GRAM_LENGTH;
+    }
+
+    /**
+     * Indexes a text.
+     *
+     * @param id        Id of the text, greater than every id added before.
+     * @param text      Text to index.
+     */
+    public void add(int id, String text) {
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); ++i) {
+            IntList posting = postings.computeIfAbsent(trigram(text, i), k -> new IntList());
+            int last = posting.size() - 1;
+            if (last >= 0 && posting.get(last) == id) {
+                continue;
+            }
+            assert last < 0 || posting.get(last) < id : "Ids must be added in ascending order";
+            posting.add(id);
+        }
+        if (id >= lengths.length) {
+            lengths = Arrays.copyOf(lengths, Math.max(id + 1, lengths.length * 2));
+        }
+        lengths[id] = text.length();
+    }
+
+    /**
+     * Removes a text from the index.
+     *
+     * @param id        Id of the text.
+     * @param text      Text that was indexed under the id.
+     */
+    public void remove(int id, String text) {
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); ++i) {
+            long key = trigram(text, i);
+            IntList posting = postings.get(key);
+            if (posting != null && posting.removeSorted(id) && posting.isEmpty()) {
+                postings.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Finds the ids of all texts containing every trigram of the query.
+     * Candidates still have to be checked, as the trigrams may appear apart, out of order or in another case.
+     *
+     * @param query         Substring being searched for, at least three characters long.
+     * @return candidates   Ids of candidate texts in ascending order.
+     */
+    public IntList candidates(String query) {
+        assert isSearchable(query);
+        HashSet<Long> trigrams = new HashSet<>();
+        ArrayList<IntList> lists = new ArrayList<>();
+        for (int i = 0; i + GRAM_LENGTH <= query.length(); ++i) {
+            long key = trigram(query, i);
+            IntList posting = postings.get(key);
+            if (posting == null) {
+                return new IntList();
+            }
+            if (trigrams.add(key)) {
+                lists.add(posting);
+            }
+        }
+        lists.sort(Comparator.comparingInt(IntList::size));
+
+        IntList result = lists.get(0);
+        for (int j = 1; j < lists.size() && !result.isEmpty(); ++j) {
+            result = intersect(result, lists.get(j));
+        }
+        return result == lists.get(0) ? copy(result) : result;
+    }
+
+    /**
+     * Intersects a short sorted list with a longer one, galloping through the longer list.
+     */
+    private static IntList intersect(IntList small, IntList large) {
+        IntList result = new IntList(small.size());
+        int cursor = 0;
+        for (int i = 0; i < small.size() && cursor < large.size(); ++i) {
+            int id = small.get(i);
+            cursor = large.gallop(cursor, id);
+            if (cursor < large.size() && large.get(cursor) == id) {
+                result.add(id);
+                cursor++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Ranks the texts sharing at least half of the query's trigrams by similarity to the query.
+     *
+     * <p>Texts sharing more trigrams rank higher, and among those the texts closest in length to the
+     * query. Only the best {@code limit} texts are kept, in a bounded heap.
+     *
+     * @param query         Text to compare against, at least three characters long.
+     * @param limit         Maximum number of ids to return.
+     * @return ids          Ids of the most similar texts, most similar first.
+     */
+    public IntList rank(String query, int limit) {
+        assert isSearchable(query);
+        HashSet<Long> trigrams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= query.length(); ++i) {
+            trigrams.add(trigram(query, i));
+        }
+
+        // Counts come from sorting the ids in the query's postings, so the work and memory are bounded
+        // by the candidates rather than by every id ever added.
+        int numOfPostings = 0;
+        ArrayList<IntList> lists = new ArrayList<>(trigrams.size());
+        for (long key : trigrams) {
+            IntList posting = postings.getOrDefault(key, EMPTY);
+            lists.add(posting);
+            numOfPostings += posting.size();
+        }
+        int[] all = new int[numOfPostings];
+        int filled = 0;
+        for (IntList posting : lists) {
+            System.arraycopy(posting.values, 0, all, filled, posting.size());
+            filled += posting.size();
+        }
+        Arrays.sort(all);
+
+        IntList touched = new IntList();
+        IntList counts = new IntList();
+        int numOfTrigrams = trigrams.size();
+        int[] histogram = new int[numOfTrigrams + 1];
+        for (int i = 0; i < all.length;) {
+            int start = i;
+            while (i < all.length && all[i] == all[start]) {
+                i++;
+            }
+            touched.add(all[start]);
+            counts.add(i - start);
+            histogram[i - start]++;
+        }
+
+        // Only texts sharing as many trigrams as the k-th best can make the top k.
+        int minCommon = numOfTrigrams;
+        int numOfCandidates = histogram[minCommon];
+        while (numOfCandidates < limit && minCommon * 2 > numOfTrigrams) {
+            minCommon--;
+            numOfCandidates += histogram[minCommon];
+        }
+
+        PriorityQueue<Match> best = new PriorityQueue<>(limit + 1);
+        for (int i = 0; i < touched.size(); ++i) {
+            int id = touched.get(i);
+            int common = counts.get(i);
+            if (common < minCommon || common * 2 < numOfTrigrams) {
+                continue;
+            }
+            int textTrigrams = Math.max(1, lengths[id] - GRAM_LENGTH + 1);
+            double score = common + Math.min((double) common / (numOfTrigrams + textTrigrams - common), 1);
+            if (best.size() == limit && score <= best.peek().score) {
+                continue;
+            }
+            best.offer(new Match(id, score));
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+
+        int[] ranked = new int[best.size()];
+        for (int i = ranked.length - 1; i >= 0; --i) {
+            ranked[i] = best.poll().id;
+        }
+        IntList result = new IntList(ranked.length);
+        for (int id : ranked) {
+            result.add(id);
+        }
+        return result;
+    }
+
+    private static IntList copy(IntList list) {
+        IntList copy = new IntList(list.size());
+        for (int i = 0; i < list.size(); ++i) {
+            copy.add(list.get(i));
+        }
+        return copy;
+    }
+
+    private static long trigram(String text, int start) {
+        return ((long) fold(text.charAt(start)) << 32) | ((long) fold(text.charAt(start + 1)) << 16)
+                | fold(text.charAt(start + 2));
+    }
+
+    private static char fold(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    /**
+     * Id of a text and its similarity to the query, ordered from least to most similar.
+     */
+    private static class Match implements Comparable<Match> {
+        private final int id;
+        private final double score;
+
+        Match(int id, double score) {
+            this.id = id;
+            this.score = score;
+        }
+
+        @Override
+        public int compareTo(Match other) {
+            int byScore = Double.compare(score, other.score);
+            return byScore != 0 ? byScore : Integer.compare(other.id, id);
+        }
+    }
+}
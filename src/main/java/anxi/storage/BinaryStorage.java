@@ -0,0 +1,259 @@
+package anxi.storage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import anxi.command.Storage;
+import anxi.command.TaskChanges;
+import anxi.command.TaskStore;
+import anxi.tasks.Task;
+
+/**
+ * Storage backed by the binary task file format.
+ *
+ * <p>If the binary file does not exist yet, it is imported from the text save file so that
+ * existing lists keep working. Updates of the same size are written in place.
+ * A file written before tasks had ids is given them when it is loaded.
+ */
+public class BinaryStorage extends Storage {
+    private final Path binaryPath;
+    private final ArrayList<Long> offsets = new ArrayList<>();
+
+    /**
+     * BinaryStorage constructor.
+     *
+     * @param binaryPath    Location of binary task file.
+     * @param textPath      Location of text save file to import from if the binary file is missing.
+     */
+    public BinaryStorage(String binaryPath, String textPath) {
+        super(textPath);
+        this.binaryPath = new File(binaryPath).toPath();
+    }
+
+    /**
+     * Loads tasks from the binary task file.
+     *
+     * @return taskList     List of tasks retrieved from binary task file.
+     * @throws IOException  If unable to read the file.
+     */
+    @Override
+    public ArrayList<Task> loadTasks() throws IOException {
+        if (!Files.exists(binaryPath)) {
+            Path parent = binaryPath.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+
+            if (file.exists()) {
+                BinaryTaskFile.importText(file.toPath(), binaryPath);
+            } else {
+                BinaryTaskFile.createEmpty(binaryPath);
+            }
+        }
+
+        offsets.clear();
+        ArrayList<Task> tasks = BinaryTaskFile.read(binaryPath, offsets);
+        if (assignIds(tasks)) {
+            // Written before tasks had ids, so the file is written again with the ids just given.
+            Path temp = binaryPath.resolveSibling(binaryPath.getFileName() + ".tmp");
+            BinaryTaskFile.write(tasks, temp);
+            Files.move(temp, binaryPath, StandardCopyOption.REPLACE_EXISTING);
+            offsets.clear();
+            tasks = BinaryTaskFile.read(binaryPath, offsets);
+        }
+        return tasks;
+    }
+
+    /**
+     * Appends new task to the end of the binary task file.
+     *
+     * @param task          New task to save to file.
+     * @throws IOException  If unable to write to file.
+     */
+    @Override
+    public void addNewTask(Task task) throws IOException {
+        FileChannel channel = FileChannel.open(binaryPath, StandardOpenOption.WRITE);
+        long end = channel.size();
+        channel.write(ByteBuffer.wrap(BinaryTaskFile.encode(task)), end);
+        channel.close();
+
+        offsets.add(end);
+    }
+
+    /**
+     * Appends new tasks to the end of the binary task file with a single write.
+     *
+     * @param tasks         New tasks to save to file.
+     * @throws IOException  If unable to write to file.
+     */
+    @Override
+    public void addNewTasks(List<Task> tasks) throws IOException {
+        FileChannel channel = FileChannel.open(binaryPath, StandardOpenOption.WRITE);
+        long end = channel.size();
+        ByteArrayOutputStream records = new ByteArrayOutputStream();
+        for (Task task : tasks) {
+            offsets.add(end + records.size());
+            records.write(BinaryTaskFile.encode(task));
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(records.toByteArray());
+        while (buffer.hasRemaining()) {
+            end += channel.write(buffer, end);
+        }
+        channel.close();
+    }
+
+    /**
+     * Updates task saved in the binary task file.
+     *
+     * @param task          Updated task.
+     * @param index         Index of task to be updated, starting from 0.
+     * @param numOfTasks    Total number of tasks in task list.
+     * @throws IOException  If unable to access/read/write to file.
+     */
+    @Override
+    public void updateTask(Task task, int index, int numOfTasks) throws IOException {
+        byte[] record = BinaryTaskFile.encode(task);
+
+        if (record.length == recordEnd(index) - offsets.get(index)) {
+            FileChannel channel = FileChannel.open(binaryPath, StandardOpenOption.WRITE);
+            channel.write(ByteBuffer.wrap(record), offsets.get(index));
+            channel.close();
+            return;
+        }
+
+        splice(index, record);
+    }
+
+    /**
+     * Updates several tasks saved in the binary task file. Records of the same size are written in place,
+     * and if any changes size the file is rewritten once.
+     *
+     * @param tasks         Updated tasks.
+     * @param indices       Index of each updated task, in ascending order.
+     * @param numOfTasks    Total number of tasks in task list.
+     * @throws IOException  If unable to access/read/write to file.
+     */
+    @Override
+    public void updateTasks(List<Task> tasks, int[] indices, int numOfTasks) throws IOException {
+        byte[][] records = new byte[indices.length][];
+        boolean isSameSize = true;
+        for (int i = 0; i < indices.length; ++i) {
+            records[i] = BinaryTaskFile.encode(tasks.get(i));
+            isSameSize &= records[i].length == recordEnd(indices[i]) - offsets.get(indices[i]);
+        }
+
+        if (!isSameSize) {
+            splice(indices, records);
+            return;
+        }
+        FileChannel channel = FileChannel.open(binaryPath, StandardOpenOption.WRITE);
+        for (int i = 0; i < indices.length; ++i) {
+            channel.write(ByteBuffer.wrap(records[i]), offsets.get(indices[i]));
+        }
+        channel.close();
+    }
+
+    /**
+     * Deletes tasks from the binary task file by their indices, since records are kept in list order.
+     *
+     * @param tasks         Tasks to be deleted.
+     * @param indices       Indices of tasks to be deleted, in ascending order.
+     * @param numOfTasks    Total number of tasks in task list before any are removed.
+     * @throws IOException  If unable to access/read/write to file.
+     */
+    @Override
+    public void deleteTasks(List<Task> tasks, int[] indices, int numOfTasks) throws IOException {
+        splice(indices, new byte[indices.length][0]);
+    }
+
+    /**
+     * Saves the changes between two versions of the task list with one bulk write for each kind of change.
+     *
+     * @param changes       Changes to save.
+     * @throws IOException  If unable to write to the store.
+     */
+    @Override
+    public void saveChanges(TaskChanges changes) throws IOException {
+        TaskStore.saveInBulk(this, changes);
+    }
+
+    /**
+     * Replaces a record by rewriting the file, then shifts the offsets of the records after it.
+     *
+     * @param index         Index of record to replace.
+     * @param record        Replacement record, empty to remove the record.
+     * @throws IOException  If unable to access/read/write to file.
+     */
+    private void splice(int index, byte[] record) throws IOException {
+        splice(new int[] {index}, new byte[][] {record});
+    }
+
+    /**
+     * Replaces several records by rewriting the file once, then recomputes the offsets of the records.
+     *
+     * @param indices       Indices of records to replace, in ascending order.
+     * @param records       Replacement for each record, empty to remove the record.
+     * @throws IOException  If unable to access/read/write to file.
+     */
+    private void splice(int[] indices, byte[][] records) throws IOException {
+        Path temp = binaryPath.resolveSibling(binaryPath.getFileName() + ".tmp");
+        FileChannel in = FileChannel.open(binaryPath, StandardOpenOption.READ);
+        FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+
+        ArrayList<Long> moved = new ArrayList<>(offsets.size());
+        long copied = 0;
+        long shift = 0;
+        int next = 0;
+        for (int i = 0; i < offsets.size(); ++i) {
+            long start = offsets.get(i);
+            if (next == indices.length || indices[next] != i) {
+                moved.add(start + shift);
+                continue;
+            }
+
+            long end = recordEnd(i);
+            transferFully(in, copied, start - copied, out);
+            out.write(ByteBuffer.wrap(records[next]));
+            if (records[next].length > 0) {
+                moved.add(start + shift);
+            }
+            shift += records[next].length - (end - start);
+            copied = end;
+            next++;
+        }
+        transferFully(in, copied, in.size() - copied, out);
+        in.close();
+        out.close();
+
+        Files.move(temp, binaryPath, StandardCopyOption.REPLACE_EXISTING);
+        offsets.clear();
+        offsets.addAll(moved);
+    }
+
+    private long recordEnd(int index) throws IOException {
+        if (index + 1 < offsets.size()) {
+            return offsets.get(index + 1);
+        }
+        return Files.size(binaryPath);
+    }
+
+    private static void transferFully(FileChannel in, long position, long count, FileChannel out)
+            throws IOException {
+        while (count > 0) {
+            long transferred = in.transferTo(position, count, out);
+            position += transferred;
+            count -= transferred;
+        }
+    }
+}
@@ -0,0 +1,356 @@
+package anxi.storage;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import anxi.command.Storage;
+import anxi.tasks.Deadline;
+import anxi.tasks.Event;
+import anxi.tasks.Task;
+import anxi.tasks.ToDo;
+
+/**
+ * Reads and writes the compact binary task file format.
+ *
+ * <p>The file starts with a 4 byte magic number and a 2 byte version, followed by one record per task:
+ * <pre>
+ *   byte   flags           bits 0-1: type (0 todo, 1 deadline, 2 event), bit 7: done
+ *   int    id              id of the task, 0 if it has none
+ *   int    length          length of description in bytes
+ *   byte[] description     UTF-8 description
+ *   long   by / from       deadline and event only, minutes since the epoch
+ *   short  to              event only, minute of the day
+ * </pre>
+ * Files of version 1, written before tasks had ids, have no id field and are still read.
+ */
+public class BinaryTaskFile {
+    private static final int MAGIC = 0x414E5842;
+    private static final short VERSION = 2;
+    private static final short VERSION_WITHOUT_IDS = 1;
+
+    private static final byte TODO = 0;
+    private static final byte DEADLINE = 1;
+    private static final byte EVENT = 2;
+    private static final byte TYPE_MASK = 0x03;
+    private static final byte DONE_FLAG = (byte) 0x80;
+    private static final long MAX_WINDOW = Integer.MAX_VALUE;
+
+    private static Object unsafe;
+    private static Method invokeCleaner;
+
+    static {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            unsafe = field.get(null);
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Mappings are then unmapped by the garbage collector.
+            invokeCleaner = null;
+        }
+    }
+
+    private BinaryTaskFile() {
+    }
+
+    /**
+     * Converts between the text and binary formats from the command line.
+     *
+     * @param args      "import TEXT_FILE BINARY_FILE" or "export BINARY_FILE TEXT_FILE".
+     * @throws IOException  If unable to read or write the files.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            System.out.println("Usage: (import TEXT_FILE BINARY_FILE) | (export BINARY_FILE TEXT_FILE)");
+            return;
+        }
+
+        if (args[0].equalsIgnoreCase("import")) {
+            importText(Paths.get(args[1]), Paths.get(args[2]));
+        } else if (args[0].equalsIgnoreCase("export")) {
+            exportText(Paths.get(args[1]), Paths.get(args[2]));
+        } else {
+            System.out.println("Unknown conversion: " + args[0]);
+        }
+    }
+
+    /**
+     * Converts a text save file into a binary task file.
+     *
+     * @param text          Text save file to read.
+     * @param binary        Binary task file to write.
+     * @throws IOException  If unable to read or write the files.
+     */
+    public static void importText(Path text, Path binary) throws IOException {
+        write(new Storage(text.toString()).loadTasks(), binary);
+    }
+
+    /**
+     * Converts a binary task file into a text save file.
+     *
+     * @param binary        Binary task file to read.
+     * @param text          Text save file to write.
+     * @throws IOException  If unable to read or write the files.
+     */
+    public static void exportText(Path binary, Path text) throws IOException {
+        ArrayList<Task> tasks = read(binary, null);
+        ArrayList<String> lines = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            lines.add(Storage.toRecord(task));
+        }
+        Files.writeString(text, String.join(System.lineSeparator(), lines));
+    }
+
+    /**
+     * Writes all tasks to a binary task file, replacing its contents.
+     *
+     * @param tasks         Tasks to write.
+     * @param binary        Binary task file to write.
+     * @throws IOException  If unable to write the file.
+     */
+    public static void write(List<Task> tasks, Path binary) throws IOException {
+        FileChannel channel = FileChannel.open(binary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        buffer.putInt(MAGIC).putShort(VERSION);
+
+        for (Task task : tasks) {
+            byte[] record = encode(task);
+            if (buffer.remaining() < record.length) {
+                drain(buffer, channel);
+            }
+            if (buffer.remaining() < record.length) {
+                channel.write(ByteBuffer.wrap(record));
+            } else {
+                buffer.put(record);
+            }
+        }
+        drain(buffer, channel);
+        channel.close();
+    }
+
+    /**
+     * Reads all tasks from a binary task file through a memory mapping.
+     * Files larger than a single mapping are read through several consecutive windows, and each window is
+     * unmapped as soon as its records are decoded so that the file can be replaced straight after loading.
+     *
+     * @param binary        Binary task file to read.
+     * @param offsets       If not null, receives the file offset of each record.
+     * @return tasks        Tasks stored in the file.
+     * @throws IOException  If the file cannot be read, is not a binary task file or has a record cut short.
+     */
+    public static ArrayList<Task> read(Path binary, List<Long> offsets) throws IOException {
+        FileChannel channel = FileChannel.open(binary, StandardOpenOption.READ);
+        long size = channel.size();
+        long base = 0;
+        MappedByteBuffer window = null;
+        ArrayList<Task> tasks = new ArrayList<>();
+
+        try {
+            window = map(channel, base, size);
+            short version = window.remaining() < 6 || window.getInt() != MAGIC ? 0 : window.getShort();
+            if (version != VERSION && version != VERSION_WITHOUT_IDS) {
+                throw new IOException("Not a binary task file: " + binary);
+            }
+
+            while (base + window.position() < size) {
+                long start = base + window.position();
+                try {
+                    tasks.add(decode(window, version == VERSION));
+                } catch (BufferUnderflowException e) {
+                    if (base + window.limit() == size || base == start) {
+                        throw new IOException("Corrupted binary task file, record " + (tasks.size() + 1)
+                                + " is cut short", e);
+                    }
+                    // The record runs past the end of this window, so map the next window from its start.
+                    unmap(window);
+                    base = start;
+                    window = map(channel, base, size);
+                    continue;
+                }
+                if (offsets != null) {
+                    offsets.add(start);
+                }
+            }
+        } finally {
+            unmap(window);
+            channel.close();
+        }
+
+        return tasks;
+    }
+
+    /**
+     * Checks if a binary task file was written after tasks had ids, and so has an id in every record.
+     *
+     * @param binary        Binary task file to check.
+     * @return hasIds       False if the file is of version 1.
+     * @throws IOException  If unable to read the file.
+     */
+    static boolean hasIds(Path binary) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(6);
+        try (FileChannel channel = FileChannel.open(binary, StandardOpenOption.READ)) {
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // Keep reading until the header is full.
+            }
+        }
+        return header.position() < 6 || header.getShort(4) != VERSION_WITHOUT_IDS;
+    }
+
+    /**
+     * Creates an empty binary task file containing only the header.
+     *
+     * @param binary        Binary task file to create.
+     * @throws IOException  If unable to write the file.
+     */
+    public static void createEmpty(Path binary) throws IOException {
+        write(new ArrayList<>(), binary);
+    }
+
+    /**
+     * Encodes a single task as a binary record.
+     *
+     * @param task      Task to encode.
+     * @return record   Encoded record.
+     */
+    public static byte[] encode(Task task) {
+        byte[] description = task.getDescription().getBytes(StandardCharsets.UTF_8);
+        byte flags = task.isDone() ? DONE_FLAG : 0;
+        int size = 1 + 4 + 4 + description.length;
+
+        if (task instanceof Deadline) {
+            flags |= DEADLINE;
+            size += 8;
+        } else if (task instanceof Event) {
+            flags |= EVENT;
+            size += 8 + 2;
+        } else {
+            flags |= TODO;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.put(flags).putInt(task.getId()).putInt(description.length).put(description);
+
+        if (task instanceof Deadline) {
+            buffer.putLong(toEpochMinute(((Deadline) task).getBy()));
+        } else if (task instanceof Event) {
+            Event event = (Event) task;
+            buffer.putLong(toEpochMinute(event.getFrom()));
+            buffer.putShort((short) (event.getTo().toSecondOfDay() / 60));
+        }
+
+        return buffer.array();
+    }
+
+    /**
+     * Decodes the record at the current position of the buffer.
+     *
+     * @param buffer    Buffer positioned at the start of a record.
+     * @return task     Decoded task.
+     * @throws IOException  If the record has an unknown type.
+     * @throws BufferUnderflowException  If the record runs past the end of the buffer.
+     */
+    static Task decode(ByteBuffer buffer) throws IOException {
+        return decode(buffer, true);
+    }
+
+    /**
+     * Decodes the record at the current position of the buffer.
+     *
+     * @param buffer    Buffer positioned at the start of a record.
+     * @param hasId     False if the record was written before tasks had ids and has no id field.
+     * @return task     Decoded task.
+     * @throws IOException  If the record has an unknown type.
+     * @throws BufferUnderflowException  If the record runs past the end of the buffer.
+     */
+    static Task decode(ByteBuffer buffer, boolean hasId) throws IOException {
+        byte flags = buffer.get();
+        int id = hasId ? buffer.getInt() : 0;
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        String description = new String(bytes, StandardCharsets.UTF_8);
+
+        Task task;
+        switch (flags & TYPE_MASK) {
+        case TODO:
+            task = new ToDo(description);
+            break;
+
+        case DEADLINE:
+            task = new Deadline(description, fromEpochMinute(buffer.getLong()));
+            break;
+
+        case EVENT:
+            LocalDateTime from = fromEpochMinute(buffer.getLong());
+            task = new Event(description, from, LocalTime.ofSecondOfDay(buffer.getShort() * 60L));
+            break;
+
+        default:
+            throw new IOException("Corrupted binary task file, unknown task type " + (flags & TYPE_MASK));
+        }
+
+        task.updateIsDone((flags & DONE_FLAG) != 0);
+        if (id > 0) {
+            task.setId(id);
+        }
+        return task;
+    }
+
+    private static long toEpochMinute(LocalDateTime dateTime) {
+        return Math.floorDiv(dateTime.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    private static LocalDateTime fromEpochMinute(long epochMinute) {
+        return LocalDateTime.ofEpochSecond(epochMinute * 60, 0, ZoneOffset.UTC);
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, long start, long size) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(size - start, MAX_WINDOW));
+    }
+
+    /**
+     * Releases a mapping straight away instead of when it is garbage collected, since some platforms
+     * refuse to replace or delete a file while a mapping of it is open.
+     * Only safe once nothing refers to the mapped memory, which holds after decoding as records are copied.
+     *
+     * @param buffer    Mapping to release, or null if nothing was mapped.
+     */
+    private static void unmap(MappedByteBuffer buffer) {
+        if (buffer == null || invokeCleaner == null) {
+            return;
+        }
+        try {
+            invokeCleaner.invoke(unsafe, buffer);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Left for the garbage collector to unmap.
+        }
+    }
+
+    private static void drain(ByteBuffer buffer, FileChannel channel) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
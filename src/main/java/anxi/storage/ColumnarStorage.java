@@ -0,0 +1,33 @@
+package anxi.storage;
+
+import java.io.IOException;
+import java.util.List;
+
+import anxi.command.Storage;
+import anxi.tasks.Task;
+
+/**
+ * Storage that keeps the loaded tasks in columns of primitive arrays instead of one object per task.
+ */
+public class ColumnarStorage extends Storage {
+
+    /**
+     * ColumnarStorage constructor.
+     *
+     * @param filePath      Location of save file.
+     */
+    public ColumnarStorage(String filePath) {
+        super(filePath);
+    }
+
+    /**
+     * Loads the save file and copies the tasks into columns, so the parsed tasks can be collected.
+     *
+     * @return taskList     List of tasks that creates each task when it is accessed.
+     * @throws IOException  If unable to read the save file.
+     */
+    @Override
+    public List<Task> loadTasks() throws IOException {
+        return new ColumnarTaskList(super.loadTasks());
+    }
+}
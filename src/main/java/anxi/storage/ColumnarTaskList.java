@@ -0,0 +1,175 @@
+package anxi.storage;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.AbstractList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.IntPredicate;
+
+import anxi.command.IdSource;
+import anxi.command.TaskSource;
+import anxi.tasks.Deadline;
+import anxi.tasks.Event;
+import anxi.tasks.Task;
+import anxi.tasks.ToDo;
+
+/**
+ * Read-only list of tasks stored column by column in primitive arrays.
+ *
+ * <p>Each field of every task is held in its own array: a type byte, a done bit, the id, the start
+ * or due time in epoch minutes, the end time in minutes of the day, and the offset of the description
+ * in an off-heap arena of UTF-8 text. That is about 22 bytes of heap per task, with no objects per task.
+ * Tasks are created each time they are accessed and are not kept by the list, and searching or
+ * printing the list works on the columns without creating them.
+ */
+public class ColumnarTaskList extends AbstractList<Task> implements RandomAccess, TaskSource, IdSource {
+    private static final byte TODO = 'T';
+    private static final byte DEADLINE = 'D';
+    private static final byte EVENT = 'E';
+
+    private final int size;
+    private final byte[] types;
+    private final BitSet done;
+    private final int[] ids;
+    private final long[] startMinutes;
+    private final int[] endMinutes;
+    private final int[] descriptionStarts;
+    private final DescriptionArena descriptions;
+
+    /**
+     * ColumnarTaskList constructor.
+     * Copies the tasks into columns, after which the tasks themselves are no longer needed.
+     *
+     * @param tasks     Tasks to store, in list order.
+     */
+    public ColumnarTaskList(List<Task> tasks) {
+        size = tasks.size();
+        types = new byte[size];
+        done = new BitSet(size);
+        ids = new int[size];
+        startMinutes = new long[size];
+        endMinutes = new int[size];
+        descriptionStarts = new int[size + 1];
+
+        descriptions = new DescriptionArena(size * 16);
+        for (int i = 0; i < size; ++i) {
+            Task task = tasks.get(i);
+            ids[i] = task.getId();
+            done.set(i, task.isDone());
+            if (task instanceof Event) {
+                types[i] = EVENT;
+                startMinutes[i] = toEpochMinute(((Event) task).getFrom());
+                endMinutes[i] = ((Event) task).getTo().toSecondOfDay() / 60;
+            } else if (task instanceof Deadline) {
+                types[i] = DEADLINE;
+                startMinutes[i] = toEpochMinute(((Deadline) task).getBy());
+            } else {
+                types[i] = TODO;
+            }
+
+            descriptionStarts[i] = descriptions.append(task.getDescription());
+        }
+        descriptionStarts[size] = descriptions.size();
+    }
+
+    /**
+     * Creates the task at the index from its columns.
+     *
+     * @param index     Index of task.
+     * @return task     New task with the stored fields.
+     */
+    @Override
+    public Task get(int index) {
+        checkIndex(index);
+        String description = descriptions.get(descriptionStarts[index], descriptionStarts[index + 1]);
+
+        Task task;
+        if (types[index] == EVENT) {
+            LocalDateTime from = fromEpochMinute(startMinutes[index]);
+            task = new Event(description, from, LocalTime.ofSecondOfDay(endMinutes[index] * 60L));
+        } else if (types[index] == DEADLINE) {
+            task = new Deadline(description, fromEpochMinute(startMinutes[index]));
+        } else {
+            task = new ToDo(description);
+        }
+        task.updateIsDone(done.get(index));
+        if (ids[index] > 0) {
+            task.setId(ids[index]);
+        }
+        return task;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public IntPredicate descriptionMatcher(String match) {
+        byte[] pattern = match.getBytes(StandardCharsets.UTF_8);
+        return index -> descriptions.contains(descriptionStarts[index], descriptionStarts[index + 1], pattern);
+    }
+
+    @Override
+    public int getLargestId() {
+        int largest = 0;
+        for (int id : ids) {
+            largest = Math.max(largest, id);
+        }
+        return largest;
+    }
+
+    @Override
+    public void appendTask(StringBuilder stringBuilder, int index) {
+        checkIndex(index);
+        stringBuilder.append('[').append((char) types[index]).append("][");
+        stringBuilder.append(done.get(index) ? 'X' : ' ').append("] ");
+        descriptions.appendTo(stringBuilder, descriptionStarts[index], descriptionStarts[index + 1]);
+        if (types[index] == EVENT) {
+            stringBuilder.append(Event.formatSpan(fromEpochMinute(startMinutes[index]),
+                    LocalTime.ofSecondOfDay(endMinutes[index] * 60L)));
+        } else if (types[index] == DEADLINE) {
+            stringBuilder.append(Deadline.formatBy(fromEpochMinute(startMinutes[index])));
+        }
+    }
+
+    /**
+     * Retrieves the type of the task at the index without creating it.
+     *
+     * @param index     Index of task.
+     * @return type     'T', 'D' or 'E'.
+     */
+    public char getType(int index) {
+        checkIndex(index);
+        return (char) types[index];
+    }
+
+    /**
+     * Checks if the task at the index is done without creating it.
+     *
+     * @param index     Index of task.
+     * @return isDone   True: complete, False: uncompleted.
+     */
+    public boolean isDone(int index) {
+        checkIndex(index);
+        return done.get(index);
+    }
+
+    private static long toEpochMinute(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) / 60;
+    }
+
+    private static LocalDateTime fromEpochMinute(long epochMinute) {
+        return LocalDateTime.ofEpochSecond(epochMinute * 60, 0, ZoneOffset.UTC);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+}
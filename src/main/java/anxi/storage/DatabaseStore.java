@@ -0,0 +1,384 @@
+package anxi.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import anxi.command.Storage;
+import anxi.command.TaskStore;
+import anxi.tasks.Task;
+
+/**
+ * Embedded single-file record database for tasks.
+ *
+ * <p>Each task is stored in its own slot, so adding, updating or deleting a task writes only that slot.
+ * Slots are laid out as:
+ * <pre>
+ *   int    capacity        size of the payload area in bytes
+ *   byte   status          1 if the slot holds a task, 0 if it is free
+ *   long   sequence        position of the task in list order relative to other tasks
+ *   int    length          length of the payload in bytes
+ *   byte[] payload         task in the binary task file record format, padded to the capacity
+ * </pre>
+ * Freed slots are reused for new tasks, and the file is compacted once more than half of it is free.
+ * A database of version 1 holds payloads without task ids, and is written again with ids when it is loaded.
+ */
+public class DatabaseStore implements TaskStore {
+    private static final int MAGIC = 0x414E5844;
+    private static final short VERSION = 2;
+    private static final short VERSION_WITHOUT_IDS = 1;
+    private static final int FILE_HEADER_SIZE = 6;
+    private static final int SLOT_HEADER_SIZE = 4 + 1 + 8 + 4;
+    private static final int SLACK = 16;
+    private static final long MIN_VACUUM_SIZE = 64 * 1024;
+
+    private final Path path;
+    private final File textFile;
+    private final ArrayList<Slot> slots = new ArrayList<>();
+    private final TreeMap<Integer, ArrayDeque<Slot>> freeSlots = new TreeMap<>();
+    private FileChannel channel;
+    private long nextSequence;
+    private long freeBytes;
+
+    /**
+     * DatabaseStore constructor.
+     *
+     * @param filePath      Location of database file.
+     * @param textPath      Location of text save file to import from if the database does not exist.
+     */
+    public DatabaseStore(String filePath, String textPath) {
+        this.path = new File(filePath).toPath();
+        this.textFile = new File(textPath);
+    }
+
+    @Override
+    public synchronized List<Task> loadTasks() throws IOException {
+        boolean isNew = !Files.exists(path);
+        if (isNew) {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+        }
+        openChannel();
+
+        if (isNew) {
+            channel.write(ByteBuffer.allocate(FILE_HEADER_SIZE).putInt(MAGIC).putShort(VERSION).flip(), 0);
+            if (textFile.exists()) {
+                addNewTasks(new Storage(textFile.getPath()).loadTasks());
+            }
+        }
+
+        return scan();
+    }
+
+    @Override
+    public synchronized void addNewTask(Task task) throws IOException {
+        byte[] payload = BinaryTaskFile.encode(task);
+        Slot slot = allocate(payload.length);
+        slot.sequence = nextSequence++;
+        writeSlot(slot, payload);
+        slots.add(slot);
+    }
+
+    @Override
+    public synchronized void updateTask(Task task, int index, int numOfTasks) throws IOException {
+        Slot slot = slots.get(index);
+        byte[] payload = BinaryTaskFile.encode(task);
+        if (payload.length <= slot.capacity) {
+            writeSlot(slot, payload);
+            return;
+        }
+
+        // Write the moved task before freeing its old slot, so a crash in between only leaves a duplicate.
+        Slot moved = allocate(payload.length);
+        moved.sequence = slot.sequence;
+        writeSlot(moved, payload);
+        free(slot);
+        slots.set(index, moved);
+    }
+
+    /**
+     * Frees the slots of deleted tasks, then compacts the database at most once.
+     *
+     * @param tasks         Tasks to be deleted.
+     * @param indices       Indices of tasks to be deleted, in ascending order.
+     * @param numOfTasks    Total number of tasks in task list before any are removed.
+     * @throws IOException  If unable to write to the database.
+     */
+    @Override
+    public synchronized void deleteTasks(List<Task> tasks, int[] indices, int numOfTasks) throws IOException {
+        for (int i = indices.length - 1; i >= 0; --i) {
+            free(slots.remove(indices[i]));
+        }
+        vacuumIfSparse();
+    }
+
+    /**
+     * Appends new tasks to the end of the database with a single write.
+     *
+     * @param tasks         New tasks to save.
+     * @throws IOException  If unable to write to the database.
+     */
+    @Override
+    public synchronized void addNewTasks(List<Task> tasks) throws IOException {
+        ArrayList<byte[]> payloads = new ArrayList<>(tasks.size());
+        int size = 0;
+        for (Task task : tasks) {
+            byte[] payload = BinaryTaskFile.encode(task);
+            payloads.add(payload);
+            size += SLOT_HEADER_SIZE + capacityFor(payload.length);
+        }
+
+        long offset = channel.size();
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        for (byte[] payload : payloads) {
+            Slot slot = new Slot(offset + buffer.position(), capacityFor(payload.length));
+            slot.sequence = nextSequence++;
+            putSlot(buffer, slot, payload);
+            slots.add(slot);
+        }
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            offset += channel.write(buffer, offset);
+        }
+    }
+
+    @Override
+    public synchronized void flush() throws IOException {
+        if (channel != null) {
+            channel.force(false);
+        }
+    }
+
+    /**
+     * Rewrites the database without free slots.
+     *
+     * @throws IOException  If unable to rewrite the database.
+     */
+    public synchronized void vacuum() throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        out.write(ByteBuffer.allocate(FILE_HEADER_SIZE).putInt(MAGIC).putShort(VERSION).flip());
+
+        ArrayList<Slot> moved = new ArrayList<>(slots.size());
+        long offset = FILE_HEADER_SIZE;
+        for (Slot slot : slots) {
+            ByteBuffer record = ByteBuffer.allocate(SLOT_HEADER_SIZE + slot.capacity);
+            channel.read(record, slot.offset);
+            record.flip();
+            out.write(record, offset);
+
+            Slot copy = new Slot(offset, slot.capacity);
+            copy.sequence = slot.sequence;
+            moved.add(copy);
+            offset += SLOT_HEADER_SIZE + slot.capacity;
+        }
+        out.force(false);
+        out.close();
+        channel.close();
+
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+        openChannel();
+        slots.clear();
+        slots.addAll(moved);
+        freeSlots.clear();
+        freeBytes = 0;
+    }
+
+    /**
+     * Reads every slot and rebuilds the in-memory index.
+     * The file is read into memory rather than mapped, so that it can be replaced by a vacuum afterwards.
+     * A slot cut short at the end of the file, as left by a crash while it was appended, is dropped.
+     *
+     * @return tasks        Tasks in list order.
+     * @throws IOException  If the file is not a task database, has a corrupted slot or cannot be read.
+     */
+    private List<Task> scan() throws IOException {
+        slots.clear();
+        freeSlots.clear();
+        freeBytes = 0;
+        nextSequence = 0;
+
+        long size = channel.size();
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Task database too large to read: " + path);
+        }
+        ByteBuffer file = ByteBuffer.allocate((int) size);
+        while (file.hasRemaining() && channel.read(file, file.position()) >= 0) {
+            // Keep reading until the buffer is full.
+        }
+        file.flip();
+        short version = size < FILE_HEADER_SIZE || file.getInt() != MAGIC ? 0 : file.getShort();
+        if (version != VERSION && version != VERSION_WITHOUT_IDS) {
+            throw new IOException("Not a task database: " + path);
+        }
+
+        TreeMap<Long, Task> tasksBySequence = new TreeMap<>();
+        TreeMap<Long, Slot> slotsBySequence = new TreeMap<>();
+        int offset = FILE_HEADER_SIZE;
+        while (offset < size) {
+            int capacity = offset + SLOT_HEADER_SIZE <= size ? file.getInt(offset) : 0;
+            if (capacity < 0) {
+                throw new IOException("Corrupted task database, bad slot at " + offset);
+            } else if (offset + SLOT_HEADER_SIZE + (long) capacity > size) {
+                System.out.println("Database error, dropping slot cut short at " + offset);
+                channel.truncate(offset);
+                break;
+            }
+            file.position(offset);
+            Slot slot = new Slot(offset, file.getInt());
+            boolean isLive = file.get() == 1;
+            slot.sequence = file.getLong();
+            int length = file.getInt();
+            offset += SLOT_HEADER_SIZE + slot.capacity;
+
+            if (!isLive || slotsBySequence.containsKey(slot.sequence)) {
+                addFree(slot);
+                continue;
+            }
+            if (length < 0 || length > slot.capacity) {
+                throw new IOException("Corrupted task database, bad slot at " + slot.offset);
+            }
+            try {
+                tasksBySequence.put(slot.sequence, BinaryTaskFile.decode(file.slice(file.position(), length),
+                        version == VERSION));
+            } catch (BufferUnderflowException e) {
+                throw new IOException("Corrupted task database, slot at " + slot.offset + " is cut short", e);
+            }
+            slotsBySequence.put(slot.sequence, slot);
+            nextSequence = Math.max(nextSequence, slot.sequence + 1);
+        }
+
+        slots.addAll(slotsBySequence.values());
+        ArrayList<Task> tasks = new ArrayList<>(tasksBySequence.values());
+        if (version == VERSION_WITHOUT_IDS) {
+            Storage.assignIds(tasks);
+            upgrade(tasks);
+        }
+        return tasks;
+    }
+
+    /**
+     * Writes the database again in the current version, with the ids just given to its tasks.
+     *
+     * @param tasks         Tasks in list order.
+     * @throws IOException  If unable to rewrite the database.
+     */
+    private void upgrade(List<Task> tasks) throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        out.write(ByteBuffer.allocate(FILE_HEADER_SIZE).putInt(MAGIC).putShort(VERSION).flip());
+
+        ArrayList<Slot> written = new ArrayList<>(tasks.size());
+        long offset = FILE_HEADER_SIZE;
+        for (Task task : tasks) {
+            byte[] payload = BinaryTaskFile.encode(task);
+            Slot slot = new Slot(offset, capacityFor(payload.length));
+            slot.sequence = written.size();
+            ByteBuffer buffer = ByteBuffer.allocate(SLOT_HEADER_SIZE + slot.capacity);
+            putSlot(buffer, slot, payload);
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                offset += out.write(buffer, offset);
+            }
+            written.add(slot);
+        }
+        out.force(false);
+        out.close();
+        channel.close();
+
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+        openChannel();
+        slots.clear();
+        slots.addAll(written);
+        freeSlots.clear();
+        freeBytes = 0;
+        nextSequence = written.size();
+    }
+
+    private Slot allocate(int length) throws IOException {
+        Map.Entry<Integer, ArrayDeque<Slot>> entry = freeSlots.ceilingEntry(length);
+        if (entry != null) {
+            Slot slot = entry.getValue().poll();
+            if (entry.getValue().isEmpty()) {
+                freeSlots.remove(entry.getKey());
+            }
+            freeBytes -= SLOT_HEADER_SIZE + slot.capacity;
+            return slot;
+        }
+        return new Slot(channel.size(), capacityFor(length));
+    }
+
+    private void free(Slot slot) throws IOException {
+        channel.write(ByteBuffer.wrap(new byte[] {0}), slot.offset + 4);
+        addFree(slot);
+    }
+
+    private void addFree(Slot slot) {
+        freeSlots.computeIfAbsent(slot.capacity, c -> new ArrayDeque<>()).add(slot);
+        freeBytes += SLOT_HEADER_SIZE + slot.capacity;
+    }
+
+    private void vacuumIfSparse() throws IOException {
+        long size = channel.size();
+        if (size >= MIN_VACUUM_SIZE && freeBytes * 2 > size) {
+            vacuum();
+        }
+    }
+
+    private void writeSlot(Slot slot, byte[] payload) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(SLOT_HEADER_SIZE + slot.capacity);
+        putSlot(buffer, slot, payload);
+        buffer.flip();
+        long offset = slot.offset;
+        while (buffer.hasRemaining()) {
+            offset += channel.write(buffer, offset);
+        }
+    }
+
+    private static void putSlot(ByteBuffer buffer, Slot slot, byte[] payload) {
+        int start = buffer.position();
+        buffer.putInt(slot.capacity).put((byte) 1).putLong(slot.sequence).putInt(payload.length).put(payload);
+        buffer.position(start + SLOT_HEADER_SIZE + slot.capacity);
+    }
+
+    private static int capacityFor(int length) {
+        return (length + SLACK + 15) & ~15;
+    }
+
+    private void openChannel() throws IOException {
+        if (channel != null && channel.isOpen()) {
+            channel.close();
+        }
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Location of a task in the database file.
+     */
+    private static class Slot {
+        private final long offset;
+        private final int capacity;
+        private long sequence;
+
+        Slot(long offset, int capacity) {
+            this.offset = offset;
+            this.capacity = capacity;
+        }
+    }
+}
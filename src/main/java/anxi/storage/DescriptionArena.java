@@ -0,0 +1,143 @@
+package anxi.storage;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Append-only store of UTF-8 text in a direct buffer outside the Java heap, addressed by byte offset.
+ *
+ * <p>The garbage collector never scans or copies the text, however much there is. Text can be
+ * searched and printed from the bytes without creating a String for it. Appending is not thread-safe,
+ * but once filled the arena can be read by any number of threads.
+ */
+public class DescriptionArena {
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private ByteBuffer buffer;
+    private int size;
+
+    /**
+     * DescriptionArena constructor.
+     *
+     * @param capacity      Number of bytes to reserve, grown as needed.
+     */
+    public DescriptionArena(int capacity) {
+        buffer = ByteBuffer.allocateDirect(Math.max(capacity, 16));
+    }
+
+    /**
+     * Appends text to the arena.
+     *
+     * @param text      Text to append.
+     * @return offset   Offset of the first byte of the text.
+     */
+    public int append(String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        if (size + bytes.length > buffer.capacity()) {
+            ByteBuffer grown = ByteBuffer.allocateDirect(Math.max(size + bytes.length, buffer.capacity() * 2));
+            grown.put(buffer.duplicate().position(0).limit(size));
+            buffer = grown;
+        }
+        int offset = size;
+        buffer.put(offset, bytes);
+        size += bytes.length;
+        return offset;
+    }
+
+    /**
+     * Retrieves the number of bytes in the arena.
+     *
+     * @return size     Offset after the last byte appended.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Decodes a range of the arena.
+     *
+     * @param start     Offset of the first byte.
+     * @param end       Offset after the last byte.
+     * @return text     Text in the range.
+     */
+    public String get(int start, int end) {
+        byte[] bytes = new byte[end - start];
+        buffer.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Checks if a range of the arena contains some UTF-8 bytes.
+     * UTF-8 never has one character's bytes inside another's, so this matches String.contains.
+     *
+     * @param start         Offset of the first byte.
+     * @param end           Offset after the last byte.
+     * @param pattern       UTF-8 bytes to look for.
+     * @return hasMatch     True if the pattern is found within the range.
+     */
+    public boolean contains(int start, int end, byte[] pattern) {
+        int length = end - start;
+        if (pattern.length == 0) {
+            return true;
+        } else if (pattern.length > length) {
+            return false;
+        }
+
+        byte[] bytes = SCRATCH.get().ensureCapacity(length).bytes;
+        buffer.get(start, bytes, 0, length);
+        byte first = pattern[0];
+        int last = length - pattern.length;
+        for (int i = 0; i <= last; ++i) {
+            if (bytes[i] != first) {
+                continue;
+            }
+            int j = 1;
+            while (j < pattern.length && bytes[i + j] == pattern[j]) {
+                j++;
+            }
+            if (j == pattern.length) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Appends a range of the arena to a StringBuilder, decoding ASCII directly from the bytes.
+     *
+     * @param stringBuilder     StringBuilder to append to.
+     * @param start             Offset of the first byte.
+     * @param end               Offset after the last byte.
+     */
+    public void appendTo(StringBuilder stringBuilder, int start, int end) {
+        int length = end - start;
+        Scratch scratch = SCRATCH.get().ensureCapacity(length);
+        buffer.get(start, scratch.bytes, 0, length);
+        for (int i = 0; i < length; ++i) {
+            byte b = scratch.bytes[i];
+            if (b < 0) {
+                stringBuilder.append(scratch.chars, 0, i);
+                stringBuilder.append(new String(scratch.bytes, i, length - i, StandardCharsets.UTF_8));
+                return;
+            }
+            scratch.chars[i] = (char) b;
+        }
+        stringBuilder.append(scratch.chars, 0, length);
+    }
+
+    /**
+     * Per-thread buffers for decoding text into a StringBuilder.
+     */
+    private static class Scratch {
+        private byte[] bytes = new byte[256];
+        private char[] chars = new char[256];
+
+        Scratch ensureCapacity(int capacity) {
+            if (bytes.length < capacity) {
+                bytes = new byte[capacity];
+                chars = new char[capacity];
+            }
+            return this;
+        }
+    }
+}
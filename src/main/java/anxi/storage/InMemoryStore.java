@@ -0,0 +1,47 @@
+package anxi.storage;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import anxi.command.TaskStore;
+import anxi.tasks.Task;
+
+/**
+ * Task store that keeps tasks in memory only, for tests and benchmarks.
+ */
+public class InMemoryStore implements TaskStore {
+    private final ArrayList<Task> tasks = new ArrayList<>();
+
+    /**
+     * InMemoryStore constructor.
+     */
+    public InMemoryStore() {
+    }
+
+    @Override
+    public List<Task> loadTasks() {
+        return new ArrayList<>(tasks);
+    }
+
+    @Override
+    public void addNewTask(Task task) {
+        tasks.add(task);
+    }
+
+    @Override
+    public void updateTask(Task task, int index, int numOfTasks) {
+        tasks.set(index, task);
+    }
+
+    @Override
+    public void deleteTasks(List<Task> deleted, int[] indices, int numOfTasks) {
+        for (int i = indices.length - 1; i >= 0; --i) {
+            tasks.remove(indices[i]);
+        }
+    }
+
+    @Override
+    public void addNewTasks(List<Task> newTasks) {
+        tasks.addAll(newTasks);
+    }
+}
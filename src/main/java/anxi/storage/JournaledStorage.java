@@ -0,0 +1,504 @@
+package anxi.storage;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import anxi.command.Storage;
+import anxi.command.TaskChanges;
+import anxi.tasks.Task;
+
+/**
+ * Storage that appends every mutation to an operation log instead of rewriting the save file.
+ *
+ * <p>The save file acts as the base and the log holds records made after it was last written.
+ * Once the log grows past the compaction threshold it is rotated and merged into a fresh base
+ * on a background thread, while new records keep going to an empty log.
+ */
+public class JournaledStorage extends Storage {
+    /** Default log size, in bytes, after which the log is compacted into the base file. */
+    public static final long DEFAULT_COMPACT_THRESHOLD = 1024 * 1024;
+
+    private static final String ADD = "A";
+    private static final String UPDATE = "U";
+    private static final String DELETE = "X";
+    private static final String INSERT = "I";
+
+    private final File logFile;
+    private final File rotatedLogFile;
+    private final File compactFile;
+    private final long compactThreshold;
+    private final ExecutorService compactor;
+    private Future<?> pendingCompaction;
+
+    /**
+     * JournaledStorage constructor.
+     *
+     * @param filePath      Location of base save file.
+     */
+    public JournaledStorage(String filePath) {
+        this(filePath, DEFAULT_COMPACT_THRESHOLD);
+    }
+
+    /**
+     * JournaledStorage constructor.
+     *
+     * @param filePath              Location of base save file.
+     * @param compactThreshold      Log size in bytes after which the log is compacted.
+     */
+    public JournaledStorage(String filePath, long compactThreshold) {
+        super(filePath);
+        this.logFile = new File(filePath + ".log");
+        this.rotatedLogFile = new File(filePath + ".log.1");
+        this.compactFile = new File(filePath + ".compact");
+        this.compactThreshold = compactThreshold;
+        this.compactor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "anxi-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Loads tasks by replaying the operation logs over the base save file.
+     *
+     * @return taskList     List of tasks retrieved from save file and logs.
+     * @throws IOException  If unable to read the save file or logs.
+     */
+    @Override
+    public synchronized ArrayList<Task> loadTasks() throws IOException {
+        if (!file.exists()) {
+            handleFileAccessErrors();
+        }
+        recoverCompaction();
+
+        ArrayList<String> unreadable = new ArrayList<>();
+        List<String> lines = readBase(unreadable);
+        if (!unreadable.isEmpty()) {
+            System.out.println("File error, cannot read list");
+            setAside(unreadable);
+            writeBase(lines);
+        }
+        replay(rotatedLogFile, lines);
+        replay(logFile, lines);
+
+        ArrayList<Task> tasks = new ArrayList<>(lines.size());
+        for (String line : lines) {
+            Task task = toTask(line);
+            if (task != null) {
+                tasks.add(task);
+            } else {
+                System.out.println("File error, cannot read list");
+            }
+        }
+        // Tasks saved before they had ids are given them, and the ids are logged like any other update.
+        if (assignIds(tasks)) {
+            updateTasks(tasks, IntStream.range(0, tasks.size()).toArray(), tasks.size());
+        }
+
+        if (rotatedLogFile.exists()) {
+            scheduleCompaction();
+        }
+
+        return tasks;
+    }
+
+    /**
+     * Appends an add record to the log.
+     *
+     * @param task          New task to save.
+     * @throws IOException  If unable to write to the log.
+     */
+    @Override
+    public void addNewTask(Task task) throws IOException {
+        append(ADD + " | " + toRecord(task));
+    }
+
+    /**
+     * Appends add records for all new tasks to the log with a single write.
+     *
+     * @param tasks         New tasks to save.
+     * @throws IOException  If unable to write to the log.
+     */
+    @Override
+    public void addNewTasks(List<Task> tasks) throws IOException {
+        ArrayList<String> records = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            records.add(ADD + " | " + toRecord(task));
+        }
+        append(records);
+    }
+
+    /**
+     * Appends an update record to the log.
+     *
+     * @param task          Updated task.
+     * @param index         Index of task to be updated, starting from 0.
+     * @param numOfTasks    Total number of tasks in task list.
+     * @throws IOException  If unable to write to the log.
+     */
+    @Override
+    public void updateTask(Task task, int index, int numOfTasks) throws IOException {
+        append(UPDATE + " | " + index + " | " + toRecord(task));
+    }
+
+    /**
+     * Appends update records for several tasks to the log with a single write.
+     *
+     * @param tasks         Updated tasks.
+     * @param indices       Index of each updated task.
+     * @param numOfTasks    Total number of tasks in task list.
+     * @throws IOException  If unable to write to the log.
+     */
+    @Override
+    public void updateTasks(List<Task> tasks, int[] indices, int numOfTasks) throws IOException {
+        ArrayList<String> records = new ArrayList<>(indices.length);
+        for (int i = 0; i < indices.length; ++i) {
+            records.add(UPDATE + " | " + indices[i] + " | " + toRecord(tasks.get(i)));
+        }
+        append(records);
+    }
+
+    /**
+     * Appends delete records to the log. Log records refer to tasks by index.
+     *
+     * @param tasks         Tasks to be deleted.
+     * @param indices       Indices of tasks to be deleted, in ascending order.
+     * @param numOfTasks    Total number of tasks in task list before any are removed.
+     * @throws IOException  If unable to write to the log.
+     */
+    @Override
+    public void deleteTasks(List<Task> tasks, int[] indices, int numOfTasks) throws IOException {
+        ArrayList<String> records = new ArrayList<>(indices.length);
+        for (int i = indices.length - 1; i >= 0; --i) {
+            records.add(DELETE + " | " + indices[i]);
+        }
+        append(records);
+    }
+
+    /**
+     * Appends the records for all changes between two versions of the task list with a single write:
+     * deletes, the last task first, then adds in list order, then updates.
+     *
+     * @param changes       Changes to save.
+     * @throws IOException  If unable to write to the log.
+     */
+    @Override
+    public void saveChanges(TaskChanges changes) throws IOException {
+        ArrayList<String> records = new ArrayList<>();
+        int[] deleted = changes.getDeletedIndices();
+        for (int i = deleted.length - 1; i >= 0; --i) {
+            records.add(DELETE + " | " + deleted[i]);
+        }
+        int numOfTasks = changes.getNumOfTasksBefore() - deleted.length;
+        int[] added = changes.getAddedIndices();
+        for (int i = 0; i < added.length; ++i, ++numOfTasks) {
+            String record = toRecord(changes.getAddedTasks().get(i));
+            records.add(added[i] < numOfTasks ? INSERT + " | " + added[i] + " | " + record : ADD + " | " + record);
+        }
+        int[] updated = changes.getUpdatedIndices();
+        for (int i = 0; i < updated.length; ++i) {
+            records.add(UPDATE + " | " + updated[i] + " | " + toRecord(changes.getUpdatedTasks().get(i)));
+        }
+        if (!records.isEmpty()) {
+            append(records);
+        }
+    }
+
+    /**
+     * Waits for any running compaction to complete.
+     *
+     * @throws IOException  If the compaction failed.
+     */
+    public void awaitCompaction() throws IOException {
+        Future<?> pending;
+        synchronized (this) {
+            pending = pendingCompaction;
+        }
+        if (pending == null) {
+            return;
+        }
+
+        try {
+            pending.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IOException("Compaction failed", e.getCause());
+        }
+    }
+
+    /**
+     * Appends a record to the log and triggers compaction if the log is too large.
+     *
+     * @param record        Log record without line separator.
+     * @throws IOException  If unable to write to the log.
+     */
+    private void append(String record) throws IOException {
+        append(List.of(record));
+    }
+
+    /**
+     * Appends records to the log with a single write and triggers compaction if the log is too large.
+     *
+     * @param records       Log records without line separators.
+     * @throws IOException  If unable to write to the log.
+     */
+    private synchronized void append(List<String> records) throws IOException {
+        File parent = logFile.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+
+        BufferedWriter bw = new BufferedWriter(new FileWriter(logFile, StandardCharsets.UTF_8, true));
+        for (String record : records) {
+            bw.write(record + System.lineSeparator());
+        }
+        bw.close();
+
+        if (logFile.length() < compactThreshold) {
+            return;
+        }
+        // A rotated log left by a failed compaction is merged again before the log can rotate once more.
+        if (!rotatedLogFile.exists()) {
+            Files.move(logFile.toPath(), rotatedLogFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        }
+        scheduleCompaction();
+    }
+
+    /**
+     * Queues the rotated log to be merged into the base file.
+     */
+    private synchronized void scheduleCompaction() {
+        if (pendingCompaction != null && !pendingCompaction.isDone()) {
+            return;
+        }
+        pendingCompaction = compactor.submit(() -> {
+            compact();
+            return null;
+        });
+    }
+
+    /**
+     * Merges the rotated log into a new base file.
+     * The rotated log is deleted only after the new base is fully written, so that on startup
+     * a leftover compact file without a rotated log is known to be complete.
+     *
+     * @throws IOException  If unable to read or write the files.
+     */
+    private void compact() throws IOException {
+        // Only the compactor writes the base file and the rotated log is frozen, so no lock is needed here.
+        List<String> lines = readBase(new ArrayList<>());
+        replay(rotatedLogFile, lines);
+
+        FileOutputStream out = new FileOutputStream(compactFile);
+        BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        for (int i = 0; i < lines.size(); ++i) {
+            if (i > 0) {
+                bw.write(System.lineSeparator());
+            }
+            bw.write(lines.get(i));
+        }
+        bw.flush();
+        out.getFD().sync();
+        bw.close();
+
+        synchronized (this) {
+            Files.delete(rotatedLogFile.toPath());
+            Files.move(compactFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Reads the lines of the base file that hold tasks.
+     * Log records refer to tasks by their place in the list loaded, which has no unreadable lines,
+     * so unreadable lines are left out before the logs are replayed.
+     *
+     * @param unreadable    Receives the lines that cannot be read as tasks.
+     * @return lines        Lines of the base file that can be read, in file order.
+     * @throws IOException  If unable to read the base file.
+     */
+    private List<String> readBase(List<String> unreadable) throws IOException {
+        List<String> lines = readLines(file);
+        lines.removeIf(line -> toTask(line) == null && unreadable.add(line));
+        return lines;
+    }
+
+    /**
+     * Replaces the base file with the given lines.
+     *
+     * @param lines         Lines of the base file.
+     * @throws IOException  If unable to write the base file.
+     */
+    private void writeBase(List<String> lines) throws IOException {
+        File temp = new File(filePath + ".tmp");
+        BufferedWriter bw = new BufferedWriter(new FileWriter(temp, StandardCharsets.UTF_8));
+        for (int i = 0; i < lines.size(); ++i) {
+            if (i > 0) {
+                bw.write(System.lineSeparator());
+            }
+            bw.write(lines.get(i));
+        }
+        bw.close();
+
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private Task toTask(String line) {
+        try {
+            return parseTask(line);
+        } catch (NoSuchElementException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Finishes or discards a compaction that was interrupted by a crash.
+     *
+     * @throws IOException  If unable to move or delete the files.
+     */
+    private void recoverCompaction() throws IOException {
+        if (!compactFile.exists()) {
+            return;
+        }
+
+        if (rotatedLogFile.exists()) {
+            Files.delete(compactFile.toPath());
+        } else {
+            Files.move(compactFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Applies every record in the log to the lines of the save file.
+     * A record is complete only if it ends in a line separator and its task can be read. An incomplete
+     * last record was torn by a crash while it was written, so the log is cut short before it, and
+     * records appended later start on a line of their own.
+     *
+     * @param log           Log file to replay.
+     * @param lines         Lines of the save file, modified in place.
+     * @throws IOException  If unable to read the log, or a record before the last is malformed.
+     */
+    private void replay(File log, List<String> lines) throws IOException {
+        if (!log.exists()) {
+            return;
+        }
+
+        byte[] content = Files.readAllBytes(log.toPath());
+        int end = 0;
+        int numOfRecords = 0;
+        for (int i = 0; i < content.length; ++i) {
+            if (content[i] != '\n') {
+                continue;
+            }
+            String record = new String(content, end, i - end, StandardCharsets.UTF_8).strip();
+            numOfRecords++;
+            if (!record.isEmpty()) {
+                try {
+                    apply(record, lines);
+                } catch (IndexOutOfBoundsException | IllegalArgumentException e) {
+                    if (!isBlank(content, i + 1)) {
+                        throw new IOException("Log error, cannot replay record " + numOfRecords + " of " + log, e);
+                    }
+                    break;
+                }
+            }
+            end = i + 1;
+        }
+
+        if (end < content.length) {
+            System.out.println("Log error, dropping torn record: "
+                    + new String(content, end, content.length - end, StandardCharsets.UTF_8).strip());
+            try (FileChannel channel = FileChannel.open(log.toPath(), StandardOpenOption.WRITE)) {
+                channel.truncate(end);
+            }
+        }
+    }
+
+    private static boolean isBlank(byte[] content, int from) {
+        return new String(content, from, content.length - from, StandardCharsets.UTF_8).isBlank();
+    }
+
+    /**
+     * Applies a log record to the lines of the save file. Nothing is changed if the record is malformed.
+     *
+     * @param record        Log record.
+     * @param lines         Lines of the save file, modified in place.
+     * @throws IndexOutOfBoundsException    If the record is missing fields or its index is out of range.
+     * @throws IllegalArgumentException     If the index of the record is not a number, or its task cannot be read.
+     */
+    private void apply(String record, List<String> lines) {
+        String[] fields = record.split(" \\| ", 3);
+
+        switch (fields[0]) {
+        case ADD:
+            lines.add(checkTask(record.substring(ADD.length() + 3)));
+            break;
+
+        case UPDATE:
+            lines.set(Integer.parseInt(fields[1]), checkTask(fields[2]));
+            break;
+
+        case DELETE:
+            lines.remove(Integer.parseInt(fields[1]));
+            break;
+
+        case INSERT:
+            lines.add(Integer.parseInt(fields[1]), checkTask(fields[2]));
+            break;
+
+        default:
+            System.out.println("Log error, skipping record: " + record);
+        }
+    }
+
+    private String checkTask(String line) {
+        if (toTask(line) == null) {
+            throw new IllegalArgumentException("Cannot read task: " + line);
+        }
+        return line;
+    }
+
+    /**
+     * Reads all non-blank lines of a file.
+     *
+     * @param source        File to read.
+     * @return lines        Lines of the file, empty if the file does not exist.
+     * @throws IOException  If unable to read the file.
+     */
+    private static List<String> readLines(File source) throws IOException {
+        ArrayList<String> lines = new ArrayList<>();
+        if (!source.exists()) {
+            return lines;
+        }
+
+        BufferedReader br = new BufferedReader(new FileReader(source, StandardCharsets.UTF_8));
+        String line;
+        while ((line = br.readLine()) != null) {
+            if (!line.isBlank()) {
+                lines.add(line);
+            }
+        }
+        br.close();
+
+        return lines;
+    }
+}
@@ -0,0 +1,60 @@
+package anxi.storage;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+import anxi.command.Storage;
+import anxi.tasks.Task;
+
+/**
+ * Storage that indexes the save file on load and decodes each task only when it is first accessed.
+ */
+public class LazyStorage extends Storage {
+
+    /**
+     * LazyStorage constructor.
+     *
+     * @param filePath      Location of save file.
+     */
+    public LazyStorage(String filePath) {
+        super(filePath);
+    }
+
+    /**
+     * Loads the save file as a list that decodes tasks on demand.
+     * If any line is blank or cannot be read, the file is written again with only the lines of the tasks loaded.
+     * A file saved before tasks had ids is read in full once instead, so that its tasks are given ids.
+     *
+     * @return taskList     List of tasks backed by the save file contents.
+     * @throws IOException  If unable to read the save file.
+     */
+    @Override
+    public List<Task> loadTasks() throws IOException {
+        if (!file.exists()) {
+            handleFileAccessErrors();
+        }
+
+        LazyTaskList tasks = new LazyTaskList(Files.readAllBytes(file.toPath()), Charset.defaultCharset(),
+                this::parseTask);
+        if (!tasks.hasAscendingIds()) {
+            return super.loadTasks();
+        }
+        if (tasks.hasSkippedLines()) {
+            setAside(tasks.getUnreadableLines());
+
+            File temp = new File(filePath + ".tmp");
+            OutputStream out = new BufferedOutputStream(new FileOutputStream(temp));
+            tasks.writeLines(out, System.lineSeparator().getBytes(Charset.defaultCharset()));
+            out.close();
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        return tasks;
+    }
+}
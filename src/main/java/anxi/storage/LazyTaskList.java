@@ -0,0 +1,374 @@
+package anxi.storage;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.Function;
+
+import anxi.command.AnxiException;
+import anxi.command.IdSource;
+import anxi.handlers.Handler;
+import anxi.tasks.Task;
+
+/**
+ * List of tasks that decodes each task from its save file line the first time it is accessed.
+ *
+ * <p>Only the position of each line and a byte holding its type and done flag are kept until then.
+ * Decoded tasks are cached, and tasks added or replaced later are held as objects.
+ * Access is synchronized, so tasks can be decoded by several threads reading the list at once.
+ */
+public class LazyTaskList extends AbstractList<Task> implements RandomAccess, IdSource {
+    private static final byte DONE_FLAG = (byte) 0x80;
+    private static final byte TYPE_MASK = 0x7F;
+    // Id, type, done flag, description and up to two dates.
+    private static final int MAX_FIELDS = 6;
+
+    private final byte[] source;
+    private final Charset charset;
+    private final Function<String, Task> decoder;
+    private int[] starts;
+    private int[] ends;
+    private byte[] meta;
+    private Task[] cache;
+    private int size;
+    private int materialized;
+    private int numOfBlankLines;
+    private int largestId;
+    private boolean hasAscendingIds = true;
+    private final ArrayList<String> unreadableLines = new ArrayList<>();
+    private final int[] fieldStarts = new int[MAX_FIELDS];
+    private final int[] fieldEnds = new int[MAX_FIELDS];
+    private final Handler dateParser = new Handler();
+
+    /**
+     * LazyTaskList constructor.
+     * Indexes the lines of the save file without decoding them.
+     *
+     * @param source        Contents of the save file.
+     * @param charset       Charset the save file is written in.
+     * @param decoder       Converts a save file line into a task.
+     */
+    public LazyTaskList(byte[] source, Charset charset, Function<String, Task> decoder) {
+        this.source = source;
+        this.charset = charset;
+        this.decoder = decoder;
+
+        int capacity = 16;
+        starts = new int[capacity];
+        ends = new int[capacity];
+        meta = new byte[capacity];
+
+        int lineStart = 0;
+        for (int i = 0; i <= source.length; ++i) {
+            if (i < source.length && source[i] != '\n') {
+                continue;
+            }
+            // The empty piece after a final newline is not a line of the file.
+            if (i == source.length && lineStart == source.length) {
+                break;
+            }
+            int lineEnd = (i > lineStart && source[i - 1] == '\r') ? i - 1 : i;
+            indexLine(lineStart, lineEnd);
+            lineStart = i + 1;
+        }
+        cache = new Task[starts.length];
+    }
+
+    /**
+     * Retrieves the task at the index, decoding it if it has not been accessed before.
+     *
+     * @param index     Index of task.
+     * @return task     Task at the index.
+     */
+    @Override
+    public synchronized Task get(int index) {
+        checkIndex(index);
+        if (cache[index] == null) {
+            cache[index] = decoder.apply(new String(source, starts[index], ends[index] - starts[index], charset));
+            materialized++;
+        }
+        return cache[index];
+    }
+
+    @Override
+    public synchronized int size() {
+        return size;
+    }
+
+    @Override
+    public synchronized Task set(int index, Task task) {
+        Task old = get(index);
+        cache[index] = task;
+        meta[index] = metaOf(task);
+        largestId = Math.max(largestId, task.getId());
+        return old;
+    }
+
+    @Override
+    public synchronized void add(int index, Task task) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        ensureCapacity(size + 1);
+        shift(index, index + 1, size - index);
+
+        starts[index] = -1;
+        ends[index] = -1;
+        meta[index] = metaOf(task);
+        cache[index] = task;
+        largestId = Math.max(largestId, task.getId());
+        size++;
+        materialized++;
+        modCount++;
+    }
+
+    @Override
+    public synchronized Task remove(int index) {
+        Task old = get(index);
+        shift(index + 1, index, size - index - 1);
+        size--;
+        cache[size] = null;
+        materialized--;
+        modCount++;
+        return old;
+    }
+
+    /**
+     * Retrieves the type of the task at the index without decoding it.
+     *
+     * @param index     Index of task.
+     * @return type     'T', 'D' or 'E'.
+     */
+    public synchronized char getType(int index) {
+        checkIndex(index);
+        return (char) (meta[index] & TYPE_MASK);
+    }
+
+    /**
+     * Checks if the task at the index is done without decoding it.
+     *
+     * @param index     Index of task.
+     * @return isDone   True: complete, False: uncompleted.
+     */
+    public synchronized boolean isDone(int index) {
+        checkIndex(index);
+        if (cache[index] != null) {
+            return cache[index].isDone();
+        }
+        return (meta[index] & DONE_FLAG) != 0;
+    }
+
+    /**
+     * Retrieves the number of tasks that have been decoded or added.
+     *
+     * @return count    Number of tasks held as objects.
+     */
+    public synchronized int getNumOfMaterialized() {
+        return materialized;
+    }
+
+    /**
+     * Retrieves the largest id of the lines indexed and of the tasks added or replaced since, without
+     * decoding any line. Ids of tasks removed are still counted.
+     *
+     * @return id       Largest id, 0 if no task has one.
+     */
+    @Override
+    public synchronized int getLargestId() {
+        return largestId;
+    }
+
+    /**
+     * Checks if every line indexed has an id, larger than the id of the line before it.
+     *
+     * @return hasAscendingIds  False if the file was saved before tasks had ids.
+     */
+    synchronized boolean hasAscendingIds() {
+        return hasAscendingIds;
+    }
+
+    /**
+     * Checks if any line of the file was skipped, so that lines of the file and tasks no longer match one to one.
+     *
+     * @return isSkipped    True if a line was blank or could not be read.
+     */
+    synchronized boolean hasSkippedLines() {
+        return numOfBlankLines > 0 || !unreadableLines.isEmpty();
+    }
+
+    /**
+     * Retrieves the lines that could not be read.
+     *
+     * @return lines    Contents of each unreadable line, in file order.
+     */
+    synchronized List<String> getUnreadableLines() {
+        return unreadableLines;
+    }
+
+    /**
+     * Writes the lines the tasks were loaded from, in list order, without decoding them.
+     * Used right after loading, before any task is added or replaced.
+     *
+     * @param out           Stream to write to.
+     * @param separator     Bytes written between lines.
+     * @throws IOException  If unable to write to the stream.
+     */
+    synchronized void writeLines(OutputStream out, byte[] separator) throws IOException {
+        for (int i = 0; i < size; ++i) {
+            assert starts[i] >= 0 : "Task added after loading";
+            if (i > 0) {
+                out.write(separator);
+            }
+            out.write(source, starts[i], ends[i] - starts[i]);
+        }
+    }
+
+    /**
+     * Indexes a single save file line, skipping blank lines and lines that cannot be decoded.
+     * A line is only indexed if it has every field its type needs and its dates can be read, so that
+     * decoding it later cannot fail.
+     */
+    private void indexLine(int start, int end) {
+        int i = start;
+        while (i < end && (source[i] == ' ' || source[i] == '\t')) {
+            i++;
+        }
+        if (i == end) {
+            numOfBlankLines++;
+            return;
+        }
+
+        int numOfFields = splitFields(start, end);
+        int id = numOfFields > 1 ? idOf(0) : 0;
+        int first = id > 0 ? 1 : 0;
+        char type = numOfFields > first && fieldEnds[first] - fieldStarts[first] == 1
+                ? Character.toUpperCase((char) source[fieldStarts[first]]) : ' ';
+        int numOfNeeded = type == 'T' ? 3 : type == 'D' ? 4 : type == 'E' ? 5 : MAX_FIELDS + 1;
+        if (numOfFields - first < numOfNeeded || !hasValidDates(type, first)) {
+            System.out.println("File error, cannot read list");
+            unreadableLines.add(new String(source, start, end - start, charset));
+            return;
+        }
+        int flag = first + 1;
+        boolean isDone = fieldEnds[flag] - fieldStarts[flag] == 1 && source[fieldStarts[flag]] == '1';
+
+        hasAscendingIds &= id > largestId;
+        largestId = Math.max(largestId, id);
+        ensureCapacity(size + 1);
+        starts[size] = start;
+        ends[size] = end;
+        meta[size] = (byte) (type | (isDone ? DONE_FLAG : 0));
+        size++;
+    }
+
+    /**
+     * Finds the fields of a line the way the save file decoder reads them, as runs of characters between
+     * bars with the spaces around them left out. Only the first few fields are kept.
+     *
+     * @return numOfFields  Number of fields found, at most the number kept.
+     */
+    private int splitFields(int start, int end) {
+        int numOfFields = 0;
+        int i = start;
+        while (i < end && numOfFields < MAX_FIELDS) {
+            while (i < end && source[i] == '|') {
+                i++;
+            }
+            if (i == end) {
+                break;
+            }
+            int fieldStart = i;
+            while (i < end && source[i] != '|') {
+                i++;
+            }
+            int fieldEnd = i;
+            while (fieldStart < fieldEnd && Character.isWhitespace(source[fieldStart])) {
+                fieldStart++;
+            }
+            while (fieldEnd > fieldStart && Character.isWhitespace(source[fieldEnd - 1])) {
+                fieldEnd--;
+            }
+            fieldStarts[numOfFields] = fieldStart;
+            fieldEnds[numOfFields] = fieldEnd;
+            numOfFields++;
+        }
+        return numOfFields;
+    }
+
+    /**
+     * Reads a field as a task id, a positive number of at most nine digits.
+     *
+     * @return id       Id in the field, 0 if the field is not an id.
+     */
+    private int idOf(int field) {
+        int length = fieldEnds[field] - fieldStarts[field];
+        if (length == 0 || length > 9) {
+            return 0;
+        }
+        int id = 0;
+        for (int i = fieldStarts[field]; i < fieldEnds[field]; ++i) {
+            if (source[i] < '0' || source[i] > '9') {
+                return 0;
+            }
+            id = id * 10 + (source[i] - '0');
+        }
+        return id;
+    }
+
+    /**
+     * Checks if the dates of a deadline or event can be read. Only these lines are decoded up front.
+     */
+    private boolean hasValidDates(char type, int first) {
+        try {
+            if (type == 'D') {
+                dateParser.parseDateTime(field(first + 3));
+            } else if (type == 'E') {
+                dateParser.parseDateTime(field(first + 3));
+                dateParser.parseTime(field(first + 4));
+            }
+            return true;
+        } catch (AnxiException e) {
+            return false;
+        }
+    }
+
+    private String field(int field) {
+        return new String(source, fieldStarts[field], fieldEnds[field] - fieldStarts[field], charset);
+    }
+
+    private static byte metaOf(Task task) {
+        String line = task.saveFileString();
+        return (byte) (line.charAt(0) | (task.isDone() ? DONE_FLAG : 0));
+    }
+
+    private void shift(int from, int to, int length) {
+        System.arraycopy(starts, from, starts, to, length);
+        System.arraycopy(ends, from, ends, to, length);
+        System.arraycopy(meta, from, meta, to, length);
+        System.arraycopy(cache, from, cache, to, length);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= starts.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, starts.length * 2);
+        starts = Arrays.copyOf(starts, newCapacity);
+        ends = Arrays.copyOf(ends, newCapacity);
+        meta = Arrays.copyOf(meta, newCapacity);
+        if (cache != null) {
+            cache = Arrays.copyOf(cache, newCapacity);
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+}
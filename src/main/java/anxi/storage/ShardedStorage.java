@@ -0,0 +1,425 @@
+package anxi.storage;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+
+import anxi.command.Storage;
+import anxi.command.TaskChanges;
+import anxi.command.TaskStore;
+import anxi.tasks.Deadline;
+import anxi.tasks.Event;
+import anxi.tasks.Task;
+
+/**
+ * Storage that splits tasks into small segment files so that a change only rewrites one of them.
+ *
+ * <p>Todos are kept in one segment, and deadlines and events in one segment per month. Each line of a
+ * segment is "SEQUENCE | LINE", a save file line after the sequence number of its task. Sequence numbers
+ * increase in list order across all segments, so the list is put back together by merging the segments
+ * by sequence, and a change writes only the segments of the tasks it changes. New tasks are only ever
+ * saved at the end of the list, so they take the next sequence number. Segments are read and written
+ * as UTF-8.
+ */
+public class ShardedStorage extends Storage {
+    private static final String TODO_SHARD = "todo";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    // Segments were once plain save files ordered by a manifest of runs, and are converted on load.
+    private static final String MANIFEST = "manifest.txt";
+    private static final String OLD_SEGMENT_SUFFIX = ".txt";
+
+    private final File directory;
+    private final ArrayList<Position> positions = new ArrayList<>();
+    private final HashMap<String, Segment> segments = new HashMap<>();
+    private long nextSequence;
+
+    /**
+     * ShardedStorage constructor.
+     *
+     * @param directory     Directory holding the segment files.
+     * @param filePath      Location of text save file to split up if there are no segments yet.
+     */
+    public ShardedStorage(String directory, String filePath) {
+        super(filePath);
+        this.directory = new File(directory);
+    }
+
+    /**
+     * Loads tasks from every segment, in order of their sequence numbers.
+     * If any line cannot be read, or the sequence numbers of a segment do not increase, the segments
+     * are written again with only the tasks loaded.
+     *
+     * @return taskList     List of tasks retrieved from the segments.
+     * @throws IOException  If unable to read the segments.
+     */
+    @Override
+    public synchronized List<Task> loadTasks() throws IOException {
+        directory.mkdirs();
+        positions.clear();
+        segments.clear();
+        File manifest = new File(directory, MANIFEST);
+        if (manifest.exists()) {
+            return convert(manifest);
+        }
+        String[] names = directory.list((dir, name) -> name.endsWith(SEGMENT_SUFFIX));
+        if (names == null || names.length == 0) {
+            return split(file.exists() ? super.loadTasks() : new ArrayList<>());
+        }
+        Arrays.sort(names);
+
+        TreeMap<Long, Task> tasksBySequence = new TreeMap<>();
+        ArrayList<String> unreadable = new ArrayList<>();
+        boolean isOrdered = true;
+        for (String name : names) {
+            String shard = name.substring(0, name.length() - SEGMENT_SUFFIX.length());
+            Segment segment = new Segment();
+            segments.put(shard, segment);
+            for (String line : Files.readAllLines(shardFile(shard).toPath(), StandardCharsets.UTF_8)) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                long sequence = sequenceOf(line);
+                Task task = sequence < 0 ? null : toTask(line.substring(line.indexOf('|') + 1));
+                if (task == null) {
+                    System.out.println("File error, cannot read list");
+                    unreadable.add(line);
+                    continue;
+                }
+                // A line left by a crash part way through a change may repeat a sequence number.
+                isOrdered &= segment.isAfterLast(sequence) && !tasksBySequence.containsKey(sequence);
+                segment.add(sequence, line.strip());
+                tasksBySequence.putIfAbsent(sequence, task);
+                positions.add(new Position(sequence, shard));
+            }
+        }
+
+        ArrayList<Task> tasks = new ArrayList<>(tasksBySequence.values());
+        if (!unreadable.isEmpty() || !isOrdered || assignIds(tasks)) {
+            setAside(unreadable);
+            return split(tasks);
+        }
+        positions.sort(Comparator.comparingLong(position -> position.sequence));
+        nextSequence = tasksBySequence.isEmpty() ? 0 : tasksBySequence.lastKey() + 1;
+        return tasks;
+    }
+
+    /**
+     * Loads only the deadlines and events in one month.
+     *
+     * @param month         Month to load.
+     * @return tasks        Deadlines and events in the month, in list order.
+     * @throws IOException  If unable to read the segment.
+     */
+    public List<Task> loadMonth(YearMonth month) throws IOException {
+        File shard = shardFile(month.toString());
+        ArrayList<Task> tasks = new ArrayList<>();
+        if (!shard.exists()) {
+            return tasks;
+        }
+
+        for (String line : Files.readAllLines(shard.toPath(), StandardCharsets.UTF_8)) {
+            Task task = sequenceOf(line) < 0 ? null : toTask(line.substring(line.indexOf('|') + 1));
+            if (task != null) {
+                tasks.add(task);
+            }
+        }
+        return tasks;
+    }
+
+    /**
+     * Appends new task to its segment.
+     *
+     * @param task          New task to save.
+     * @throws IOException  If unable to write to the segment.
+     */
+    @Override
+    public synchronized void addNewTask(Task task) throws IOException {
+        addNewTasks(List.of(task));
+    }
+
+    /**
+     * Appends new tasks to their segments, writing each segment once.
+     *
+     * @param tasks         New tasks to save.
+     * @throws IOException  If unable to write to the segments.
+     */
+    @Override
+    public synchronized void addNewTasks(List<Task> tasks) throws IOException {
+        HashMap<String, StringBuilder> appended = new HashMap<>();
+        for (int i = 0; i < tasks.size(); ++i) {
+            Task task = tasks.get(i);
+            appended.computeIfAbsent(shardOf(task), s -> new StringBuilder())
+                    .append(lineOf(nextSequence + i, task)).append(System.lineSeparator());
+        }
+        for (String shard : appended.keySet()) {
+            FileWriter fw = new FileWriter(shardFile(shard), StandardCharsets.UTF_8, true);
+            fw.write(appended.get(shard).toString());
+            fw.close();
+        }
+
+        for (Task task : tasks) {
+            String shard = shardOf(task);
+            segments.computeIfAbsent(shard, s -> new Segment()).add(nextSequence, lineOf(nextSequence, task));
+            positions.add(new Position(nextSequence, shard));
+            nextSequence++;
+        }
+    }
+
+    /**
+     * Deletes tasks from their segments, found by their indices.
+     *
+     * @param tasks         Tasks to be deleted.
+     * @param indices       Indices of tasks to be deleted, in ascending order.
+     * @param numOfTasks    Total number of tasks in task list before any are removed.
+     * @throws IOException  If unable to write to the segments.
+     */
+    @Override
+    public synchronized void deleteTasks(List<Task> tasks, int[] indices, int numOfTasks) throws IOException {
+        HashSet<String> changed = new HashSet<>();
+        for (int i = indices.length - 1; i >= 0; --i) {
+            Position position = positions.remove(indices[i]);
+            segments.get(position.shard).remove(position.sequence);
+            changed.add(position.shard);
+        }
+        for (String shard : changed) {
+            writeShard(shard);
+        }
+    }
+
+    /**
+     * Saves the changes between two versions of the task list with one bulk write for each kind of change.
+     *
+     * @param changes       Changes to save.
+     * @throws IOException  If unable to write to the store.
+     */
+    @Override
+    public synchronized void saveChanges(TaskChanges changes) throws IOException {
+        TaskStore.saveInBulk(this, changes);
+    }
+
+    /**
+     * Updates task in its segment.
+     *
+     * @param task          Updated task.
+     * @param index         Index of task to be updated, starting from 0.
+     * @param numOfTasks    Total number of tasks in task list.
+     * @throws IOException  If unable to write to the segment.
+     */
+    @Override
+    public synchronized void updateTask(Task task, int index, int numOfTasks) throws IOException {
+        updateTasks(List.of(task), new int[] {index}, numOfTasks);
+    }
+
+    /**
+     * Updates several tasks in their segments, writing each segment changed once.
+     *
+     * @param tasks         Updated tasks.
+     * @param indices       Index of each updated task.
+     * @param numOfTasks    Total number of tasks in task list.
+     * @throws IOException  If unable to write to the segments.
+     */
+    @Override
+    public synchronized void updateTasks(List<Task> tasks, int[] indices, int numOfTasks) throws IOException {
+        HashSet<String> changed = new HashSet<>();
+        for (int i = 0; i < indices.length; ++i) {
+            Position position = positions.get(indices[i]);
+            assert position.shard.equals(shardOf(tasks.get(i))) : "Updated task moved to another segment";
+
+            segments.get(position.shard).set(position.sequence, lineOf(position.sequence, tasks.get(i)));
+            changed.add(position.shard);
+        }
+        for (String shard : changed) {
+            writeShard(shard);
+        }
+    }
+
+    /**
+     * Converts segments ordered by a manifest into segments holding sequence numbers.
+     * The new segments are written before the manifest is deleted, and have another suffix, so a crash
+     * part way through leaves the old segments and manifest to convert again.
+     *
+     * @param manifest      Manifest of "SEGMENT COUNT" lines, each a run of consecutive list positions in a segment.
+     * @return tasks        Tasks read from the old segments.
+     * @throws IOException  If unable to read the old segments or write the new ones.
+     */
+    private List<Task> convert(File manifest) throws IOException {
+        HashMap<String, Iterator<String>> remaining = new HashMap<>();
+        ArrayList<String> unreadable = new ArrayList<>();
+        ArrayList<Task> tasks = new ArrayList<>();
+        for (String run : Files.readAllLines(manifest.toPath(), StandardCharsets.UTF_8)) {
+            if (run.isBlank()) {
+                continue;
+            }
+            String[] fields = run.strip().split(" ");
+            if (!remaining.containsKey(fields[0])) {
+                File old = new File(directory, fields[0] + OLD_SEGMENT_SUFFIX);
+                ArrayList<String> lines = new ArrayList<>();
+                if (old.exists()) {
+                    lines.addAll(Files.readAllLines(old.toPath(), StandardCharsets.UTF_8));
+                }
+                lines.removeIf(String::isBlank);
+                remaining.put(fields[0], lines.iterator());
+            }
+
+            Iterator<String> lines = remaining.get(fields[0]);
+            for (int i = Integer.parseInt(fields[1]); i > 0 && lines.hasNext(); --i) {
+                String line = lines.next();
+                Task task = toTask(line);
+                if (task != null) {
+                    tasks.add(task);
+                } else {
+                    unreadable.add(line);
+                }
+            }
+        }
+
+        assignIds(tasks);
+        setAside(unreadable);
+        split(tasks);
+        Files.delete(manifest.toPath());
+        for (String shard : remaining.keySet()) {
+            Files.deleteIfExists(new File(directory, shard + OLD_SEGMENT_SUFFIX).toPath());
+        }
+        return tasks;
+    }
+
+    /**
+     * Writes every segment again to hold exactly the given tasks, numbered from 0 in list order.
+     * Segments none of the tasks belong to are emptied, and the todo segment is always written so that
+     * the text save file is not split up again once every task is deleted.
+     *
+     * @param tasks         Tasks in list order.
+     * @return tasks        The same tasks.
+     * @throws IOException  If unable to write the segments.
+     */
+    private List<Task> split(List<Task> tasks) throws IOException {
+        positions.clear();
+        for (Segment segment : segments.values()) {
+            segment.clear();
+        }
+        segments.computeIfAbsent(TODO_SHARD, s -> new Segment());
+        for (int i = 0; i < tasks.size(); ++i) {
+            String shard = shardOf(tasks.get(i));
+            segments.computeIfAbsent(shard, s -> new Segment()).add(i, lineOf(i, tasks.get(i)));
+            positions.add(new Position(i, shard));
+        }
+        nextSequence = tasks.size();
+
+        for (String shard : segments.keySet()) {
+            writeShard(shard);
+        }
+        return tasks;
+    }
+
+    /**
+     * Reads the sequence number at the start of a segment line.
+     *
+     * @return sequence     Sequence number, -1 if the line does not start with one.
+     */
+    private static long sequenceOf(String line) {
+        int end = line.indexOf('|');
+        try {
+            return end < 0 ? -1 : Long.parseLong(line.substring(0, end).strip());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static String lineOf(long sequence, Task task) {
+        return sequence + " | " + toRecord(task);
+    }
+
+    private Task toTask(String line) {
+        try {
+            return parseTask(line);
+        } catch (NoSuchElementException e) {
+            return null;
+        }
+    }
+
+    private void writeShard(String shard) throws IOException {
+        File target = shardFile(shard);
+        File temp = new File(target.getPath() + ".tmp");
+        BufferedWriter bw = new BufferedWriter(new FileWriter(temp, StandardCharsets.UTF_8));
+        for (String line : segments.get(shard).lines) {
+            bw.write(line);
+            bw.write(System.lineSeparator());
+        }
+        bw.close();
+        Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private File shardFile(String shard) {
+        return new File(directory, shard + SEGMENT_SUFFIX);
+    }
+
+    private static String shardOf(Task task) {
+        if (task instanceof Deadline) {
+            return YearMonth.from(((Deadline) task).getBy()).toString();
+        } else if (task instanceof Event) {
+            return YearMonth.from(((Event) task).getFrom()).toString();
+        }
+        return TODO_SHARD;
+    }
+
+    /**
+     * Segment and sequence number of the task at a list position.
+     */
+    private static class Position {
+        private final long sequence;
+        private final String shard;
+
+        Position(long sequence, String shard) {
+            this.sequence = sequence;
+            this.shard = shard;
+        }
+    }
+
+    /**
+     * Lines of a segment in file order, which is also the order of their sequence numbers, so the line
+     * of a task is found by a binary search on its sequence number.
+     */
+    private static class Segment {
+        private final ArrayList<Long> sequences = new ArrayList<>();
+        private final ArrayList<String> lines = new ArrayList<>();
+
+        boolean isAfterLast(long sequence) {
+            return sequences.isEmpty() || sequences.get(sequences.size() - 1) < sequence;
+        }
+
+        void add(long sequence, String line) {
+            sequences.add(sequence);
+            lines.add(line);
+        }
+
+        void set(long sequence, String line) {
+            lines.set(Collections.binarySearch(sequences, sequence), line);
+        }
+
+        void remove(long sequence) {
+            int index = Collections.binarySearch(sequences, sequence);
+            sequences.remove(index);
+            lines.remove(index);
+        }
+
+        void clear() {
+            sequences.clear();
+            lines.clear();
+        }
+    }
+}
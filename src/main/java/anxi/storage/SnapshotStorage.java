@@ -0,0 +1,399 @@
+package anxi.storage;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import anxi.command.Storage;
+import anxi.command.TaskChanges;
+import anxi.command.TaskStore;
+import anxi.tasks.Task;
+
+/**
+ * Storage that checkpoints the task list as binary snapshots plus a delta file of later changes.
+ *
+ * <p>Snapshot and delta files are numbered by generation. Delta generation g holds the changes made
+ * after snapshot g was taken. Every time the delta reaches the checkpoint interval, a new generation
+ * is started and the current list is written as its snapshot on a background thread. On startup the
+ * newest complete snapshot is loaded and only the deltas from its generation onwards are replayed.
+ * The text save file is only read to create the first snapshot.
+ */
+public class SnapshotStorage extends Storage {
+    /** Default number of changes after which a new snapshot is taken. */
+    public static final int DEFAULT_CHECKPOINT_INTERVAL = 10_000;
+
+    private static final byte ADD = 0;
+    private static final byte UPDATE = 1;
+    private static final byte DELETE = 2;
+
+    private final File directory;
+    private final String baseName;
+    private final int checkpointInterval;
+    private final ExecutorService checkpointer;
+    private final ArrayList<Task> tasks = new ArrayList<>();
+    private Future<?> pendingCheckpoint;
+    private DataOutputStream delta;
+    private int generation;
+    private int changesSinceSnapshot;
+
+    /**
+     * SnapshotStorage constructor.
+     *
+     * @param filePath              Location of text save file.
+     * @param checkpointInterval    Number of changes after which a new snapshot is taken.
+     */
+    public SnapshotStorage(String filePath, int checkpointInterval) {
+        super(filePath);
+        this.directory = file.getAbsoluteFile().getParentFile();
+        this.baseName = file.getName();
+        this.checkpointInterval = checkpointInterval;
+        this.checkpointer = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "anxi-checkpointer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Loads tasks from the newest snapshot and replays the deltas taken after it.
+     *
+     * @return taskList     List of tasks retrieved from the snapshot and deltas.
+     * @throws IOException  If unable to read the snapshot or deltas.
+     */
+    @Override
+    public synchronized ArrayList<Task> loadTasks() throws IOException {
+        directory.mkdirs();
+        tasks.clear();
+
+        int latest = latestGeneration("snap");
+        boolean hasIds = true;
+        if (latest < 0) {
+            tasks.addAll(super.loadTasks());
+            latest = 0;
+            writeSnapshot(new ArrayList<>(tasks), latest);
+        } else {
+            tasks.addAll(BinaryTaskFile.read(snapshotFile(latest).toPath(), null));
+            hasIds = BinaryTaskFile.hasIds(snapshotFile(latest).toPath());
+        }
+
+        generation = latest;
+        changesSinceSnapshot = 0;
+        while (deltaFile(generation).exists()) {
+            truncate(deltaFile(generation), replay(deltaFile(generation), hasIds));
+            if (!deltaFile(generation + 1).exists()) {
+                break;
+            }
+            generation++;
+        }
+        // Deltas after a snapshot taken before tasks had ids have no ids either, so once the tasks are
+        // given ids they are written as the snapshot of a new generation.
+        if (assignIds(tasks)) {
+            generation++;
+            changesSinceSnapshot = 0;
+            writeSnapshot(new ArrayList<>(tasks), generation);
+        }
+        openDelta();
+
+        return new ArrayList<>(tasks);
+    }
+
+    /**
+     * Appends an add record to the delta file.
+     *
+     * @param task          New task to save.
+     * @throws IOException  If unable to write to the delta file.
+     */
+    @Override
+    public synchronized void addNewTask(Task task) throws IOException {
+        tasks.add(task);
+        byte[] record = BinaryTaskFile.encode(task);
+        delta.writeByte(ADD);
+        delta.writeInt(record.length);
+        delta.write(record);
+        commit();
+    }
+
+    /**
+     * Appends add records for all new tasks to the delta file with a single write.
+     *
+     * @param newTasks      New tasks to save.
+     * @throws IOException  If unable to write to the delta file.
+     */
+    @Override
+    public synchronized void addNewTasks(List<Task> newTasks) throws IOException {
+        for (Task task : newTasks) {
+            tasks.add(task);
+            byte[] record = BinaryTaskFile.encode(task);
+            delta.writeByte(ADD);
+            delta.writeInt(record.length);
+            delta.write(record);
+        }
+        commit(newTasks.size());
+    }
+
+    /**
+     * Appends an update record to the delta file.
+     *
+     * @param task          Updated task.
+     * @param index         Index of task to be updated, starting from 0.
+     * @param numOfTasks    Total number of tasks in task list.
+     * @throws IOException  If unable to write to the delta file.
+     */
+    @Override
+    public synchronized void updateTask(Task task, int index, int numOfTasks) throws IOException {
+        tasks.set(index, task);
+        byte[] record = BinaryTaskFile.encode(task);
+        delta.writeByte(UPDATE);
+        delta.writeInt(index);
+        delta.writeInt(record.length);
+        delta.write(record);
+        commit();
+    }
+
+    /**
+     * Appends update records for several tasks to the delta file with a single write.
+     *
+     * @param updated       Updated tasks.
+     * @param indices       Index of each updated task.
+     * @param numOfTasks    Total number of tasks in task list.
+     * @throws IOException  If unable to write to the delta file.
+     */
+    @Override
+    public synchronized void updateTasks(List<Task> updated, int[] indices, int numOfTasks) throws IOException {
+        for (int i = 0; i < indices.length; ++i) {
+            tasks.set(indices[i], updated.get(i));
+            byte[] record = BinaryTaskFile.encode(updated.get(i));
+            delta.writeByte(UPDATE);
+            delta.writeInt(indices[i]);
+            delta.writeInt(record.length);
+            delta.write(record);
+        }
+        commit(indices.length);
+    }
+
+    /**
+     * Appends delete records to the delta file. Delta records refer to tasks by index.
+     *
+     * @param deleted       Tasks to be deleted.
+     * @param indices       Indices of tasks to be deleted, in ascending order.
+     * @param numOfTasks    Total number of tasks in task list before any are removed.
+     * @throws IOException  If unable to write to the delta file.
+     */
+    @Override
+    public synchronized void deleteTasks(List<Task> deleted, int[] indices, int numOfTasks) throws IOException {
+        for (int i = indices.length - 1; i >= 0; --i) {
+            tasks.remove(indices[i]);
+            delta.writeByte(DELETE);
+            delta.writeInt(indices[i]);
+        }
+        commit(indices.length);
+    }
+
+    /**
+     * Saves the changes between two versions of the task list with one bulk write for each kind of change.
+     *
+     * @param changes       Changes to save.
+     * @throws IOException  If unable to write to the store.
+     */
+    @Override
+    public synchronized void saveChanges(TaskChanges changes) throws IOException {
+        TaskStore.saveInBulk(this, changes);
+    }
+
+    /**
+     * Starts a new generation and writes the current task list as its snapshot in the background.
+     *
+     * @throws IOException  If unable to start the new delta file.
+     */
+    public synchronized void checkpoint() throws IOException {
+        int snapshotGeneration = generation + 1;
+        ArrayList<Task> snapshot = new ArrayList<>(tasks);
+
+        delta.close();
+        generation = snapshotGeneration;
+        changesSinceSnapshot = 0;
+        openDelta();
+
+        // Tasks updated after this point may leak into the snapshot, but their update records in the
+        // new delta set them to the same value again, so replaying is still correct.
+        pendingCheckpoint = checkpointer.submit(() -> {
+            writeSnapshot(snapshot, snapshotGeneration);
+            return null;
+        });
+    }
+
+    /**
+     * Waits for any running snapshot to be written.
+     *
+     * @throws IOException  If writing the snapshot failed.
+     */
+    public void awaitCheckpoint() throws IOException {
+        Future<?> pending;
+        synchronized (this) {
+            pending = pendingCheckpoint;
+        }
+        if (pending == null) {
+            return;
+        }
+
+        try {
+            pending.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IOException("Checkpoint failed", e.getCause());
+        }
+    }
+
+    private void commit() throws IOException {
+        commit(1);
+    }
+
+    private void commit(int numOfChanges) throws IOException {
+        delta.flush();
+        changesSinceSnapshot += numOfChanges;
+        if (changesSinceSnapshot >= checkpointInterval) {
+            checkpoint();
+        }
+    }
+
+    private void openDelta() throws IOException {
+        delta = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(deltaFile(generation), true)));
+    }
+
+    /**
+     * Writes a snapshot, then removes the files of older generations it replaces.
+     *
+     * @param snapshot      Tasks to write.
+     * @param gen           Generation of the snapshot.
+     * @throws IOException  If unable to write the snapshot.
+     */
+    private void writeSnapshot(List<Task> snapshot, int gen) throws IOException {
+        File temp = new File(directory, baseName + ".snap.tmp");
+        BinaryTaskFile.write(snapshot, temp.toPath());
+        Files.move(temp.toPath(), snapshotFile(gen).toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+        for (int old = gen - 1; old >= 0 && (snapshotFile(old).exists() || deltaFile(old).exists()); --old) {
+            Files.deleteIfExists(snapshotFile(old).toPath());
+            Files.deleteIfExists(deltaFile(old).toPath());
+        }
+    }
+
+    /**
+     * Applies every complete record in a delta file to the task list.
+     *
+     * @param source        Delta file to replay.
+     * @param hasIds        False if the records were written before tasks had ids.
+     * @return end          Offset after the last complete record, where a record cut short by a crash starts.
+     * @throws IOException  If unable to read the delta file.
+     */
+    private long replay(File source, boolean hasIds) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(source)));
+        long end = 0;
+        try {
+            while (true) {
+                byte op = in.readByte();
+                int length;
+                switch (op) {
+                case ADD:
+                    byte[] added = readRecord(in);
+                    tasks.add(BinaryTaskFile.decode(ByteBuffer.wrap(added), hasIds));
+                    length = 1 + Integer.BYTES + added.length;
+                    break;
+
+                case UPDATE:
+                    int index = in.readInt();
+                    byte[] updated = readRecord(in);
+                    tasks.set(index, BinaryTaskFile.decode(ByteBuffer.wrap(updated), hasIds));
+                    length = 1 + 2 * Integer.BYTES + updated.length;
+                    break;
+
+                case DELETE:
+                    tasks.remove(in.readInt());
+                    length = 1 + Integer.BYTES;
+                    break;
+
+                default:
+                    throw new IOException("Corrupted delta file " + source);
+                }
+                end += length;
+                changesSinceSnapshot++;
+            }
+        } catch (EOFException e) {
+            // End of delta reached, a record cut short by a crash is dropped.
+        } finally {
+            in.close();
+        }
+
+        return end;
+    }
+
+    /**
+     * Cuts a delta file short after its last complete record, so that records appended later follow it
+     * rather than the remains of a record cut short by a crash.
+     *
+     * @param source        Delta file.
+     * @param end           Offset after the last complete record.
+     * @throws IOException  If unable to truncate the delta file.
+     */
+    private static void truncate(File source, long end) throws IOException {
+        try (FileChannel channel = FileChannel.open(source.toPath(), StandardOpenOption.WRITE)) {
+            if (channel.size() > end) {
+                System.out.println("Delta error, dropping record cut short at " + end);
+                channel.truncate(end);
+            }
+        }
+    }
+
+    private static byte[] readRecord(DataInputStream in) throws IOException {
+        byte[] record = new byte[in.readInt()];
+        in.readFully(record);
+        return record;
+    }
+
+    private int latestGeneration(String kind) {
+        String prefix = baseName + "." + kind + ".";
+        String[] names = directory.list();
+        int latest = -1;
+        if (names == null) {
+            return latest;
+        }
+
+        for (String name : names) {
+            if (!name.startsWith(prefix)) {
+                continue;
+            }
+            try {
+                latest = Math.max(latest, Integer.parseInt(name.substring(prefix.length())));
+            } catch (NumberFormatException e) {
+                // Not a numbered generation, such as a temporary file.
+            }
+        }
+        return latest;
+    }
+
+    private File snapshotFile(int gen) {
+        return new File(directory, baseName + ".snap." + gen);
+    }
+
+    private File deltaFile(int gen) {
+        return new File(directory, baseName + ".delta." + gen);
+    }
+}
@@ -0,0 +1,453 @@
+package anxi.storage;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import anxi.command.Storage;
+import anxi.command.TaskChanges;
+import anxi.tasks.Task;
+
+/**
+ * Storage that queues mutations and writes them to the save file in batches.
+ *
+ * <p>Queued mutations are coalesced into a single write per flush: an append if the batch only
+ * adds tasks, otherwise one rewrite of the whole file. When they are flushed depends on the
+ * {@link Durability} policy.
+ *
+ * <p>A batch is applied to the lines kept in memory only once it has been written, and a batch that
+ * fails to be written goes back to the front of the queue, so the next flush writes it again.
+ * Until a flush succeeds, the error is thrown to every caller queueing more changes.
+ */
+public class WriteBehindStorage extends Storage {
+    /**
+     * When queued mutations are written to disk.
+     */
+    public enum Durability {
+        /** Every mutation is written before the call returns. */
+        EVERY_OP,
+        /** Mutations are written by a background flusher at a fixed interval. */
+        INTERVAL,
+        /** Mutations are written only when the storage is flushed, such as on exit. */
+        ON_EXIT
+    }
+
+    private static final int ADD = 0;
+    private static final int UPDATE = 1;
+    private static final int DELETE = 2;
+    private static final int INSERT = 3;
+
+    /** Storages with queued mutations, flushed by a single hook when the program exits. */
+    private static final Set<WriteBehindStorage> UNFLUSHED = new HashSet<>();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(WriteBehindStorage::flushAll, "anxi-exit-flusher"));
+    }
+
+    private final Durability durability;
+    private final boolean isSyncing;
+    private final Object flushLock = new Object();
+    private ArrayList<String> lines = new ArrayList<>();
+    private ArrayList<Mutation> pending = new ArrayList<>();
+    private ScheduledExecutorService flusher;
+    private IOException flushError;
+    private boolean isRewriteNeeded;
+
+    /**
+     * WriteBehindStorage constructor.
+     *
+     * @param filePath      Location of save file.
+     * @param durability    When queued mutations are written to disk.
+     * @param intervalMs    Milliseconds between flushes, used only by {@link Durability#INTERVAL}.
+     * @param isSyncing     Whether every flush is forced to the storage device with fsync.
+     */
+    public WriteBehindStorage(String filePath, Durability durability, long intervalMs, boolean isSyncing) {
+        super(filePath);
+        this.durability = durability;
+        this.isSyncing = isSyncing;
+
+        if (durability == Durability.INTERVAL) {
+            flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "anxi-flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            flusher.scheduleWithFixedDelay(this::flushQuietly, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Loads tasks from save file and keeps its lines to apply queued mutations to.
+     * Queued mutations refer to tasks by index, so if any line is blank or cannot be read, the file is
+     * written again with only the lines of the tasks loaded.
+     *
+     * @return taskList     List of tasks retrieved from save file.
+     * @throws IOException  If unable to read the save file.
+     */
+    @Override
+    public ArrayList<Task> loadTasks() throws IOException {
+        if (!file.exists()) {
+            handleFileAccessErrors();
+        }
+
+        ArrayList<Task> tasks = new ArrayList<>();
+        synchronized (flushLock) {
+            lines.clear();
+            isRewriteNeeded = false;
+            ArrayList<String> unreadable = new ArrayList<>();
+            boolean isSkipped = false;
+            BufferedReader br = new BufferedReader(new FileReader(file));
+            String line;
+            while ((line = br.readLine()) != null) {
+                if (line.isBlank()) {
+                    isSkipped = true;
+                    continue;
+                }
+                Task task;
+                try {
+                    task = parseTask(line);
+                } catch (NoSuchElementException e) {
+                    task = null;
+                }
+
+                if (task != null) {
+                    lines.add(line);
+                    tasks.add(task);
+                } else {
+                    System.out.println("File error, cannot read list");
+                    unreadable.add(line);
+                }
+            }
+            br.close();
+
+            // Tasks saved before they had ids are given them, and are written again with their ids.
+            boolean isAssigned = assignIds(tasks);
+            if (isAssigned) {
+                lines.clear();
+                for (Task task : tasks) {
+                    lines.add(toRecord(task));
+                }
+            }
+            if (isSkipped || !unreadable.isEmpty() || isAssigned) {
+                setAside(unreadable);
+                rewrite(lines);
+            }
+        }
+
+        return tasks;
+    }
+
+    /**
+     * Queues new task to be added to file.
+     *
+     * @param task          New task to save to file.
+     * @throws IOException  If a previous flush failed.
+     */
+    @Override
+    public void addNewTask(Task task) throws IOException {
+        enqueue(new Mutation(ADD, -1, toRecord(task)));
+    }
+
+    /**
+     * Queues new tasks to be added to file.
+     *
+     * @param tasks         New tasks to save to file.
+     * @throws IOException  If a previous flush failed.
+     */
+    @Override
+    public void addNewTasks(List<Task> tasks) throws IOException {
+        ArrayList<Mutation> mutations = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            mutations.add(new Mutation(ADD, -1, toRecord(task)));
+        }
+        enqueue(mutations);
+    }
+
+    /**
+     * Queues task to be updated in file.
+     *
+     * @param task          Updated task.
+     * @param index         Index of task to be updated, starting from 0.
+     * @param numOfTasks    Total number of tasks in task list.
+     * @throws IOException  If a previous flush failed.
+     */
+    @Override
+    public void updateTask(Task task, int index, int numOfTasks) throws IOException {
+        enqueue(new Mutation(UPDATE, index, toRecord(task)));
+    }
+
+    /**
+     * Queues several tasks to be updated in file.
+     *
+     * @param tasks         Updated tasks.
+     * @param indices       Index of each updated task.
+     * @param numOfTasks    Total number of tasks in task list.
+     * @throws IOException  If a previous flush failed.
+     */
+    @Override
+    public void updateTasks(List<Task> tasks, int[] indices, int numOfTasks) throws IOException {
+        ArrayList<Mutation> mutations = new ArrayList<>(indices.length);
+        for (int i = 0; i < indices.length; ++i) {
+            mutations.add(new Mutation(UPDATE, indices[i], toRecord(tasks.get(i))));
+        }
+        enqueue(mutations);
+    }
+
+    /**
+     * Queues tasks to be deleted from file. Queued changes refer to tasks by index.
+     *
+     * @param tasks         Tasks to be deleted.
+     * @param indices       Indices of tasks to be deleted, in ascending order.
+     * @param numOfTasks    Total number of tasks in task list before any are removed.
+     * @throws IOException  If a previous flush failed.
+     */
+    @Override
+    public void deleteTasks(List<Task> tasks, int[] indices, int numOfTasks) throws IOException {
+        ArrayList<Mutation> mutations = new ArrayList<>(indices.length);
+        for (int i = indices.length - 1; i >= 0; --i) {
+            mutations.add(new Mutation(DELETE, indices[i], null));
+        }
+        enqueue(mutations);
+    }
+
+    /**
+     * Queues all changes between two versions of the task list together, so they are written in the same flush.
+     *
+     * @param changes       Changes to save.
+     * @throws IOException  If a previous flush failed.
+     */
+    @Override
+    public void saveChanges(TaskChanges changes) throws IOException {
+        ArrayList<Mutation> mutations = new ArrayList<>();
+        int[] deleted = changes.getDeletedIndices();
+        for (int i = deleted.length - 1; i >= 0; --i) {
+            mutations.add(new Mutation(DELETE, deleted[i], null));
+        }
+        int numOfTasks = changes.getNumOfTasksBefore() - deleted.length;
+        int[] added = changes.getAddedIndices();
+        for (int i = 0; i < added.length; ++i, ++numOfTasks) {
+            String line = toRecord(changes.getAddedTasks().get(i));
+            mutations.add(added[i] < numOfTasks ? new Mutation(INSERT, added[i], line) : new Mutation(ADD, -1, line));
+        }
+        int[] updated = changes.getUpdatedIndices();
+        for (int i = 0; i < updated.length; ++i) {
+            mutations.add(new Mutation(UPDATE, updated[i], toRecord(changes.getUpdatedTasks().get(i))));
+        }
+        if (!mutations.isEmpty()) {
+            enqueue(mutations);
+        }
+    }
+
+    /**
+     * Writes all queued mutations to the save file.
+     * If the write fails, the mutations stay queued and the error is kept until a later flush succeeds.
+     *
+     * @throws IOException  If unable to write to the save file.
+     */
+    @Override
+    public void flush() throws IOException {
+        synchronized (flushLock) {
+            ArrayList<Mutation> batch;
+            synchronized (this) {
+                batch = pending;
+                pending = new ArrayList<>();
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            try {
+                write(batch);
+            } catch (IOException e) {
+                synchronized (this) {
+                    batch.addAll(pending);
+                    pending = batch;
+                    flushError = e;
+                }
+                throw e;
+            }
+
+            synchronized (this) {
+                flushError = null;
+                if (pending.isEmpty()) {
+                    synchronized (UNFLUSHED) {
+                        UNFLUSHED.remove(this);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes a batch of mutations, then applies it to the lines kept in memory.
+     * A batch that only adds tasks is appended, unless an earlier append failed and may have left part
+     * of its lines in the file, in which case the whole file is written again.
+     *
+     * @param batch         Mutations to write, in the order they were queued.
+     * @throws IOException  If unable to write to the save file.
+     */
+    private void write(List<Mutation> batch) throws IOException {
+        if (!isRewriteNeeded && batch.stream().allMatch(m -> m.kind == ADD)) {
+            ArrayList<String> added = new ArrayList<>(batch.size());
+            for (Mutation m : batch) {
+                added.add(m.line);
+            }
+            try {
+                append(added, lines.isEmpty());
+            } catch (IOException e) {
+                isRewriteNeeded = true;
+                throw e;
+            }
+            lines.addAll(added);
+            return;
+        }
+
+        ArrayList<String> updated = new ArrayList<>(lines);
+        for (Mutation m : batch) {
+            apply(updated, m);
+        }
+        rewrite(updated);
+        lines = updated;
+        isRewriteNeeded = false;
+    }
+
+    private void enqueue(Mutation mutation) throws IOException {
+        enqueue(List.of(mutation));
+    }
+
+    private void enqueue(List<Mutation> mutations) throws IOException {
+        boolean hasFailed;
+        synchronized (this) {
+            hasFailed = flushError != null;
+        }
+        if (hasFailed) {
+            // The failed batch is written first, and new mutations are refused while it cannot be.
+            flush();
+        }
+
+        synchronized (this) {
+            pending.addAll(mutations);
+            synchronized (UNFLUSHED) {
+                UNFLUSHED.add(this);
+            }
+        }
+
+        if (durability != Durability.EVERY_OP) {
+            return;
+        }
+        try {
+            flush();
+        } catch (IOException e) {
+            // Every mutation is written before the call returns, so one that was not is not saved at all.
+            synchronized (this) {
+                pending.removeAll(mutations);
+            }
+            throw e;
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (IOException e) {
+            // Kept in flushError and thrown to the next caller.
+        }
+    }
+
+    private static void flushAll() {
+        ArrayList<WriteBehindStorage> storages;
+        synchronized (UNFLUSHED) {
+            storages = new ArrayList<>(UNFLUSHED);
+        }
+        for (WriteBehindStorage storage : storages) {
+            storage.flushQuietly();
+        }
+    }
+
+    private static void apply(List<String> lines, Mutation m) {
+        switch (m.kind) {
+        case ADD:
+            lines.add(m.line);
+            break;
+
+        case UPDATE:
+            lines.set(m.index, m.line);
+            break;
+
+        case DELETE:
+            lines.remove(m.index);
+            break;
+
+        case INSERT:
+            lines.add(m.index, m.line);
+            break;
+
+        default:
+            assert false : m.kind;
+        }
+    }
+
+    private void append(List<String> added, boolean isFileEmpty) throws IOException {
+        FileOutputStream out = new FileOutputStream(file, true);
+        BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(out));
+        for (int i = 0; i < added.size(); ++i) {
+            if (i > 0 || !isFileEmpty) {
+                bw.write(System.lineSeparator());
+            }
+            bw.write(added.get(i));
+        }
+        bw.flush();
+        if (isSyncing) {
+            out.getFD().sync();
+        }
+        bw.close();
+    }
+
+    private void rewrite(List<String> lines) throws IOException {
+        File temp = new File(filePath + ".tmp");
+        FileOutputStream out = new FileOutputStream(temp);
+        BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(out));
+        for (int i = 0; i < lines.size(); ++i) {
+            if (i > 0) {
+                bw.write(System.lineSeparator());
+            }
+            bw.write(lines.get(i));
+        }
+        bw.flush();
+        if (isSyncing) {
+            out.getFD().sync();
+        }
+        bw.close();
+
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * A queued change to the save file.
+     */
+    private static class Mutation {
+        private final int kind;
+        private final int index;
+        private final String line;
+
+        Mutation(int kind, int index, String line) {
+            this.kind = kind;
+            this.index = index;
+            this.line = line;
+        }
+    }
+}
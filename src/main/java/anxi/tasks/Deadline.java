@@ -2,7 +2,6 @@ package anxi.tasks;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 
 import anxi.command.AnxiException;
 import anxi.handlers.Handler;
@@ -47,6 +46,10 @@ public class Deadline extends Task {
         return this.by.toLocalDate();
     }
 
+    public LocalDateTime getBy() {
+        return this.by;
+    }
+
     /**
      * Formats Deadline as a string to be saved to file.
      * @return saveTask     Returns the task as a string in the format compatible with file.
@@ -58,8 +61,16 @@ public class Deadline extends Task {
     }
 
     @Override
-    public String toString() {
-        return "[D][" + (isDone ? "X" : " ") + "] " + this.description + " (by: "
-                + this.by.format(DateTimeFormatter.ofPattern("MMM dd yyyy hh:mm a")) + ")";
+    protected String render() {
+        return "[D][" + (isDone ? "X" : " ") + "] " + this.description + formatBy(this.by);
+    }
+
+    /**
+     * Formats the due date shown after the description.
+     * @param by        Date and time task has to be completed by.
+     * @return suffix   Due date in brackets, starting with a space.
+     */
+    public static String formatBy(LocalDateTime by) {
+        return " (by: " + by.format(DATE_TIME_FORMAT) + ")";
     }
 }
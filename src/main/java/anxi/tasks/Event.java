@@ -3,7 +3,6 @@ package anxi.tasks;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
 
 import anxi.command.AnxiException;
 import anxi.handlers.Handler;
@@ -54,6 +53,14 @@ public class Event extends Task {
         return from.toLocalDate();
     }
 
+    public LocalDateTime getFrom() {
+        return from;
+    }
+
+    public LocalTime getTo() {
+        return to;
+    }
+
     /**
      * Formats Event as a string to be saved to file.
      * @return saveTask     Returns the task as a string in the format compatible with file.
@@ -65,10 +72,18 @@ public class Event extends Task {
     }
 
     @Override
-    public String toString() {
+    protected String render() {
         return "[E][" + (isDone ? "X" : " ") + "] "
-                + this.description + " (from: "
-                + this.from.format(DateTimeFormatter.ofPattern("MMM dd yyyy hh:mm a")) + " to: "
-                + this.to.format(DateTimeFormatter.ofPattern("hh:mm a")) + ")";
+                + this.description + formatSpan(this.from, this.to);
+    }
+
+    /**
+     * Formats the start and end shown after the description.
+     * @param from      Date and time the event starts.
+     * @param to        Time the event ends.
+     * @return suffix   Start and end in brackets, starting with a space.
+     */
+    public static String formatSpan(LocalDateTime from, LocalTime to) {
+        return " (from: " + from.format(DATE_TIME_FORMAT) + " to: " + to.format(TIME_FORMAT) + ")";
     }
 }
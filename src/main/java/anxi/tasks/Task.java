@@ -1,11 +1,19 @@
 package anxi.tasks;
 
+import java.time.format.DateTimeFormatter;
+
 /**
  * Basic template for tasks.
  */
-public class Task {
+public class Task implements Cloneable {
+    protected static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("MMM dd yyyy hh:mm a");
+    protected static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("hh:mm a");
+
     protected String description;
     protected boolean isDone;
+    private int id;
+    // Kept until the task changes. Strings are immutable, so a thread that misses it just formats again.
+    private String rendered;
 
     /**
      * Task constructor.
@@ -22,6 +30,56 @@ public class Task {
      */
     public void updateIsDone(boolean isDone) {
         this.isDone = isDone;
+        this.rendered = null;
+    }
+
+    /**
+     * Copies the task with a different done status, leaving this task unchanged.
+     * @param isDone    Marks copy as completed/uncompleted. [True: complete, False: uncompleted]
+     * @return task     Copy of the task with the same id.
+     */
+    public Task withIsDone(boolean isDone) {
+        try {
+            Task copy = (Task) clone();
+            copy.isDone = isDone;
+            copy.rendered = null;
+            return copy;
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    /**
+     * Retrieves the id of the task, which stays the same as other tasks are added and deleted.
+     * @return id   Id of the task, 0 if it has not been given one.
+     */
+    public int getId() {
+        return this.id;
+    }
+
+    /**
+     * Gives the task an id, unique among the tasks in the list.
+     * @param id    Id of the task, greater than 0.
+     */
+    public void setId(int id) {
+        assert id > 0;
+        this.id = id;
+    }
+
+    /**
+     * Retrieves the task description.
+     * @return description  Task name or description of task.
+     */
+    public String getDescription() {
+        return this.description;
+    }
+
+    /**
+     * Checks if task is done.
+     * @return isDone   True: complete, False: uncompleted.
+     */
+    public boolean isDone() {
+        return this.isDone;
     }
 
     /**
@@ -43,8 +101,25 @@ public class Task {
         return (isDone ? "1" : "0") + " | " + description;
     }
 
+    /**
+     * Formats the task for display, formatting it only the first time after it changes.
+     * @return task     Task as shown in lists.
+     */
     @Override
     public String toString() {
+        String task = rendered;
+        if (task == null) {
+            task = render();
+            rendered = task;
+        }
+        return task;
+    }
+
+    /**
+     * Formats the task for display.
+     * @return task     Task as shown in lists.
+     */
+    protected String render() {
         return "[" + (isDone ? "X" : " ") + "] " + this.description;
     }
 }
@@ -34,7 +34,7 @@ public class ToDo extends Task {
     }
 
     @Override
-    public String toString() {
+    protected String render() {
         return "[T][" + (isDone ? "X" : " ") + "] " + this.description;
     }
 }
@@ -0,0 +1,70 @@
+package benchmark;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import anxi.command.TaskList;
+import anxi.storage.ColumnarTaskList;
+import anxi.tasks.Task;
+import anxi.tasks.ToDo;
+
+/**
+ * Times list and find over the columnar task list, printing and matching from the description arena
+ * against creating every task first. Run with the number of tasks as the first argument, 1M by default.
+ */
+public class ArenaScanBenchmark {
+    private static final String[] QUERIES = {"ab", "zz", "tutorial 4242"};
+    private static final int RUNS = 10;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args  Number of tasks.
+     */
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        ArrayList<Task> tasks = new ArrayList<>(n);
+        for (int i = 0; i < n; ++i) {
+            tasks.add(new ToDo((i % 7 == 0 ? "lab " : "tutorial ") + i));
+        }
+        ColumnarTaskList columns = new ColumnarTaskList(tasks);
+        tasks = null;
+
+        TaskList fromArena = new TaskList(columns);
+        // Same columns, but seen as a plain list, so every task is created to be matched or printed.
+        TaskList fromObjects = new TaskList(new AbstractList<>() {
+            @Override
+            public Task get(int index) {
+                return columns.get(index);
+            }
+
+            @Override
+            public int size() {
+                return columns.size();
+            }
+        });
+
+        System.out.printf("%d tasks%n%-16s %12s %12s%n", n, "operation", "objects", "arena");
+        time("list", fromObjects, fromArena, TaskList::printTaskList);
+        for (String query : QUERIES) {
+            time("find " + query, fromObjects, fromArena, taskList -> taskList.findMatchingTasks(query));
+        }
+    }
+
+    private static void time(String name, TaskList fromObjects, TaskList fromArena, Function<TaskList, String> op) {
+        List<TaskList> taskLists = List.of(fromObjects, fromArena);
+        double[] ms = new double[2];
+        String[] results = new String[2];
+        for (int run = 0; run < RUNS; ++run) {
+            for (int i = 0; i < 2; ++i) {
+                long start = System.nanoTime();
+                results[i] = op.apply(taskLists.get(i));
+                ms[i] += (System.nanoTime() - start) / 1e6 / RUNS;
+            }
+        }
+        assert results[0].equals(results[1]);
+        System.out.printf("%-16s %10.1fms %10.1fms%n", name, ms[0], ms[1]);
+    }
+}
@@ -0,0 +1,84 @@
+package benchmark;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import anxi.command.TaskList;
+import anxi.tasks.Task;
+import anxi.tasks.ToDo;
+
+/**
+ * Measures read throughput of a shared task list with 1 to 2x the available cores reading,
+ * while one writer keeps adding, marking and deleting tasks.
+ * Run with the number of tasks as the first argument, 100k by default.
+ */
+public class ConcurrentReadBenchmark {
+    private static final LocalDateTime DAY = LocalDateTime.of(2024, 2, 25, 9, 0);
+    private static final long RUN_MS = 2_000;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args  Number of tasks.
+     * @throws InterruptedException If interrupted while waiting for the threads.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        ArrayList<Task> tasks = new ArrayList<>(n);
+        for (int i = 0; i < n; ++i) {
+            tasks.add(new ToDo("tutorial " + i));
+        }
+        TaskList taskList = new TaskList(tasks);
+        taskList.findMatchingTasks("tutorial 1");
+        taskList.findAllEventOnDate(DAY.toLocalDate());
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.printf("%d tasks, %d cores%n", n, cores);
+        System.out.printf("%8s %14s %14s%n", "readers", "reads/s", "writes/s");
+        for (int readers = 1; readers <= 2 * cores; readers *= 2) {
+            run(taskList, readers);
+        }
+    }
+
+    private static void run(TaskList taskList, int numOfReaders) throws InterruptedException {
+        AtomicBoolean isRunning = new AtomicBoolean(true);
+        LongAdder reads = new LongAdder();
+        LongAdder writes = new LongAdder();
+
+        ArrayList<Thread> threads = new ArrayList<>();
+        threads.add(new Thread(() -> {
+            Random random = new Random(1);
+            while (isRunning.get()) {
+                taskList.addEvent("tutorial event", DAY.plusDays(random.nextInt(365)), LocalTime.of(23, 0));
+                taskList.markTask(random.nextInt(taskList.getNumOfTasks()));
+                taskList.deleteTask(random.nextInt(taskList.getNumOfTasks()));
+                writes.add(3);
+            }
+        }));
+        for (int r = 0; r < numOfReaders; ++r) {
+            threads.add(new Thread(() -> {
+                Random random = new Random();
+                while (isRunning.get()) {
+                    int from = random.nextInt(taskList.getNumOfTasks() - 20);
+                    taskList.getTasks(from, from + 20).forEach(Task::toString);
+                    taskList.findMatchingTasks("tutorial " + (10_000 + random.nextInt(90_000)));
+                    taskList.findAllEventOnDate(DAY.toLocalDate());
+                    reads.add(3);
+                }
+            }));
+        }
+
+        threads.forEach(Thread::start);
+        Thread.sleep(RUN_MS);
+        isRunning.set(false);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        System.out.printf("%8d %14.0f %14.0f%n", numOfReaders,
+                reads.sum() * 1000.0 / RUN_MS, writes.sum() * 1000.0 / RUN_MS);
+    }
+}
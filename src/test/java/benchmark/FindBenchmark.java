@@ -0,0 +1,84 @@
+package benchmark;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import anxi.command.TaskList;
+import anxi.tasks.Task;
+import anxi.tasks.ToDo;
+
+/**
+ * Compares find with the description index against scanning every task, and times ranked fuzzy find.
+ * Run with the number of tasks as the first argument, 500k by default.
+ */
+public class FindBenchmark {
+    private static final String[] WORDS = {"read", "book", "return", "tutorial", "lecture", "print", "notes",
+        "project", "meeting", "exercise", "dinner", "groceries", "assignment", "email", "call", "review"};
+    private static final String[] QUERIES = {"tutorial 12", "groceries", "print notes", "meeting 4242", "xyz"};
+    private static final String[] FUZZY_QUERIES = {"grocereis", "tutorail 12", "Print Notse", "asignment 4242"};
+    private static final int RUNS = 20;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args  Number of tasks.
+     */
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 500_000;
+        Random random = new Random(42);
+        ArrayList<Task> tasks = new ArrayList<>(n);
+        for (int i = 0; i < n; ++i) {
+            tasks.add(new ToDo(WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]
+                    + " " + random.nextInt(10_000)));
+        }
+
+        TaskList taskList = new TaskList(new ArrayList<>(tasks));
+        long start = System.nanoTime();
+        taskList.findMatchingTasks("build");
+        System.out.printf("%d tasks, index built in %dms%n", n, (System.nanoTime() - start) / 1_000_000);
+        System.out.printf("%-14s %10s %12s %12s%n", "query", "matches", "scan", "index");
+
+        for (String query : QUERIES) {
+            long scanNs = 0;
+            long indexNs = 0;
+            String result = "";
+            for (int run = 0; run < RUNS; ++run) {
+                start = System.nanoTime();
+                result = scan(tasks, query);
+                scanNs += System.nanoTime() - start;
+
+                start = System.nanoTime();
+                String indexed = taskList.findMatchingTasks(query);
+                indexNs += System.nanoTime() - start;
+                assert indexed.equals(result);
+            }
+            int matches = (int) result.chars().filter(c -> c == '\n').count();
+            System.out.printf("%-14s %10d %10.2fms %10.2fms%n", query, matches,
+                    scanNs / 1e6 / RUNS, indexNs / 1e6 / RUNS);
+        }
+
+        System.out.printf("%n%-16s %12s  %s%n", "fuzzy query", "time", "best match");
+        for (String query : FUZZY_QUERIES) {
+            String result = "";
+            long fuzzyNs = 0;
+            for (int run = 0; run < RUNS; ++run) {
+                start = System.nanoTime();
+                result = taskList.findSimilarTasks(query, 10);
+                fuzzyNs += System.nanoTime() - start;
+            }
+            System.out.printf("%-16s %10.2fms  %s%n", query, fuzzyNs / 1e6 / RUNS,
+                    result.isEmpty() ? "-" : result.substring(0, result.indexOf('\n')));
+        }
+    }
+
+    private static String scan(ArrayList<Task> tasks, String query) {
+        StringBuilder stringBuilder = new StringBuilder();
+        for (int i = 0; i < tasks.size(); ++i) {
+            Task t = tasks.get(i);
+            if (t.isMatchingDescription(query)) {
+                stringBuilder.append(i + 1).append(". ").append(t).append("\n");
+            }
+        }
+        return stringBuilder.toString();
+    }
+}
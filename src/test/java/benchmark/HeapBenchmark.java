@@ -0,0 +1,75 @@
+package benchmark;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+
+import anxi.command.TaskList;
+import anxi.storage.ColumnarTaskList;
+import anxi.tasks.Deadline;
+import anxi.tasks.Event;
+import anxi.tasks.Task;
+import anxi.tasks.ToDo;
+
+/**
+ * Compares the heap used per task by a list of task objects against the columnar task list,
+ * and shows what a task list built on the columns adds.
+ * Run with the number of tasks as the first argument, 1M by default, and a heap large enough for both.
+ */
+public class HeapBenchmark {
+    private static final LocalDateTime DAY = LocalDateTime.of(2024, 2, 1, 9, 0);
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args  Number of tasks.
+     */
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        long base = usedHeap();
+        ArrayList<Task> tasks = new ArrayList<>(n);
+        for (int i = 0; i < n; ++i) {
+            tasks.add(createTask(i));
+        }
+        long objectBytes = usedHeap() - base;
+
+        ColumnarTaskList columns = new ColumnarTaskList(tasks);
+        tasks = null;
+        long columnarBytes = usedHeap() - base;
+
+        // The task list adds a tree node per task on top of the list it is built from.
+        TaskList taskList = new TaskList(columns);
+        long taskListBytes = usedHeap() - base;
+
+        System.out.printf("%d tasks%n", taskList.getNumOfTasks());
+        System.out.printf("%-10s %12s %14s%n", "layout", "heap (MB)", "bytes/task");
+        System.out.printf("%-10s %12.1f %14.1f%n", "objects", objectBytes / 1e6, (double) objectBytes / n);
+        System.out.printf("%-10s %12.1f %14.1f%n", "columnar", columnarBytes / 1e6, (double) columnarBytes / n);
+        System.out.printf("%-10s %12.1f %14.1f%n", "+ tree", taskListBytes / 1e6, (double) taskListBytes / n);
+    }
+
+    private static Task createTask(int i) {
+        Task task;
+        switch (i % 3) {
+        case 0:
+            task = new ToDo("todo " + i);
+            break;
+        case 1:
+            task = new Deadline("deadline " + i, DAY.plusMinutes(i));
+            break;
+        default:
+            task = new Event("event " + i, DAY.plusMinutes(i), LocalTime.of(23, 0));
+        }
+        task.setId(i + 1);
+        return task;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; ++i) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
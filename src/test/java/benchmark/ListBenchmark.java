@@ -0,0 +1,62 @@
+package benchmark;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+
+import anxi.command.TaskList;
+import anxi.tasks.Deadline;
+import anxi.tasks.Event;
+import anxi.tasks.Task;
+import anxi.tasks.ToDo;
+
+/**
+ * Times list over a mix of to-dos, deadlines and events: the first list, which formats every task,
+ * later lists, and a list after some tasks are marked. Run with the number of tasks as the first
+ * argument, 100k by default.
+ */
+public class ListBenchmark {
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 9, 0);
+    private static final int RUNS = 20;
+    private static final int MARKED = 1_000;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args  Number of tasks.
+     */
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        ArrayList<Task> tasks = new ArrayList<>(n);
+        for (int i = 0; i < n; ++i) {
+            LocalDateTime time = START.plusMinutes(37L * i);
+            if (i % 3 == 0) {
+                tasks.add(new ToDo("read chapter " + i));
+            } else if (i % 3 == 1) {
+                tasks.add(new Deadline("assignment " + i, time));
+            } else {
+                tasks.add(new Event("meeting " + i, time, LocalTime.of(23, 0)));
+            }
+        }
+        TaskList taskList = new TaskList(tasks);
+
+        long start = System.nanoTime();
+        String first = taskList.printTaskList();
+        System.out.printf("%d tasks%n%-22s %10.1fms%n", n, "first list", (System.nanoTime() - start) / 1e6);
+
+        String result = "";
+        start = System.nanoTime();
+        for (int run = 0; run < RUNS; ++run) {
+            result = taskList.printTaskList();
+        }
+        assert result.equals(first);
+        System.out.printf("%-22s %10.1fms%n", "later lists", (System.nanoTime() - start) / 1e6 / RUNS);
+
+        for (int i = 0; i < MARKED; ++i) {
+            taskList.markTask(i * (n / MARKED));
+        }
+        start = System.nanoTime();
+        taskList.printTaskList();
+        System.out.printf("%-22s %10.1fms%n", "list after " + MARKED + " marks", (System.nanoTime() - start) / 1e6);
+    }
+}
@@ -0,0 +1,74 @@
+package benchmark;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import anxi.command.Storage;
+import anxi.storage.SnapshotStorage;
+import anxi.tasks.ToDo;
+
+/**
+ * Compares startup time of the text save file against snapshot + delta loading.
+ * Run with the task counts to measure as arguments, 10k, 100k and 1M by default.
+ */
+public class StartupBenchmark {
+    private static final int TAIL = 1000;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args          Task counts to measure.
+     * @throws IOException  If unable to create or read the save files.
+     */
+    public static void main(String[] args) throws IOException {
+        String[] counts = args.length > 0 ? args : new String[] {"10000", "100000", "1000000"};
+
+        System.out.printf("%10s %14s %14s%n", "tasks", "text (ms)", "snapshot (ms)");
+        for (String count : counts) {
+            int n = Integer.parseInt(count);
+            File dir = Files.createTempDirectory("anxi-bench").toFile();
+            String path = new File(dir, "anxi.txt").getPath();
+            writeSaveFile(path, n);
+
+            long start = System.nanoTime();
+            new Storage(path).loadTasks();
+            long textMs = (System.nanoTime() - start) / 1_000_000;
+
+            SnapshotStorage snapshot = new SnapshotStorage(path, Integer.MAX_VALUE);
+            snapshot.loadTasks();
+            for (int i = 0; i < TAIL; ++i) {
+                snapshot.addNewTask(new ToDo("tail " + i));
+            }
+
+            start = System.nanoTime();
+            new SnapshotStorage(path, Integer.MAX_VALUE).loadTasks();
+            long snapshotMs = (System.nanoTime() - start) / 1_000_000;
+
+            System.out.printf("%10d %14d %14d%n", n, textMs, snapshotMs);
+        }
+    }
+
+    private static void writeSaveFile(String path, int n) throws IOException {
+        BufferedWriter bw = new BufferedWriter(new FileWriter(path));
+        for (int i = 0; i < n; ++i) {
+            if (i > 0) {
+                bw.write(System.lineSeparator());
+            }
+            int day = i % 28 + 1;
+            switch (i % 3) {
+            case 0:
+                bw.write("T | 0 | todo " + i);
+                break;
+            case 1:
+                bw.write(String.format("D | 1 | deadline %d | 2024-02-%02d 12:00", i, day));
+                break;
+            default:
+                bw.write(String.format("E | 0 | event %d | 2024-03-%02d 18:00 | 19:00", i, day));
+            }
+        }
+        bw.close();
+    }
+}
@@ -0,0 +1,80 @@
+package benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import anxi.command.Storage;
+import anxi.command.TaskStore;
+import anxi.storage.DatabaseStore;
+import anxi.storage.InMemoryStore;
+import anxi.tasks.Task;
+import anxi.tasks.ToDo;
+
+/**
+ * Compares the text file, embedded database and in-memory task stores.
+ * Run with the number of tasks as the first argument, 100k by default.
+ */
+public class StoreBenchmark {
+    private static final int OPERATIONS = 200;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args          Number of tasks.
+     * @throws IOException  If a store fails.
+     */
+    public static void main(String[] args) throws IOException {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        File dir = Files.createTempDirectory("anxi-bench").toFile();
+
+        ArrayList<Task> tasks = new ArrayList<>(n);
+        for (int i = 0; i < n; ++i) {
+            tasks.add(new ToDo("task " + i));
+        }
+
+        System.out.printf("%d tasks, %d operations each%n", n, OPERATIONS);
+        System.out.printf("%-10s %12s %12s %12s %12s%n", "store", "bulk add", "mark", "delete", "load");
+        run("text", new Storage(new File(dir, "anxi.txt").getPath()), tasks);
+        run("database", new DatabaseStore(new File(dir, "anxi.db").getPath(), "missing.txt"), tasks);
+        run("memory", new InMemoryStore(), tasks);
+    }
+
+    private static void run(String name, TaskStore store, List<Task> tasks) throws IOException {
+        store.loadTasks();
+        int n = tasks.size();
+        Random random = new Random(42);
+
+        long start = System.nanoTime();
+        store.addNewTasks(tasks);
+        long addMs = elapsedMs(start);
+
+        start = System.nanoTime();
+        for (int i = 0; i < OPERATIONS; ++i) {
+            int index = random.nextInt(n);
+            store.updateTask(new ToDo("task " + index, true), index, n);
+        }
+        long markMs = elapsedMs(start);
+
+        start = System.nanoTime();
+        for (int i = 0; i < OPERATIONS; ++i) {
+            store.deleteTasks(List.of(tasks.get(i)), new int[] {0}, n - i);
+        }
+        long deleteMs = elapsedMs(start);
+        store.flush();
+
+        start = System.nanoTime();
+        int loaded = store.loadTasks().size();
+        long loadMs = elapsedMs(start);
+        assert loaded == n - OPERATIONS;
+
+        System.out.printf("%-10s %10dms %10dms %10dms %10dms%n", name, addMs, markMs, deleteMs, loadMs);
+    }
+
+    private static long elapsedMs(long start) {
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+}
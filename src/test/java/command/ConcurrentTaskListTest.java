@@ -0,0 +1,114 @@
+package command;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+import anxi.command.TaskList;
+import anxi.tasks.Task;
+import anxi.tasks.ToDo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ConcurrentTaskListTest {
+    private static final LocalDateTime DAY = LocalDateTime.of(2024, 2, 25, 18, 0);
+
+    @Test
+    public void readsDuringWritesTest() throws InterruptedException {
+        ArrayList<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 5_000; ++i) {
+            tasks.add(new ToDo("task " + i));
+        }
+        TaskList taskList = new TaskList(tasks);
+        AtomicBoolean isWriting = new AtomicBoolean(true);
+        ConcurrentLinkedQueue<Throwable> failures = new ConcurrentLinkedQueue<>();
+
+        Thread writer = new Thread(() -> {
+            Random random = new Random(7);
+            try {
+                for (int i = 0; i < 3_000; ++i) {
+                    taskList.addTodo("task new " + i);
+                    taskList.addEvent("event " + i, DAY.plusHours(i % 48), LocalTime.of(23, 0));
+                    taskList.markTask(random.nextInt(taskList.getNumOfTasks()));
+                    taskList.deleteTask(random.nextInt(taskList.getNumOfTasks()));
+                }
+            } catch (Throwable t) {
+                failures.add(t);
+            } finally {
+                isWriting.set(false);
+            }
+        });
+
+        ArrayList<Thread> readers = new ArrayList<>();
+        for (int r = 0; r < 4; ++r) {
+            int reader = r;
+            readers.add(new Thread(() -> {
+                try {
+                    while (isWriting.get()) {
+                        read(taskList, reader);
+                    }
+                } catch (Throwable t) {
+                    failures.add(t);
+                }
+            }));
+        }
+
+        writer.start();
+        readers.forEach(Thread::start);
+        writer.join();
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        assertTrue(failures.isEmpty(), () -> "Concurrent access failed: " + failures.peek());
+        assertEquals(8_000, taskList.getNumOfTasks());
+        assertEquals(taskList.printTaskList().lines().count(), taskList.getNumOfTasks());
+    }
+
+    @Test
+    public void snapshotUnchangedByMarkTest() {
+        TaskList taskList = new TaskList(new ArrayList<>(List.of(new ToDo("read"), new ToDo("write"))));
+        List<Task> before = taskList.getTasks(0, 2);
+
+        Task marked = taskList.markTask(1);
+        taskList.deleteTask(0);
+
+        assertEquals("[T][ ] write", before.get(1).toString());
+        assertEquals("[T][X] write", marked.toString());
+        assertEquals(marked, taskList.getTasks(0, 1).get(0));
+        assertEquals(before.get(1).getId(), marked.getId());
+    }
+
+    /**
+     * Runs one of the read operations and checks that it saw a consistent list.
+     */
+    private static void read(TaskList taskList, int operation) {
+        switch (operation) {
+        case 0:
+            String[] lines = taskList.printTaskList().split("\n");
+            for (int i = 0; i < lines.length; ++i) {
+                assertTrue(lines[i].startsWith((i + 1) + ". "), lines[i]);
+            }
+            break;
+        case 1:
+            taskList.findMatchingTasks("task new 1").lines()
+                    .forEach(line -> assertTrue(line.contains("task new 1"), line));
+            break;
+        case 2:
+            taskList.findAllEventOnDate(DAY.toLocalDate()).lines()
+                    .forEach(line -> assertTrue(line.contains("event"), line));
+            break;
+        default:
+            taskList.findAllBetween(DAY, DAY.plusDays(1))
+                    .forEach(line -> assertTrue(line.contains("event"), line));
+            break;
+        }
+    }
+}
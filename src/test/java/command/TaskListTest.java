@@ -0,0 +1,205 @@
+package command;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import anxi.command.TaskList;
+import anxi.storage.ColumnarTaskList;
+import anxi.tasks.Deadline;
+import anxi.tasks.Event;
+import anxi.tasks.Task;
+import anxi.tasks.ToDo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TaskListTest {
+    private static final LocalDateTime DAY = LocalDateTime.of(2024, 2, 25, 18, 0);
+
+    @Test
+    public void viewAfterDeleteTest() {
+        TaskList taskList = new TaskList(new ArrayList<>());
+        taskList.addTodo("read book");
+        taskList.addEvent("dinner", DAY, LocalTime.of(19, 0));
+        taskList.addDeadline("return book", DAY.minusHours(8));
+        assertEquals("2. " + taskList.getTasks(1, 2).get(0) + "\n", taskList.findAllEventOnDate(DAY.toLocalDate()));
+
+        taskList.addEvent("supper", DAY.plusDays(1), LocalTime.of(20, 0));
+        taskList.addDeadline("tutorial", DAY);
+        taskList.deleteTask(0);
+        taskList.deleteTask(1);
+
+        assertEquals("1. " + taskList.getTasks(0, 1).get(0) + "\n", taskList.findAllEventOnDate(DAY.toLocalDate()));
+        assertEquals("3. " + taskList.getTasks(2, 3).get(0) + "\n",
+                taskList.findAllDeadlineOnDate(DAY.toLocalDate()));
+        assertEquals("2. " + taskList.getTasks(1, 2).get(0) + "\n",
+                taskList.findAllEventOnDate(LocalDate.of(2024, 2, 26)));
+        assertEquals("", taskList.findAllDeadlineOnDate(LocalDate.of(2024, 2, 24)));
+    }
+
+    @Test
+    public void findMatchesSubstringSearchTest() {
+        Random random = new Random(7);
+        String[] words = {"read", "book", "return", "Read", "tutorial", "bookkeeping", "reading", "a", "ab"};
+        ArrayList<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 2_000; ++i) {
+            tasks.add(new ToDo(words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)]));
+        }
+        TaskList taskList = new TaskList(new ArrayList<>(tasks));
+        taskList.findMatchingTasks("book");
+
+        for (int i = 0; i < 300; ++i) {
+            int index = random.nextInt(tasks.size());
+            tasks.remove(index);
+            taskList.deleteTask(index);
+        }
+        for (int i = 0; i < 100; ++i) {
+            Task task = taskList.addTodo("tutorial book " + i);
+            tasks.add(task);
+        }
+
+        for (String query : new String[] {"book", "read", "Read", "ok b", "a", "ab", "kk", "book 9", "zzz", "ing"}) {
+            assertEquals(scan(tasks, query), taskList.findMatchingTasks(query), query);
+        }
+    }
+
+    @Test
+    public void findSimilarRanksClosestFirstTest() {
+        TaskList taskList = new TaskList(new ArrayList<>());
+        taskList.addTodo("return library book");
+        taskList.addTodo("buy groceries");
+        taskList.addTodo("groceries");
+        taskList.addTodo("read notes");
+        taskList.addTodo("Groceries for the whole week");
+        taskList.deleteTask(0);
+
+        String result = taskList.findSimilarTasks("grocereis", 2);
+        assertEquals("2. " + taskList.getTasks(1, 2).get(0) + "\n1. " + taskList.getTasks(0, 1).get(0) + "\n", result);
+        assertEquals(3, taskList.findSimilarTasks("GROCERIES", 10).split("\n").length);
+        assertEquals("", taskList.findSimilarTasks("zzzz", 10));
+    }
+
+    @Test
+    public void findAllBetweenIsChronologicalTest() {
+        TaskList taskList = new TaskList(new ArrayList<>());
+        taskList.addDeadline("late", DAY.plusDays(2));
+        taskList.addTodo("read book");
+        taskList.addEvent("dinner", DAY, LocalTime.of(21, 0));
+        taskList.addDeadline("early", DAY.minusDays(1));
+        taskList.addEvent("breakfast", DAY.withHour(8), LocalTime.of(9, 0));
+        assertEquals(List.of("5. " + taskList.getTasks(4, 5).get(0), "3. " + taskList.getTasks(2, 3).get(0),
+                "1. " + taskList.getTasks(0, 1).get(0)),
+                taskList.findAllBetween(DAY.withHour(0), DAY.plusDays(2)).collect(Collectors.toList()));
+
+        taskList.deleteTask(0);
+        taskList.addDeadline("later", DAY.plusDays(1));
+        assertEquals(List.of("2. " + taskList.getTasks(1, 2).get(0), "5. " + taskList.getTasks(4, 5).get(0)),
+                taskList.findAllBetween(DAY.withHour(20), DAY.plusDays(2)).collect(Collectors.toList()));
+        assertEquals(0, taskList.findAllBetween(DAY.plusDays(3), DAY.plusDays(9)).count());
+    }
+
+    @Test
+    public void columnarListPrintsSameAsObjectsTest() {
+        ArrayList<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 300; ++i) {
+            Task task = i % 3 == 0 ? new ToDo("caf\u00e9 book " + i)
+                    : i % 3 == 1 ? new Deadline("return book " + i, DAY.plusHours(i))
+                    : new Event("dinner " + i, DAY.plusDays(i), LocalTime.of(21, 30));
+            task.updateIsDone(i % 4 == 0);
+            task.setId(i + 1);
+            tasks.add(task);
+        }
+        TaskList objects = new TaskList(new ArrayList<>(tasks));
+        TaskList columns = new TaskList(new ColumnarTaskList(tasks));
+        for (TaskList taskList : List.of(objects, columns)) {
+            taskList.markTask(5);
+            taskList.deleteTask(10);
+            taskList.addTodo("caf\u00e9 au lait");
+        }
+
+        assertEquals(objects.printTaskList(), columns.printTaskList());
+        for (String query : new String[] {"book", "\u00e9 b", "ok 1", "r 2", "zzz"}) {
+            assertEquals(objects.findMatchingTasks(query), columns.findMatchingTasks(query), query);
+        }
+    }
+
+    private static String scan(List<Task> tasks, String query) {
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < tasks.size(); ++i) {
+            if (tasks.get(i).getDescription().contains(query)) {
+                expected.append(i + 1).append(". ").append(tasks.get(i)).append("\n");
+            }
+        }
+        return expected.toString();
+    }
+
+    @Test
+    public void pagesAndChunksMatchFullListTest() {
+        ArrayList<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 23; ++i) {
+            tasks.add(new ToDo("task " + i));
+        }
+        TaskList taskList = new TaskList(new ColumnarTaskList(tasks));
+        taskList.addDeadline("essay", DAY);
+        taskList.deleteTask(4);
+        String all = taskList.printTaskList();
+
+        StringBuilder pages = new StringBuilder();
+        for (int from = 0; from < taskList.getNumOfTasks(); from += 5) {
+            pages.append(taskList.printTasks(from, from + 5));
+        }
+        assertEquals(all, pages.toString());
+        assertEquals(all, taskList.streamTaskList(7).collect(Collectors.joining()));
+        assertEquals(4, taskList.streamTaskList(7).count());
+        assertEquals("", taskList.printTasks(23, 28));
+    }
+
+    @Test
+    public void statsFollowChangesTest() {
+        TaskList taskList = new TaskList(new ArrayList<>(List.of(new ToDo("read book"),
+                new Deadline("essay", DAY.minusDays(1)), new Event("dinner", DAY.plusHours(1), LocalTime.of(20, 0)))));
+        assertEquals("Total: 3\nTo-dos: 1\nDeadlines: 1\nEvents: 1\nDone: 0, pending: 3\nOverdue: 1\n"
+                + "Today: 0 deadline(s), 1 event(s)\nNext 7 days: 0 deadline(s), 1 event(s)\n",
+                taskList.printStats(DAY));
+
+        taskList.addDeadline("return book", DAY.plusDays(2));
+        taskList.addDeadline("tutorial", DAY.minusHours(2));
+        taskList.markTask(1);
+        taskList.markTask(2);
+        taskList.deleteTask(0);
+        assertEquals("Total: 4\nTo-dos: 0\nDeadlines: 3\nEvents: 1\nDone: 2, pending: 2\nOverdue: 1\n"
+                + "Today: 1 deadline(s), 0 event(s)\nNext 7 days: 2 deadline(s), 0 event(s)\n",
+                taskList.printStats(DAY));
+
+        taskList.unmarkTask(0);
+        assertEquals("Total: 4\nTo-dos: 0\nDeadlines: 3\nEvents: 1\nDone: 1, pending: 3\nOverdue: 3\n"
+                + "Today: 1 deadline(s), 0 event(s)\nNext 7 days: 1 deadline(s), 0 event(s)\n",
+                taskList.printStats(DAY.plusDays(2).plusMinutes(1)));
+    }
+
+    @Test
+    public void upcomingSkipsDoneAndPastTest() {
+        TaskList taskList = new TaskList(new ArrayList<>(List.of(new Deadline("essay", DAY.plusDays(3)),
+                new Deadline("lab report", DAY.minusHours(1)), new ToDo("read book"))));
+        taskList.addEvent("dinner", DAY.plusHours(1), LocalTime.of(20, 0));
+        assertEquals("4. " + taskList.getTasks(3, 4).get(0) + "\n", taskList.findUpcoming(DAY, 1));
+
+        taskList.addDeadline("tutorial", DAY.plusDays(1));
+        taskList.markTask(3);
+        taskList.deleteTask(2);
+        List<Task> tasks = taskList.getTasks(0, 4);
+        assertEquals("4. " + tasks.get(3) + "\n1. " + tasks.get(0) + "\n", taskList.findUpcoming(DAY, 5));
+
+        taskList.unmarkTask(2);
+        taskList.markTask(0);
+        tasks = taskList.getTasks(0, 4);
+        assertEquals("3. " + tasks.get(2) + "\n4. " + tasks.get(3) + "\n", taskList.findUpcoming(DAY, 2));
+        assertEquals("", taskList.findUpcoming(DAY.plusDays(2), 5));
+    }
+}
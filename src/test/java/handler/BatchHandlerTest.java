@@ -0,0 +1,106 @@
+package handler;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import anxi.command.Parser;
+import anxi.command.Storage;
+import anxi.command.TaskList;
+import anxi.command.Ui;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BatchHandlerTest {
+    @TempDir
+    File dir;
+
+    private final Ui ui = new Ui();
+
+    @Test
+    public void batchSavedTogetherTest() throws IOException {
+        File file = SampleSaveFile.create(dir);
+        Storage storage = new Storage(file.getPath());
+        TaskList taskList = new TaskList(storage.loadTasks());
+        Parser parser = new Parser();
+
+        String result = parser.parseInput("todo buy milk; mark 1-2 ; delete 3; commit", storage, taskList, ui);
+        assertTrue(result.endsWith("All 3 command(s) done and saved together."), result);
+        assertEquals(3, taskList.getNumOfTasks());
+        assertEquals("1 | T | 1 | read book" + System.lineSeparator()
+                + "2 | D | 1 | return book | 2024-06-06 18:00" + System.lineSeparator()
+                + "4 | T | 0 | buy milk", Files.readString(file.toPath()));
+        assertEquals(taskList.printTaskList(), new TaskList(storage.loadTasks()).printTaskList());
+    }
+
+    @Test
+    public void failedBatchRolledBackTest() throws IOException {
+        File file = SampleSaveFile.create(dir);
+        Storage storage = new Storage(file.getPath());
+        TaskList taskList = new TaskList(storage.loadTasks());
+        String stats = taskList.printStats(LocalDateTime.of(2024, 6, 1, 9, 0));
+        String tasks = taskList.printTaskList();
+        Parser parser = new Parser();
+
+        String result = parser.parseInput("delete 1; todo book club; mark 9", storage, taskList, ui);
+        assertTrue(result.startsWith("Command 3 (mark 9) failed"), result);
+        assertEquals(tasks, taskList.printTaskList());
+        assertEquals(stats, taskList.printStats(LocalDateTime.of(2024, 6, 1, 9, 0)));
+        assertEquals("1. [T][ ] read book\n", taskList.findMatchingTasks("read book"));
+        assertEquals("", taskList.findMatchingTasks("book club"));
+        assertEquals(SampleSaveFile.SAVED, Files.readString(file.toPath()));
+
+        parser.parseInput("todo book club", storage, taskList, ui);
+        assertEquals(3, taskList.indexOfId(4));
+    }
+
+    @Test
+    public void queuedBatchTest() throws IOException {
+        File file = SampleSaveFile.create(dir);
+        Storage storage = new Storage(file.getPath());
+        TaskList taskList = new TaskList(storage.loadTasks());
+        Parser parser = new Parser();
+
+        assertEquals(ui.printBatchStarted(), parser.parseInput("begin", storage, taskList, ui));
+        assertEquals(ui.printCommandQueued(1), parser.parseInput("todo water plants", storage, taskList, ui));
+        assertTrue(parser.parseInput("bye", storage, taskList, ui).startsWith("\"bye\" can't go in a batch."));
+        assertEquals(ui.printCommandQueued(3), parser.parseInput("unmark 3; list", storage, taskList, ui));
+        assertEquals(3, taskList.getNumOfTasks());
+        assertEquals(SampleSaveFile.SAVED, Files.readString(file.toPath()));
+
+        assertTrue(parser.parseInput("commit", storage, taskList, ui).endsWith("saved together."));
+        assertEquals(4, taskList.getNumOfTasks());
+        assertEquals(taskList.printTaskList(), new TaskList(storage.loadTasks()).printTaskList());
+
+        parser.parseInput("begin", storage, taskList, ui);
+        parser.parseInput("delete 1", storage, taskList, ui);
+        assertEquals(ui.printBatchAborted(1), parser.parseInput("abort", storage, taskList, ui));
+        assertEquals(4, taskList.getNumOfTasks());
+    }
+
+    @Test
+    public void exitOnlyOnByeTest() throws IOException {
+        File file = SampleSaveFile.create(dir);
+        Storage storage = new Storage(file.getPath());
+        TaskList taskList = new TaskList(storage.loadTasks());
+        Parser parser = new Parser();
+
+        parser.parseInput("todo Bye party", storage, taskList, ui);
+        assertTrue(parser.parseInput("find Bye", storage, taskList, ui).contains("Bye party"));
+        assertFalse(parser.isExit());
+
+        parser.parseInput("begin", storage, taskList, ui);
+        parser.parseInput("bye", storage, taskList, ui);
+        assertFalse(parser.isExit());
+        parser.parseInput("abort", storage, taskList, ui);
+
+        assertEquals(ui.printExitMessage(), parser.parseInput("bye", storage, taskList, ui));
+        assertTrue(parser.isExit());
+    }
+}
@@ -8,9 +8,12 @@ import java.time.format.DateTimeFormatter;
 import org.junit.jupiter.api.Test;
 
 import anxi.command.AnxiException;
+import anxi.command.TaskList;
 import anxi.handlers.Handler;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class HandlerTest {
     private Handler handler = new Handler();
@@ -58,4 +61,20 @@ public class HandlerTest {
     public void stringToIntTest() throws AnxiException {
         assertEquals(1, handler.stringToInt("1"));
     }
+
+    @Test
+    public void parseTaskIndicesTest() throws AnxiException {
+        TaskList taskList = new TaskList();
+        for (int i = 0; i < 30; ++i) {
+            taskList.addTodo("task " + i);
+        }
+
+        assertArrayEquals(new int[] {4}, handler.parseTaskIndices("5", taskList));
+        assertArrayEquals(new int[] {2, 6, 8, 9, 10, 11, 19, 29},
+                handler.parseTaskIndices(" 3, 7,9-12 ,#20,30,10", taskList));
+        assertEquals(30, handler.parseTaskIndices("1-30", taskList).length);
+        assertThrows(AnxiException.class, () -> handler.parseTaskIndices("7-3", taskList));
+        assertThrows(AnxiException.class, () -> handler.parseTaskIndices("1-31", taskList));
+        assertThrows(AnxiException.class, () -> handler.parseTaskIndices("1,,2", taskList));
+    }
 }
@@ -0,0 +1,96 @@
+package handler;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import anxi.command.History;
+import anxi.command.Parser;
+import anxi.command.Storage;
+import anxi.command.TaskList;
+import anxi.command.Ui;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HistoryHandlerTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 6, 1, 9, 0);
+
+    @TempDir
+    File dir;
+
+    private final Ui ui = new Ui();
+
+    @Test
+    public void undoRedoTest() throws IOException {
+        File file = SampleSaveFile.create(dir);
+        Storage storage = new Storage(file.getPath());
+        TaskList taskList = new TaskList(storage.loadTasks());
+        String stats = taskList.printStats(NOW);
+        Parser parser = new Parser();
+
+        parser.parseInput("todo buy milk", storage, taskList, ui);
+        parser.parseInput("mark 2", storage, taskList, ui);
+        parser.parseInput("list", storage, taskList, ui);
+        parser.parseInput("delete 1", storage, taskList, ui);
+        String changed = Files.readString(file.toPath());
+        String tasks = taskList.printTaskList();
+
+        assertTrue(parser.parseInput("undo", storage, taskList, ui).contains("Back in the list:\n [T][ ] read book"));
+        assertEquals("1. [T][ ] read book\n", taskList.findMatchingTasks("read book"));
+        parser.parseInput("undo", storage, taskList, ui);
+        parser.parseInput("undo", storage, taskList, ui);
+        assertEquals(ui.printErrorMessage("Nothing to undo."), parser.parseInput("undo", storage, taskList, ui));
+        assertEquals(SampleSaveFile.SAVED, Files.readString(file.toPath()));
+        assertEquals(stats, taskList.printStats(NOW));
+        assertEquals(-1, taskList.indexOfId(4));
+
+        parser.parseInput("redo", storage, taskList, ui);
+        parser.parseInput("redo", storage, taskList, ui);
+        parser.parseInput("redo", storage, taskList, ui);
+        assertEquals(ui.printErrorMessage("Nothing to redo."), parser.parseInput("redo", storage, taskList, ui));
+        assertEquals(tasks, taskList.printTaskList());
+        assertEquals(changed, Files.readString(file.toPath()));
+        assertEquals(2, taskList.indexOfId(4));
+    }
+
+    @Test
+    public void undoRestoresLinesByIdTest() throws IOException {
+        File file = SampleSaveFile.create(dir);
+        Storage storage = new Storage(file.getPath());
+        TaskList taskList = new TaskList(storage.loadTasks());
+        Parser parser = new Parser();
+
+        parser.parseInput("delete 1,3", storage, taskList, ui);
+        // Blank lines left by editing the file by hand are not counted as tasks.
+        String n = System.lineSeparator();
+        Files.writeString(file.toPath(), n + "2 | D | 0 | return book | 2024-06-06 18:00" + n + n);
+        assertTrue(parser.parseInput("undo", storage, taskList, ui).contains("Back in the list:"));
+        assertEquals(SampleSaveFile.SAVED, Files.readString(file.toPath()));
+        assertEquals(taskList.printTaskList(), new TaskList(storage.loadTasks()).printTaskList());
+    }
+
+    @Test
+    public void historyDepthTest() throws IOException {
+        File file = SampleSaveFile.create(dir);
+        Storage storage = new Storage(file.getPath());
+        TaskList taskList = new TaskList(storage.loadTasks());
+        Parser parser = new Parser(new History(2));
+
+        parser.parseInput("todo one", storage, taskList, ui);
+        parser.parseInput("todo two; todo three", storage, taskList, ui);
+        parser.parseInput("todo four", storage, taskList, ui);
+        parser.parseInput("undo", storage, taskList, ui);
+        parser.parseInput("undo", storage, taskList, ui);
+        assertEquals(ui.printErrorMessage("Nothing to undo."), parser.parseInput("undo", storage, taskList, ui));
+        assertEquals(4, taskList.getNumOfTasks());
+
+        parser.parseInput("unmark 3", storage, taskList, ui);
+        assertEquals(ui.printErrorMessage("Nothing to redo."), parser.parseInput("redo", storage, taskList, ui));
+        assertEquals(taskList.printTaskList(), new TaskList(storage.loadTasks()).printTaskList());
+    }
+}
@@ -0,0 +1,140 @@
+package handler;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import anxi.command.Parser;
+import anxi.command.Storage;
+import anxi.command.TaskList;
+import anxi.command.Ui;
+import anxi.handlers.ImportHandler;
+import anxi.tasks.Task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ImportHandlerTest {
+    @TempDir
+    File dir;
+
+    @Test
+    public void importCsvTest() throws IOException {
+        File csv = new File(dir, "tasks.csv");
+        Files.writeString(csv.toPath(), String.join(System.lineSeparator(),
+                "type,done,description,date_time,end_time",
+                "todo,0,\"read book, chapter 1\"",
+                "deadline,1,return book,2024-02-25 09:50",
+                "deadline,0,missing date",
+                "event,0,dinner,2024-02-25 18:00,19:00",
+                "event,0,backwards,2024-02-25 18:00,17:00",
+                "meeting,0,unknown type"));
+
+        Storage storage = new Storage(new File(dir, "anxi.txt").getPath());
+        TaskList taskList = new TaskList(storage.loadTasks());
+        taskList.addTodo("existing");
+        storage.addNewTask(taskList.getTasks(0, 1).get(0));
+
+        String result = new ImportHandler().importTasks(csv.getPath(), storage, taskList, new Ui());
+        assertTrue(result.contains("imported 3 task(s)"));
+        assertTrue(result.contains("Skipped 3 line(s)"));
+        assertTrue(result.contains("Line 4: Deadline is missing its due date."));
+        assertEquals(4, taskList.getNumOfTasks());
+
+        List<Task> saved = new Storage(new File(dir, "anxi.txt").getPath()).loadTasks();
+        assertEquals(4, saved.size());
+        assertEquals("[T][ ] read book, chapter 1", saved.get(1).toString());
+        assertEquals("D | 1 | return book | 2024-02-25 09:50", saved.get(2).saveFileString());
+        assertEquals("E | 0 | dinner | 2024-02-25 18:00 | 19:00", saved.get(3).saveFileString());
+    }
+
+    @Test
+    public void importSaveFileTest() throws IOException {
+        File dump = new File(dir, "dump.txt");
+        StringBuilder content = new StringBuilder();
+        int numOfTasks = 25_000;
+        for (int i = 0; i < numOfTasks; ++i) {
+            content.append("T | ").append(i % 2).append(" | task ").append(i).append(System.lineSeparator());
+        }
+        content.append("D | 0 | bad date | tomorrow");
+        Files.writeString(dump.toPath(), content);
+
+        Storage storage = new Storage(new File(dir, "anxi.txt").getPath());
+        TaskList taskList = new TaskList(storage.loadTasks());
+        String result = new ImportHandler().importTasks(dump.getPath(), storage, taskList, new Ui());
+        assertTrue(result.contains("imported " + numOfTasks + " task(s)"));
+        assertTrue(result.contains("Line " + (numOfTasks + 1) + ": Invalid date or time"));
+
+        List<Task> saved = new Storage(new File(dir, "anxi.txt").getPath()).loadTasks();
+        assertEquals(numOfTasks, saved.size());
+        assertEquals("[T][X] task " + (numOfTasks - 1), saved.get(numOfTasks - 1).toString());
+    }
+
+    @Test
+    public void importSaveFileWithIdsTest() throws IOException {
+        File dump = new File(dir, "dump.txt");
+        Files.writeString(dump.toPath(), "4 | T | 0 | read book" + System.lineSeparator()
+                + "7 | D | 1 | return book | 2024-06-06 18:00");
+
+        Storage storage = new Storage(new File(dir, "anxi.txt").getPath());
+        TaskList taskList = new TaskList(storage.loadTasks());
+        storage.addNewTask(taskList.addTodo("water plants"));
+        String result = new ImportHandler().importTasks(dump.getPath(), storage, taskList, new Ui());
+        assertTrue(result.contains("imported 2 task(s)"));
+
+        List<Task> saved = new Storage(new File(dir, "anxi.txt").getPath()).loadTasks();
+        assertEquals(3, saved.size());
+        assertEquals("[T][ ] read book", saved.get(1).toString());
+        assertEquals(2, saved.get(1).getId());
+        assertEquals(3, saved.get(2).getId());
+    }
+
+    @Test
+    public void failedSaveRolledBackTest() throws IOException {
+        File csv = new File(dir, "tasks.csv");
+        Files.writeString(csv.toPath(), "todo,0,read" + System.lineSeparator() + "todo,0,write");
+
+        File save = new File(dir, "anxi.txt");
+        Storage storage = new Storage(save.getPath());
+        TaskList taskList = new TaskList(storage.loadTasks());
+        taskList.addTodo("existing");
+        save.delete();
+        save.mkdir();
+
+        Ui ui = new Ui();
+        String result = new ImportHandler().importTasks(csv.getPath(), storage, taskList, ui);
+        assertEquals(ui.printErrorMessage("Error, unable to save imported tasks to storage, nothing was imported."),
+                result);
+        assertEquals("1. [T][ ] existing\n", taskList.printTaskList());
+    }
+
+    @Test
+    public void undoAfterFailedImportTest() throws IOException {
+        File csv = new File(dir, "tasks.csv");
+        Files.writeString(csv.toPath(), "todo,0,read" + System.lineSeparator() + "todo,0,write");
+
+        Storage storage = new Storage(new File(dir, "anxi.txt").getPath()) {
+            @Override
+            public void addNewTasks(List<Task> tasks) throws IOException {
+                throw new IOException("Disk full");
+            }
+        };
+        TaskList taskList = new TaskList(storage.loadTasks());
+        Parser parser = new Parser();
+        Ui ui = new Ui();
+
+        parser.parseInput("todo existing", storage, taskList, ui);
+        assertEquals(ui.printErrorMessage("Error, unable to save imported tasks to storage, nothing was imported."),
+                parser.parseInput("import " + csv.getPath(), storage, taskList, ui));
+        assertEquals("1. [T][ ] existing\n", taskList.printTaskList());
+
+        String result = parser.parseInput("undo", storage, taskList, ui);
+        assertTrue(result.startsWith("\nUndone!"), result);
+        assertEquals(0, taskList.getNumOfTasks());
+        assertEquals(0, new Storage(new File(dir, "anxi.txt").getPath()).loadTasks().size());
+    }
+}
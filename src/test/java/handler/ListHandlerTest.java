@@ -0,0 +1,47 @@
+package handler;
+
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import anxi.command.TaskList;
+import anxi.command.Ui;
+import anxi.handlers.ListHandler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ListHandlerTest {
+    private final ListHandler listHandler = new ListHandler();
+    private final Ui ui = new Ui();
+
+    @Test
+    public void listPagesTest() {
+        TaskList taskList = new TaskList();
+        for (int i = 1; i <= 120; ++i) {
+            taskList.addTodo("task " + i);
+        }
+
+        assertEquals(ui.printTaskPage(taskList.printTasks(0, 50), 1, 3), listHandler.listTasks("", taskList, ui));
+        assertEquals(ui.printTaskPage(taskList.printTasks(100, 120), 3, 3),
+                listHandler.listTasks("3", taskList, ui));
+        assertEquals(ui.printTaskPage(taskList.printTasks(110, 120), 12, 12),
+                listHandler.listTasks("12 10", taskList, ui));
+        assertEquals(ui.printTaskList(taskList.printTaskList()), listHandler.listTasks("all", taskList, ui));
+        assertEquals(ui.printTaskList(taskList.printTaskList()), listHandler.listTasks("1 200", taskList, ui)
+                .replace("\nPage 1 of 1", ""));
+        assertEquals(ui.printErrorMessage("Only 3 page(s) of tasks."), listHandler.listTasks("4", taskList, ui));
+        assertEquals(ui.printErrorMessage("Pages start from 1."), listHandler.listTasks("0", taskList, ui));
+        assertEquals(ui.printTaskList(taskList.printTaskList()),
+                listHandler.streamTasks(taskList, ui).collect(Collectors.joining()));
+    }
+
+    @Test
+    public void listFewTasksTest() {
+        TaskList taskList = new TaskList();
+        assertEquals(ui.printTaskList(""), listHandler.listTasks("", taskList, ui));
+        assertEquals(ui.printTaskList(""), listHandler.listTasks("2", taskList, ui));
+
+        taskList.addTodo("read book");
+        assertEquals(ui.printTaskList(taskList.printTaskList()), listHandler.listTasks(" ", taskList, ui));
+    }
+}
@@ -0,0 +1,30 @@
+package handler;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+/**
+ * Save file of three tasks shared by the handler tests.
+ */
+final class SampleSaveFile {
+    static final String SAVED = "1 | T | 0 | read book" + System.lineSeparator()
+            + "2 | D | 0 | return book | 2024-06-06 18:00" + System.lineSeparator()
+            + "3 | T | 1 | join sports club";
+
+    private SampleSaveFile() {
+    }
+
+    /**
+     * Writes the save file in a directory.
+     *
+     * @param dir           Directory to write to.
+     * @return file         Save file written.
+     * @throws IOException  If unable to write the file.
+     */
+    static File create(File dir) throws IOException {
+        File file = new File(dir, "anxi.txt");
+        Files.writeString(file.toPath(), SAVED);
+        return file;
+    }
+}
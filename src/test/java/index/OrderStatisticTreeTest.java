@@ -0,0 +1,94 @@
+package index;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import anxi.index.OrderStatisticTree;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class OrderStatisticTreeTest {
+    @Test
+    public void matchesArrayListTest() {
+        Random random = new Random(11);
+        ArrayList<Integer> expected = new ArrayList<>();
+        ArrayList<Integer> keys = new ArrayList<>();
+        OrderStatisticTree<Integer> tree = OrderStatisticTree.empty();
+        int nextKey = 0;
+
+        for (int step = 0; step < 20_000; ++step) {
+            int operation = random.nextInt(10);
+            if (operation < 5 || expected.isEmpty()) {
+                int value = random.nextInt();
+                tree = tree.put(nextKey, value);
+                expected.add(value);
+                keys.add(nextKey++);
+            } else if (operation < 8) {
+                int index = random.nextInt(expected.size());
+                tree = tree.removeAt(index);
+                expected.remove(index);
+                keys.remove(index);
+            } else {
+                int index = random.nextInt(expected.size());
+                tree = tree.set(index, -step);
+                expected.set(index, -step);
+            }
+
+            if (step % 1000 == 0) {
+                assertEquals(expected, tree.asList());
+                for (int i = 0; i < keys.size(); ++i) {
+                    assertEquals(i, tree.indexOfKey(keys.get(i)));
+                    assertEquals((long) keys.get(i), tree.keyAt(i));
+                }
+            }
+        }
+
+        int from = expected.size() / 3;
+        Iterator<Integer> iterator = tree.iterator(from);
+        for (int i = from; i < expected.size(); ++i) {
+            assertEquals(expected.get(i), iterator.next());
+        }
+        assertTrue(!iterator.hasNext());
+        assertEquals(-1, tree.indexOfKey(nextKey));
+    }
+
+    @Test
+    public void oldVersionsUnchangedTest() {
+        OrderStatisticTree<String> tree = OrderStatisticTree.of(List.of("a", "b", "c", "d"));
+        OrderStatisticTree<String> removed = tree.removeAt(0).put(4, "e");
+        OrderStatisticTree<String> replaced = removed.set(1, "x");
+
+        assertEquals(List.of("a", "b", "c", "d"), tree.asList());
+        assertEquals(List.of("b", "c", "d", "e"), removed.asList());
+        assertEquals(List.of("b", "x", "d", "e"), replaced.asList());
+        assertEquals(4, replaced.lastKey());
+    }
+
+    @Test
+    public void readsSourceOnlyOnAccessTest() {
+        int[] reads = new int[1];
+        List<String> source = new AbstractList<>() {
+            @Override
+            public String get(int index) {
+                reads[0]++;
+                return "task " + index;
+            }
+
+            @Override
+            public int size() {
+                return 1000;
+            }
+        };
+
+        OrderStatisticTree<String> tree = OrderStatisticTree.of(source).removeAt(10);
+        assertEquals(0, reads[0]);
+        assertEquals("task 11", tree.get(10));
+        assertEquals(1, reads[0]);
+    }
+}
@@ -0,0 +1,76 @@
+package storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import anxi.storage.BinaryStorage;
+import anxi.storage.BinaryTaskFile;
+import anxi.tasks.Task;
+import anxi.tasks.ToDo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class BinaryStorageTest {
+    private static final String TEXT = "1 | T | 0 | read" + System.lineSeparator()
+            + "2 | D | 1 | return book | 2024-01-25 17:00" + System.lineSeparator()
+            + "3 | E | 0 | project meeting | 2024-08-06 14:00 | 16:00";
+
+    @TempDir
+    File dir;
+
+    @Test
+    public void importExportTest() throws IOException {
+        File text = new File(dir, "anxi.txt");
+        File binary = new File(dir, "anxi.bin");
+        File exported = new File(dir, "exported.txt");
+        Files.writeString(text.toPath(), TEXT);
+
+        BinaryTaskFile.importText(text.toPath(), binary.toPath());
+        BinaryTaskFile.exportText(binary.toPath(), exported.toPath());
+
+        assertEquals(TEXT, Files.readString(exported.toPath()));
+    }
+
+    @Test
+    public void updateAndDeleteTest() throws IOException {
+        File text = new File(dir, "anxi.txt");
+        File binary = new File(dir, "anxi.bin");
+        Files.writeString(text.toPath(), TEXT);
+
+        BinaryStorage storage = new BinaryStorage(binary.getPath(), text.getPath());
+        List<Task> loaded = storage.loadTasks();
+        assertEquals(3, loaded.size());
+
+        storage.addNewTask(new ToDo("sleep"));
+        storage.updateTask(new ToDo("read", true), 0, 4);
+        storage.updateTask(new ToDo("sleep longer"), 3, 4);
+        storage.deleteTasks(List.of(loaded.get(1)), new int[] {1}, 4);
+
+        ArrayList<Task> tasks = new BinaryStorage(binary.getPath(), text.getPath()).loadTasks();
+        assertEquals(3, tasks.size());
+        assertEquals("[T][X] read", tasks.get(0).toString());
+        assertEquals("[E][ ] project meeting (from: Aug 06 2024 02:00 PM to: 04:00 PM)", tasks.get(1).toString());
+        assertEquals("[T][ ] sleep longer", tasks.get(2).toString());
+    }
+
+    @Test
+    public void truncatedRecordTest() throws IOException {
+        File text = new File(dir, "anxi.txt");
+        File binary = new File(dir, "anxi.bin");
+        Files.writeString(text.toPath(), TEXT);
+        BinaryTaskFile.importText(text.toPath(), binary.toPath());
+
+        byte[] content = Files.readAllBytes(binary.toPath());
+        Files.write(binary.toPath(), Arrays.copyOf(content, content.length - 3));
+
+        assertThrows(IOException.class, () -> new BinaryStorage(binary.getPath(), text.getPath()).loadTasks());
+    }
+}
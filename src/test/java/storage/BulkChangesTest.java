@@ -0,0 +1,262 @@
+package storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import anxi.command.Parser;
+import anxi.command.Storage;
+import anxi.command.TaskChanges;
+import anxi.command.TaskList;
+import anxi.command.TaskStore;
+import anxi.command.Ui;
+import anxi.storage.BinaryStorage;
+import anxi.storage.ColumnarStorage;
+import anxi.storage.DatabaseStore;
+import anxi.storage.JournaledStorage;
+import anxi.storage.LazyStorage;
+import anxi.storage.ShardedStorage;
+import anxi.storage.SnapshotStorage;
+import anxi.storage.WriteBehindStorage;
+import anxi.tasks.Task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class BulkChangesTest {
+    private static final String[] STORES = {"text", "lazy", "columnar", "binary", "journal", "sharded", "snapshot",
+        "writebehind", "database"};
+    private static final int NUM_OF_TASKS = 30;
+
+    @TempDir
+    File tempDir;
+
+    @Test
+    public void bulkChangesSavedTest() throws IOException {
+        for (String kind : STORES) {
+            File dir = Files.createDirectory(tempDir.toPath().resolve(kind)).toFile();
+            StringBuilder content = new StringBuilder();
+            for (int i = 0; i < NUM_OF_TASKS; ++i) {
+                if (i > 0) {
+                    content.append(System.lineSeparator());
+                }
+                content.append(i % 3 == 0 ? "D | 0 | essay " + i + " | 2024-0" + (i % 9 + 1) + "-22 12:00"
+                        : "T | 0 | task " + i);
+            }
+            Files.writeString(new File(dir, "anxi.txt").toPath(), content);
+
+            TaskStore storage = createStorage(kind, dir);
+            TaskList taskList = new TaskList(storage.loadTasks());
+            int[] marked = {1, 2, 3, 10, 11, 12, 27};
+            storage.updateTasks(taskList.markTasks(marked), marked, NUM_OF_TASKS);
+            int[] deleted = {0, 2, 5, 6, 7, 8, 29};
+            storage.deleteTasks(taskList.deleteTasks(deleted), deleted, NUM_OF_TASKS);
+            storage.flush();
+
+            List<Task> reloaded = createStorage(kind, dir).loadTasks();
+            assertEquals(taskList.printTaskList(), new TaskList(reloaded).printTaskList(), kind);
+        }
+    }
+
+    @Test
+    public void changesSinceVersionSavedTest() throws IOException {
+        for (String kind : STORES) {
+            File dir = Files.createDirectory(tempDir.toPath().resolve(kind)).toFile();
+            StringBuilder content = new StringBuilder();
+            for (int i = 0; i < NUM_OF_TASKS; ++i) {
+                if (i > 0) {
+                    content.append(System.lineSeparator());
+                }
+                content.append("T | 0 | task " + i);
+            }
+            Files.writeString(new File(dir, "anxi.txt").toPath(), content);
+
+            TaskStore storage = createStorage(kind, dir);
+            TaskList taskList = new TaskList(storage.loadTasks());
+            TaskList.Version before = taskList.getVersion();
+            taskList.markTasks(new int[] {1, 4, 20});
+            taskList.deleteTasks(new int[] {0, 4, 29});
+            taskList.addTodo("new task");
+            taskList.addTodo("gone again");
+            taskList.deleteTask(taskList.getNumOfTasks() - 1);
+            taskList.unmarkTask(0);
+            storage.saveChanges(taskList.changesSince(before));
+            taskList.releaseVersion(before);
+            storage.flush();
+
+            List<Task> reloaded = createStorage(kind, dir).loadTasks();
+            assertEquals(taskList.printTaskList(), new TaskList(reloaded).printTaskList(), kind);
+        }
+    }
+
+    @Test
+    public void reversedChangesSavedTest() throws IOException {
+        for (String kind : STORES) {
+            File dir = Files.createDirectory(tempDir.toPath().resolve(kind)).toFile();
+            StringBuilder content = new StringBuilder();
+            for (int i = 0; i < NUM_OF_TASKS; ++i) {
+                if (i > 0) {
+                    content.append(System.lineSeparator());
+                }
+                content.append("T | 0 | task " + i);
+            }
+            Files.writeString(new File(dir, "anxi.txt").toPath(), content);
+
+            TaskStore storage = createStorage(kind, dir);
+            TaskList taskList = new TaskList(storage.loadTasks());
+            String original = taskList.printTaskList();
+            TaskList.Version before = taskList.getVersion();
+            taskList.markTasks(new int[] {2, 3, 25});
+            taskList.deleteTasks(new int[] {0, 3, 10, 11, 12, 29});
+            taskList.addTodo("new task");
+            TaskChanges changes = taskList.changesSince(before);
+            taskList.releaseVersion(before);
+            storage.saveChanges(changes);
+            String changed = taskList.printTaskList();
+
+            // Deleted tasks are put back among the others.
+            taskList.applyChanges(changes.reversed());
+            storage.saveChanges(changes.reversed());
+            storage.flush();
+            assertEquals(original, taskList.printTaskList(), kind);
+            assertEquals(original, new TaskList(createStorage(kind, dir).loadTasks()).printTaskList(), kind);
+
+            taskList.applyChanges(changes);
+            storage.saveChanges(changes);
+            storage.flush();
+            assertEquals(changed, taskList.printTaskList(), kind);
+            assertEquals(changed, new TaskList(createStorage(kind, dir).loadTasks()).printTaskList(), kind);
+        }
+    }
+
+    @Test
+    public void skippedLinesTest() throws IOException {
+        for (String kind : STORES) {
+            File dir = Files.createDirectory(tempDir.toPath().resolve(kind)).toFile();
+            Files.writeString(new File(dir, "anxi.txt").toPath(), String.join(System.lineSeparator(),
+                    "T | 0 | a", "", "T | 0 | b", "not a task", "T | 0 | c", "T | 0 | d"));
+
+            TaskStore storage = createStorage(kind, dir);
+            TaskList taskList = new TaskList(storage.loadTasks());
+            storage.updateTask(taskList.markTask(1), 1, 4);
+            storage.deleteTasks(List.of(taskList.deleteTask(2)), new int[] {2}, 4);
+            storage.flush();
+
+            List<Task> reloaded = createStorage(kind, dir).loadTasks();
+            assertEquals("1. [T][ ] a\n2. [T][X] b\n3. [T][ ] d\n", new TaskList(reloaded).printTaskList(), kind);
+        }
+    }
+
+    @Test
+    public void deletedLinesFoundByIdTest() throws IOException {
+        for (String kind : new String[] {"text", "lazy", "columnar"}) {
+            File dir = Files.createDirectory(tempDir.toPath().resolve(kind)).toFile();
+            File save = new File(dir, "anxi.txt");
+            Files.writeString(save.toPath(), String.join(System.lineSeparator(),
+                    "1 | T | 0 | a", "2 | T | 0 | b", "3 | T | 0 | c", "4 | T | 0 | d"));
+
+            TaskStore storage = createStorage(kind, dir);
+            TaskList taskList = new TaskList(storage.loadTasks());
+            // Lines edited by hand after loading no longer match the indices of the tasks.
+            Files.writeString(save.toPath(), String.join(System.lineSeparator(),
+                    "1 | T | 0 | a", "", "5 | T | 0 | e", "2 | T | 0 | b", "3 | T | 0 | c", "4 | T | 0 | d"));
+            int[] deleted = {1, 2};
+            storage.deleteTasks(taskList.deleteTasks(deleted), deleted, 4);
+            storage.flush();
+
+            assertEquals(String.join(System.lineSeparator(), "1 | T | 0 | a", "5 | T | 0 | e", "4 | T | 0 | d"),
+                    Files.readString(save.toPath()), kind);
+        }
+    }
+
+    @Test
+    public void changedLinesFoundByIdTest() throws IOException {
+        String n = System.lineSeparator();
+        for (String kind : new String[] {"text", "lazy", "columnar"}) {
+            File dir = Files.createDirectory(tempDir.toPath().resolve(kind)).toFile();
+            File save = new File(dir, "anxi.txt");
+            Files.writeString(save.toPath(), "1 | T | 0 | a" + n + "2 | T | 0 | b" + n + "3 | T | 0 | c" + n
+                    + "4 | T | 0 | d");
+
+            TaskStore storage = createStorage(kind, dir);
+            TaskList taskList = new TaskList(storage.loadTasks());
+            Parser parser = new Parser();
+            // Lines edited by hand after loading no longer match the indices of the tasks.
+            Files.writeString(save.toPath(), "1 | T | 0 | a" + n + n + "9 | T | 0 | e" + n + "2 | T | 0 | b" + n
+                    + "3 | T | 0 | c" + n + "4 | T | 0 | d");
+            parser.parseInput("delete 3; todo z", storage, taskList, new Ui());
+            assertEquals("1 | T | 0 | a" + n + "9 | T | 0 | e" + n + "2 | T | 0 | b" + n + "4 | T | 0 | d" + n
+                    + "5 | T | 0 | z", Files.readString(save.toPath()), kind);
+
+            parser.parseInput("delete 2", storage, taskList, new Ui());
+            parser.parseInput("undo", storage, taskList, new Ui());
+            assertEquals("1 | T | 0 | a" + n + "9 | T | 0 | e" + n + "2 | T | 0 | b" + n + "4 | T | 0 | d" + n
+                    + "5 | T | 0 | z", Files.readString(save.toPath()), kind);
+        }
+    }
+
+    @Test
+    public void idsKeptOnReloadTest() throws IOException {
+        for (String kind : STORES) {
+            File dir = Files.createDirectory(tempDir.toPath().resolve(kind)).toFile();
+            // Saved before tasks had ids, so they are given ids in list order on the first load.
+            Files.writeString(new File(dir, "anxi.txt").toPath(), String.join(System.lineSeparator(),
+                    "T | 0 | a", "T | 0 | b", "D | 0 | c | 2024-02-22 12:00", "T | 0 | d"));
+
+            TaskStore storage = createStorage(kind, dir);
+            TaskList taskList = new TaskList(storage.loadTasks(), storage.loadNextId());
+            Parser parser = new Parser();
+            parser.parseInput("delete 4; todo e; mark 2; delete 1", storage, taskList, new Ui());
+            storage.flush();
+            assertEquals("[2, 3, 5]", idsOf(taskList), kind);
+
+            storage = createStorage(kind, dir);
+            TaskList reloaded = new TaskList(storage.loadTasks(), storage.loadNextId());
+            assertEquals("[2, 3, 5]", idsOf(reloaded), kind);
+            assertEquals(6, reloaded.addTodo("f").getId(), kind);
+        }
+    }
+
+    private static String idsOf(TaskList taskList) {
+        StringBuilder ids = new StringBuilder("[");
+        for (Task task : taskList.getTasks(0, taskList.getNumOfTasks())) {
+            ids.append(ids.length() > 1 ? ", " : "").append(task.getId());
+        }
+        return ids.append("]").toString();
+    }
+
+    private static TaskStore createStorage(String kind, File dir) {
+        String filePath = new File(dir, "anxi.txt").getPath();
+        switch (kind) {
+        case "lazy":
+            return new LazyStorage(filePath);
+
+        case "columnar":
+            return new ColumnarStorage(filePath);
+
+        case "binary":
+            return new BinaryStorage(new File(dir, "anxi.bin").getPath(), filePath);
+
+        case "journal":
+            return new JournaledStorage(filePath);
+
+        case "sharded":
+            return new ShardedStorage(new File(dir, "shards").getPath(), filePath);
+
+        case "snapshot":
+            return new SnapshotStorage(filePath, SnapshotStorage.DEFAULT_CHECKPOINT_INTERVAL);
+
+        case "writebehind":
+            return new WriteBehindStorage(filePath, WriteBehindStorage.Durability.ON_EXIT, 0, false);
+
+        case "database":
+            return new DatabaseStore(new File(dir, "anxi.db").getPath(), filePath);
+
+        default:
+            return new Storage(filePath);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import anxi.command.Storage;
+import anxi.storage.ColumnarStorage;
+import anxi.storage.ColumnarTaskList;
+import anxi.tasks.Task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ColumnarStorageTest {
+    @TempDir
+    File dir;
+
+    @Test
+    public void sameTasksAsTextTest() throws IOException {
+        File save = new File(dir, "anxi.txt");
+        Files.writeString(save.toPath(), "T | 0 | read" + System.lineSeparator()
+                + "D | 1 | essay draft | 2024-02-22 12:00" + System.lineSeparator()
+                + "E | 0 | gym | 2024-02-23 18:00 | 19:30");
+
+        ColumnarTaskList tasks = (ColumnarTaskList) new ColumnarStorage(save.getPath()).loadTasks();
+        List<Task> expected = new Storage(save.getPath()).loadTasks();
+        assertEquals(expected.size(), tasks.size());
+        for (int i = 0; i < expected.size(); ++i) {
+            assertEquals(expected.get(i).saveFileString(), tasks.get(i).saveFileString());
+            assertEquals(expected.get(i).getId(), tasks.get(i).getId());
+        }
+        assertEquals('E', tasks.getType(2));
+        assertTrue(tasks.isDone(1));
+    }
+}
@@ -0,0 +1,62 @@
+package storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import anxi.storage.DatabaseStore;
+import anxi.tasks.Task;
+import anxi.tasks.ToDo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class DatabaseStoreTest {
+    @TempDir
+    File dir;
+
+    @Test
+    public void pointUpdatesTest() throws IOException {
+        File text = new File(dir, "anxi.txt");
+        String db = new File(dir, "anxi.db").getPath();
+        Files.writeString(text.toPath(), "T | 0 | read" + System.lineSeparator() + "D | 0 | essay | 2024-02-22 12:00");
+
+        DatabaseStore store = new DatabaseStore(db, text.getPath());
+        List<Task> loaded = store.loadTasks();
+        assertEquals(2, loaded.size());
+
+        store.addNewTask(new ToDo("write"));
+        store.updateTask(new ToDo("read a much longer book than planned", true), 0, 3);
+        store.deleteTasks(List.of(loaded.get(1)), new int[] {1}, 3);
+        store.addNewTask(new ToDo("sleep"));
+
+        List<Task> tasks = new DatabaseStore(db, text.getPath()).loadTasks();
+        assertEquals(3, tasks.size());
+        assertEquals("[T][X] read a much longer book than planned", tasks.get(0).toString());
+        assertEquals("[T][ ] write", tasks.get(1).toString());
+        assertEquals("[T][ ] sleep", tasks.get(2).toString());
+    }
+
+    @Test
+    public void tornSlotDroppedTest() throws IOException {
+        File text = new File(dir, "anxi.txt");
+        File db = new File(dir, "anxi.db");
+        Files.writeString(text.toPath(), "T | 0 | read" + System.lineSeparator() + "T | 0 | write");
+
+        DatabaseStore store = new DatabaseStore(db.getPath(), text.getPath());
+        store.loadTasks();
+        store.loadTasks();
+        byte[] content = Files.readAllBytes(db.toPath());
+        Files.write(db.toPath(), Arrays.copyOf(content, content.length - 20));
+
+        store = new DatabaseStore(db.getPath(), text.getPath());
+        assertEquals(1, store.loadTasks().size());
+        store.addNewTask(new ToDo("sleep"));
+        List<Task> tasks = new DatabaseStore(db.getPath(), text.getPath()).loadTasks();
+        assertEquals("[T][ ] sleep", tasks.get(1).toString());
+    }
+}
@@ -0,0 +1,126 @@
+package storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import anxi.storage.JournaledStorage;
+import anxi.tasks.Task;
+import anxi.tasks.ToDo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class JournaledStorageTest {
+    @TempDir
+    File dir;
+
+    private String createSaveFile() throws IOException {
+        File save = new File(dir, "anxi.txt");
+        Files.writeString(save.toPath(), "1 | T | 0 | read" + System.lineSeparator() + "2 | T | 0 | write");
+        return save.getPath();
+    }
+
+    @Test
+    public void replayLogTest() throws IOException {
+        String path = createSaveFile();
+        JournaledStorage storage = new JournaledStorage(path);
+        List<Task> loaded = storage.loadTasks();
+
+        storage.addNewTask(new ToDo("sleep"));
+        storage.updateTask(new ToDo("read", true), 0, 3);
+        storage.deleteTasks(List.of(loaded.get(1)), new int[] {1}, 3);
+
+        ArrayList<Task> tasks = new JournaledStorage(path).loadTasks();
+        assertEquals(2, tasks.size());
+        assertEquals("[T][X] read", tasks.get(0).toString());
+        assertEquals("[T][ ] sleep", tasks.get(1).toString());
+    }
+
+    @Test
+    public void compactionTest() throws IOException {
+        String path = createSaveFile();
+        JournaledStorage storage = new JournaledStorage(path, 1);
+        storage.loadTasks();
+
+        Task sleep = new ToDo("sleep");
+        sleep.setId(3);
+        storage.addNewTask(sleep);
+        storage.awaitCompaction();
+
+        assertFalse(new File(path + ".log.1").exists());
+        assertEquals("1 | T | 0 | read" + System.lineSeparator() + "2 | T | 0 | write" + System.lineSeparator()
+                + "3 | T | 0 | sleep", Files.readString(new File(path).toPath()));
+        assertEquals(3, new JournaledStorage(path).loadTasks().size());
+    }
+
+    @Test
+    public void tornRecordDroppedTest() throws IOException {
+        String path = createSaveFile();
+        Files.writeString(new File(path + ".log").toPath(), "A | T | 0 | sleep" + System.lineSeparator() + "U | 1");
+        JournaledStorage storage = new JournaledStorage(path);
+        List<Task> loaded = storage.loadTasks();
+        assertEquals(3, loaded.size());
+
+        storage.deleteTasks(List.of(loaded.get(0)), new int[] {0}, 3);
+        ArrayList<Task> tasks = new JournaledStorage(path).loadTasks();
+        assertEquals(2, tasks.size());
+        assertEquals("[T][ ] write", tasks.get(0).toString());
+    }
+
+    @Test
+    public void tornAddRecordDroppedTest() throws IOException {
+        String path = createSaveFile();
+        File log = new File(path + ".log");
+        Files.writeString(log.toPath(), "A | T");
+        JournaledStorage storage = new JournaledStorage(path);
+        assertEquals(2, storage.loadTasks().size());
+        storage.addNewTask(new ToDo("d"));
+        storage.addNewTask(new ToDo("e"));
+        assertEquals("[[T][ ] read, [T][ ] write, [T][ ] d, [T][ ] e]",
+                new JournaledStorage(path).loadTasks().toString());
+
+        Files.writeString(log.toPath(), "A | D | 0 | x | 2024-02-2" + System.lineSeparator());
+        storage = new JournaledStorage(path);
+        assertEquals("[[T][ ] read, [T][ ] write]", storage.loadTasks().toString());
+        assertEquals("", Files.readString(log.toPath()));
+    }
+
+    @Test
+    public void legacyIdsSavedTest() throws IOException {
+        File save = new File(dir, "anxi.txt");
+        Files.writeString(save.toPath(), "T | 0 | read" + System.lineSeparator() + "T | 0 | write");
+        JournaledStorage storage = new JournaledStorage(save.getPath());
+        List<Task> loaded = storage.loadTasks();
+        assertEquals(2, loaded.get(1).getId());
+
+        storage.deleteTasks(List.of(loaded.get(0)), new int[] {0}, 2);
+        ArrayList<Task> tasks = new JournaledStorage(save.getPath()).loadTasks();
+        assertEquals(1, tasks.size());
+        assertEquals(2, tasks.get(0).getId());
+    }
+
+    @Test
+    public void failedCompactionRetriedTest() throws IOException {
+        String path = createSaveFile();
+        JournaledStorage storage = new JournaledStorage(path, 1);
+        storage.loadTasks();
+        File compactFile = new File(path + ".compact");
+        compactFile.mkdir();
+
+        storage.addNewTask(new ToDo("sleep"));
+        assertThrows(IOException.class, storage::awaitCompaction);
+        compactFile.delete();
+        storage.addNewTask(new ToDo("eat"));
+        storage.awaitCompaction();
+
+        assertFalse(new File(path + ".log.1").exists());
+        assertEquals(4, new JournaledStorage(path).loadTasks().size());
+    }
+}
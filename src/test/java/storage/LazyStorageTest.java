@@ -0,0 +1,62 @@
+package storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import anxi.command.TaskList;
+import anxi.storage.LazyStorage;
+import anxi.storage.LazyTaskList;
+import anxi.tasks.Task;
+import anxi.tasks.ToDo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LazyStorageTest {
+    @TempDir
+    File dir;
+
+    @Test
+    public void decodeOnAccessTest() throws IOException {
+        File save = new File(dir, "anxi.txt");
+        Files.writeString(save.toPath(), "1 | T | 0 | read" + System.lineSeparator()
+                + "2 | D | 1 | essay | 2024-02-22 12:00" + System.lineSeparator()
+                + "3 | E | 0 | gym | 2024-02-23 18:00 | 19:00");
+
+        LazyTaskList tasks = (LazyTaskList) new LazyStorage(save.getPath()).loadTasks();
+        assertEquals(3, tasks.size());
+        assertEquals(0, tasks.getNumOfMaterialized());
+        assertEquals('D', tasks.getType(1));
+        assertTrue(tasks.isDone(1));
+
+        assertEquals("[D][X] essay (by: Feb 22 2024 12:00 PM)", tasks.get(1).toString());
+        assertEquals(1, tasks.getNumOfMaterialized());
+
+        tasks.add(new ToDo("sleep"));
+        tasks.remove(0);
+        assertEquals(3, tasks.size());
+        assertEquals("[E][ ] gym (from: Feb 23 2024 06:00 PM to: 07:00 PM)", tasks.get(1).toString());
+        assertEquals("[T][ ] sleep", tasks.get(2).toString());
+    }
+
+    @Test
+    public void malformedLinesSetAsideTest() throws IOException {
+        File save = new File(dir, "anxi.txt");
+        Files.writeString(save.toPath(), "1 | T | 0 | a" + System.lineSeparator()
+                + "2 | E | 0 | gym | 2024-02-2 18:00 | 19:00" + System.lineSeparator()
+                + "3 | T | 1 | c" + System.lineSeparator()
+                + "4 | D | 0 | b");
+
+        List<Task> tasks = new LazyStorage(save.getPath()).loadTasks();
+        assertEquals(2, tasks.size());
+        assertEquals("[T][X] c", new TaskList(tasks, 1).getTasks(1, 2).get(0).toString());
+        assertEquals("1 | T | 0 | a" + System.lineSeparator() + "3 | T | 1 | c", Files.readString(save.toPath()));
+        assertEquals(List.of("2 | E | 0 | gym | 2024-02-2 18:00 | 19:00", "4 | D | 0 | b"),
+                Files.readAllLines(new File(dir, "anxi.txt.unreadable").toPath()));
+    }
+}
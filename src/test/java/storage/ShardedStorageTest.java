@@ -0,0 +1,121 @@
+package storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.YearMonth;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import anxi.storage.ShardedStorage;
+import anxi.tasks.Task;
+import anxi.tasks.ToDo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ShardedStorageTest {
+    @TempDir
+    File dir;
+
+    private static Task toDo(int id, String description, boolean isDone) {
+        Task task = new ToDo(description, isDone);
+        task.setId(id);
+        return task;
+    }
+
+    @Test
+    public void shardedChangesTest() throws IOException {
+        File save = new File(dir, "anxi.txt");
+        File shards = new File(dir, "shards");
+        Files.writeString(save.toPath(), "1 | T | 0 | read" + System.lineSeparator()
+                + "2 | D | 0 | essay | 2024-02-22 12:00" + System.lineSeparator()
+                + "3 | T | 0 | write" + System.lineSeparator()
+                + "4 | E | 0 | gym | 2024-02-23 18:00 | 19:00");
+
+        ShardedStorage storage = new ShardedStorage(shards.getPath(), save.getPath());
+        List<Task> loaded = storage.loadTasks();
+        assertEquals(4, loaded.size());
+
+        storage.updateTask(toDo(3, "write", true), 2, 4);
+        storage.deleteTasks(List.of(loaded.get(1)), new int[] {1}, 4);
+        storage.addNewTask(toDo(5, "sleep", false));
+
+        assertEquals("0 | 1 | T | 0 | read" + System.lineSeparator() + "2 | 3 | T | 1 | write"
+                + System.lineSeparator() + "4 | 5 | T | 0 | sleep" + System.lineSeparator(),
+                Files.readString(new File(shards, "todo.seg").toPath()));
+
+        List<Task> tasks = new ShardedStorage(shards.getPath(), save.getPath()).loadTasks();
+        assertEquals(4, tasks.size());
+        assertEquals("[T][ ] read", tasks.get(0).toString());
+        assertEquals("[T][X] write", tasks.get(1).toString());
+        assertEquals("[E][ ] gym (from: Feb 23 2024 06:00 PM to: 07:00 PM)", tasks.get(2).toString());
+        assertEquals("[T][ ] sleep", tasks.get(3).toString());
+
+        assertEquals(1, storage.loadMonth(YearMonth.of(2024, 2)).size());
+    }
+
+    @Test
+    public void unreadableShardTest() throws IOException {
+        File save = new File(dir, "anxi.txt");
+        File shards = new File(dir, "shards");
+        Files.writeString(save.toPath(), "T | 0 | read");
+
+        ShardedStorage storage = new ShardedStorage(shards.getPath(), save.getPath());
+        storage.loadTasks();
+        storage.addNewTask(new ToDo("caf\u00e9"));
+        List<Task> tasks = new ShardedStorage(shards.getPath(), save.getPath()).loadTasks();
+        assertEquals("[T][ ] caf\u00e9", tasks.get(1).toString());
+
+        File todo = new File(shards, "todo.seg");
+        todo.delete();
+        todo.mkdir();
+        assertThrows(IOException.class, () -> new ShardedStorage(shards.getPath(), save.getPath()).loadTasks());
+    }
+
+    @Test
+    public void tornLineSetAsideTest() throws IOException {
+        File save = new File(dir, "anxi.txt");
+        File shards = new File(dir, "shards");
+        Files.writeString(save.toPath(), "1 | T | 0 | read" + System.lineSeparator()
+                + "2 | D | 0 | essay | 2024-02-22 12:00");
+        new ShardedStorage(shards.getPath(), save.getPath()).loadTasks();
+
+        // Left by a crash while a line was appended.
+        File month = new File(shards, "2024-02.seg");
+        Files.writeString(month.toPath(), Files.readString(month.toPath()) + "2 | 3 | D | 0 | ess");
+        ShardedStorage storage = new ShardedStorage(shards.getPath(), save.getPath());
+        assertEquals(2, storage.loadTasks().size());
+        assertEquals("1 | 2 | D | 0 | essay | 2024-02-22 12:00" + System.lineSeparator(),
+                Files.readString(month.toPath()));
+        assertEquals(List.of("2 | 3 | D | 0 | ess"), Files.readAllLines(new File(dir, "anxi.txt.unreadable").toPath()));
+
+        storage.addNewTask(toDo(3, "write", false));
+        List<Task> tasks = new ShardedStorage(shards.getPath(), save.getPath()).loadTasks();
+        assertEquals("[[T][ ] read, [D][ ] essay (by: Feb 22 2024 12:00 PM), [T][ ] write]", tasks.toString());
+    }
+
+    @Test
+    public void manifestConvertedTest() throws IOException {
+        File save = new File(dir, "anxi.txt");
+        File shards = new File(dir, "shards");
+        shards.mkdir();
+        Files.writeString(new File(shards, "manifest.txt").toPath(), "todo 1" + System.lineSeparator()
+                + "2024-02 1" + System.lineSeparator() + "todo 1" + System.lineSeparator());
+        Files.writeString(new File(shards, "todo.txt").toPath(), "1 | T | 0 | read" + System.lineSeparator()
+                + "3 | T | 0 | write" + System.lineSeparator());
+        Files.writeString(new File(shards, "2024-02.txt").toPath(), "2 | D | 0 | essay | 2024-02-22 12:00");
+
+        ShardedStorage storage = new ShardedStorage(shards.getPath(), save.getPath());
+        assertEquals(3, storage.loadTasks().size());
+        assertFalse(new File(shards, "manifest.txt").exists());
+        assertFalse(new File(shards, "todo.txt").exists());
+
+        List<Task> tasks = new ShardedStorage(shards.getPath(), save.getPath()).loadTasks();
+        assertEquals("[[T][ ] read, [D][ ] essay (by: Feb 22 2024 12:00 PM), [T][ ] write]", tasks.toString());
+        assertEquals(3, tasks.get(2).getId());
+    }
+}
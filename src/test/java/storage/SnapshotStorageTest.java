@@ -0,0 +1,71 @@
+package storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import anxi.storage.SnapshotStorage;
+import anxi.tasks.Task;
+import anxi.tasks.ToDo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SnapshotStorageTest {
+    @TempDir
+    File dir;
+
+    @Test
+    public void snapshotAndDeltaTest() throws IOException {
+        File save = new File(dir, "anxi.txt");
+        Files.writeString(save.toPath(), "T | 0 | read" + System.lineSeparator() + "D | 0 | essay | 2024-02-22 12:00");
+
+        SnapshotStorage storage = new SnapshotStorage(save.getPath(), 3);
+        List<Task> loaded = storage.loadTasks();
+        assertEquals(2, loaded.size());
+
+        storage.addNewTask(new ToDo("write"));
+        storage.updateTask(new ToDo("read", true), 0, 3);
+        storage.deleteTasks(List.of(loaded.get(1)), new int[] {1}, 3);
+        storage.awaitCheckpoint();
+        storage.addNewTask(new ToDo("sleep"));
+
+        assertTrue(new File(dir, "anxi.txt.snap.1").exists());
+        assertFalse(new File(dir, "anxi.txt.snap.0").exists());
+
+        ArrayList<Task> tasks = new SnapshotStorage(save.getPath(), 3).loadTasks();
+        assertEquals(3, tasks.size());
+        assertEquals("[T][X] read", tasks.get(0).toString());
+        assertEquals("[T][ ] write", tasks.get(1).toString());
+        assertEquals("[T][ ] sleep", tasks.get(2).toString());
+    }
+
+    @Test
+    public void tornDeltaTruncatedTest() throws IOException {
+        File save = new File(dir, "anxi.txt");
+        Files.writeString(save.toPath(), "T | 0 | a" + System.lineSeparator() + "T | 0 | b");
+
+        SnapshotStorage storage = new SnapshotStorage(save.getPath(), SnapshotStorage.DEFAULT_CHECKPOINT_INTERVAL);
+        storage.loadTasks();
+        storage.addNewTask(new ToDo("c"));
+        File delta = new File(dir, "anxi.txt.delta.0");
+        byte[] content = Files.readAllBytes(delta.toPath());
+        Files.write(delta.toPath(), Arrays.copyOf(content, content.length - 3));
+
+        storage = new SnapshotStorage(save.getPath(), SnapshotStorage.DEFAULT_CHECKPOINT_INTERVAL);
+        assertEquals(2, storage.loadTasks().size());
+        storage.addNewTask(new ToDo("d"));
+        storage.addNewTask(new ToDo("e"));
+
+        ArrayList<Task> tasks = new SnapshotStorage(save.getPath(), SnapshotStorage.DEFAULT_CHECKPOINT_INTERVAL)
+                .loadTasks();
+        assertEquals("[[T][ ] a, [T][ ] b, [T][ ] d, [T][ ] e]", tasks.toString());
+    }
+}
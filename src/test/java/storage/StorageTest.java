@@ -0,0 +1,94 @@
+package storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import anxi.command.Parser;
+import anxi.command.Storage;
+import anxi.command.TaskList;
+import anxi.command.Ui;
+import anxi.tasks.Task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class StorageTest {
+    @TempDir
+    File dir;
+
+    @Test
+    public void parallelLoadKeepsOrderTest() throws IOException {
+        File save = new File(dir, "anxi.txt");
+        StringBuilder content = new StringBuilder();
+        int numOfTasks = 100_000;
+        for (int i = 0; i < numOfTasks; ++i) {
+            if (i > 0) {
+                content.append(System.lineSeparator());
+            }
+            content.append("T | ").append(i % 2).append(" | task ").append(i);
+            if (i == 500) {
+                content.append(System.lineSeparator()).append("X | 0 | corrupted");
+            }
+        }
+        Files.writeString(save.toPath(), content);
+
+        List<Task> tasks = new Storage(save.getPath()).loadTasks();
+        assertEquals(numOfTasks, tasks.size());
+        for (int i = 0; i < numOfTasks; ++i) {
+            assertEquals("[T][" + (i % 2 == 1 ? "X" : " ") + "] task " + i, tasks.get(i).toString());
+        }
+    }
+
+    @Test
+    public void recordsAddressedByIdTest() throws IOException {
+        File save = new File(dir, "anxi.txt");
+        String n = System.lineSeparator();
+        Files.writeString(save.toPath(), "T | 0 | read" + n + "T | 0 | write" + n + "T | 0 | sleep");
+
+        Storage storage = new Storage(save.getPath());
+        List<Task> tasks = storage.loadTasks();
+        assertEquals("1 | T | 0 | read" + n + "2 | T | 0 | write" + n + "3 | T | 0 | sleep",
+                Files.readString(save.toPath()));
+
+        TaskList taskList = new TaskList(tasks);
+        storage.addNewTask(taskList.addTodo("eat"));
+        assertEquals(3, taskList.indexOfId(4));
+
+        // Indices that no longer match the file are ignored when the task has an id.
+        storage.updateTask(taskList.markTask(2), 0, 4);
+        storage.deleteTasks(List.of(taskList.deleteTask(0)), new int[] {2}, 4);
+        assertEquals("2 | T | 0 | write" + n + "3 | T | 1 | sleep" + n + "4 | T | 0 | eat",
+                Files.readString(save.toPath()));
+        assertEquals(-1, taskList.indexOfId(1));
+        assertEquals(1, taskList.indexOfId(3));
+
+        List<Task> reloaded = new Storage(save.getPath()).loadTasks();
+        assertEquals(3, reloaded.size());
+        assertEquals(3, reloaded.get(1).getId());
+        assertEquals("[T][X] sleep", reloaded.get(1).toString());
+        assertEquals(5, new TaskList(reloaded).addTodo("nap").getId());
+    }
+
+    @Test
+    public void deletedIdsNotReusedTest() throws IOException {
+        File save = new File(dir, "anxi.txt");
+        String n = System.lineSeparator();
+        Files.writeString(save.toPath(), "1 | T | 0 | read" + n + "2 | T | 0 | write");
+
+        Storage storage = new Storage(save.getPath());
+        TaskList taskList = new TaskList(storage.loadTasks(), storage.loadNextId());
+        Parser parser = new Parser();
+        parser.parseInput("todo eat", storage, taskList, new Ui());
+        parser.parseInput("delete 3", storage, taskList, new Ui());
+        parser.parseInput("delete 2", storage, taskList, new Ui());
+
+        Storage reloaded = new Storage(save.getPath());
+        TaskList reloadedList = new TaskList(reloaded.loadTasks(), reloaded.loadNextId());
+        assertEquals(1, reloadedList.getNumOfTasks());
+        assertEquals(4, reloadedList.addTodo("nap").getId());
+    }
+}
@@ -0,0 +1,86 @@
+package storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import anxi.storage.WriteBehindStorage;
+import anxi.storage.WriteBehindStorage.Durability;
+import anxi.tasks.Task;
+import anxi.tasks.ToDo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class WriteBehindStorageTest {
+    @TempDir
+    File dir;
+
+    private static Task toDo(int id, String description, boolean isDone) {
+        Task task = new ToDo(description, isDone);
+        task.setId(id);
+        return task;
+    }
+
+    @Test
+    public void flushOnExitTest() throws IOException {
+        File save = new File(dir, "anxi.txt");
+        Files.writeString(save.toPath(), "1 | T | 0 | read");
+
+        WriteBehindStorage storage = new WriteBehindStorage(save.getPath(), Durability.ON_EXIT, 0, false);
+        storage.loadTasks();
+        storage.addNewTask(toDo(2, "write", false));
+        storage.addNewTask(toDo(3, "sleep", false));
+        assertEquals("1 | T | 0 | read", Files.readString(save.toPath()));
+
+        storage.flush();
+        assertEquals("1 | T | 0 | read" + System.lineSeparator() + "2 | T | 0 | write" + System.lineSeparator()
+                + "3 | T | 0 | sleep", Files.readString(save.toPath()));
+
+        storage.updateTask(toDo(2, "write", true), 1, 3);
+        storage.deleteTasks(List.of(toDo(1, "read", false)), new int[] {0}, 3);
+        storage.flush();
+        assertEquals("2 | T | 1 | write" + System.lineSeparator() + "3 | T | 0 | sleep",
+                Files.readString(save.toPath()));
+    }
+
+    @Test
+    public void flushAtIntervalTest() throws IOException, InterruptedException {
+        File save = new File(dir, "anxi.txt");
+        Files.writeString(save.toPath(), "1 | T | 0 | read");
+
+        WriteBehindStorage storage = new WriteBehindStorage(save.getPath(), Durability.INTERVAL, 10, false);
+        storage.loadTasks();
+        storage.addNewTask(toDo(2, "write", false));
+
+        String expected = "1 | T | 0 | read" + System.lineSeparator() + "2 | T | 0 | write";
+        for (int i = 0; i < 500 && !Files.readString(save.toPath()).equals(expected); ++i) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, Files.readString(save.toPath()));
+    }
+
+    @Test
+    public void failedFlushRetriedTest() throws IOException {
+        File save = new File(dir, "anxi.txt");
+        Files.writeString(save.toPath(), "1 | T | 0 | read" + System.lineSeparator() + "2 | T | 0 | write");
+        File temp = new File(save.getPath() + ".tmp");
+
+        WriteBehindStorage storage = new WriteBehindStorage(save.getPath(), Durability.ON_EXIT, 0, false);
+        List<Task> loaded = storage.loadTasks();
+        storage.deleteTasks(List.of(loaded.get(0)), new int[] {0}, 2);
+        temp.mkdir();
+        assertThrows(IOException.class, storage::flush);
+        assertThrows(IOException.class, () -> storage.addNewTask(toDo(3, "sleep", false)));
+
+        temp.delete();
+        storage.addNewTask(toDo(3, "sleep", false));
+        storage.flush();
+        assertEquals("2 | T | 0 | write" + System.lineSeparator() + "3 | T | 0 | sleep",
+                Files.readString(save.toPath()));
+    }
+}
@@ -35,4 +35,16 @@ public class DeadlineTest {
                 new Deadline("return book", LocalDateTime.parse("2024/01/25 1700",
                         DateTimeFormatter.ofPattern("yyyy/MM/dd HHmm"))).saveFileString());
     }
+
+    @Test
+    public void renderAfterMarkTest() {
+        Deadline deadline = new Deadline("return book", LocalDateTime.of(2024, 1, 25, 17, 0));
+        assertEquals("[D][ ] return book (by: Jan 25 2024 05:00 PM)", deadline.toString());
+
+        assertEquals("[D][X] return book (by: Jan 25 2024 05:00 PM)", deadline.withIsDone(true).toString());
+        assertEquals("[D][ ] return book (by: Jan 25 2024 05:00 PM)", deadline.toString());
+
+        deadline.updateIsDone(true);
+        assertEquals("[D][X] return book (by: Jan 25 2024 05:00 PM)", deadline.toString());
+    }
 }